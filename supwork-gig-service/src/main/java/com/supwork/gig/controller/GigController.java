@@ -2,6 +2,7 @@ package com.supwork.gig.controller;
 
 import com.supwork.gig.dto.CreateGigRequest;
 import com.supwork.gig.dto.CreateRatingRequest;
+import com.supwork.gig.dto.GigAssignmentRequest;
 import com.supwork.gig.dto.GigResponseDTO;
 import com.supwork.gig.dto.RatingDTO;
 import com.supwork.gig.service.GigService;
@@ -22,6 +23,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -163,6 +165,36 @@ public class GigController {
         return ResponseEntity.ok(response);
     }
     
+    @PutMapping("/assignments")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SERVICE')")
+    @Operation(summary = "Assign Gigs in Batch", description = "Apply many gig assignments at once; gigs no longer open are skipped")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "IDs of the gigs that were assigned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<Long>> assignGigs(@RequestBody List<GigAssignmentRequest> assignments) {
+        log.info("Assigning {} gigs in batch", assignments.size());
+        
+        List<Long> assigned = gigService.assignGigs(assignments);
+        return ResponseEntity.ok(assigned);
+    }
+    
+    @GetMapping("/assigned-counts")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SERVICE')")
+    @Operation(summary = "Count Assigned Gigs", description = "Number of assigned gigs per technician, for dispatch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Technician IDs mapped to their assigned gig counts"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Map<Long, Long>> getAssignedCounts() {
+        return ResponseEntity.ok(gigService.getAssignedCounts());
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('CLIENT')")
     @Operation(summary = "Delete Gig", description = "Delete gig by owner")
@@ -8,6 +8,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,4 +27,7 @@ public class CreateGigRequest {
     
     @NotBlank(message = "Location is required")
     private String location;
+    
+    private LocalDateTime scheduledStart; // Optional time window (UTC), together with scheduledEnd
+    private LocalDateTime scheduledEnd;
 }
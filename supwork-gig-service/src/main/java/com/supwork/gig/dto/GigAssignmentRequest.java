@@ -0,0 +1,16 @@
+package com.supwork.gig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GigAssignmentRequest {
+    
+    private Long gigId;
+    private Long technicianId;
+}
@@ -43,6 +43,13 @@ public class Gig {
     @Column(name = "technician_id")
     private Long technicianId;
     
+    // Optional time window the work must happen in (UTC); both set or both null
+    @Column(name = "scheduled_start")
+    private LocalDateTime scheduledStart;
+    
+    @Column(name = "scheduled_end")
+    private LocalDateTime scheduledEnd;
+    
     @Column(nullable = false, name = "created_at")
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -0,0 +1,22 @@
+package com.supwork.gig.event;
+
+import com.supwork.gig.dto.GigResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * A gig was created, assigned or deleted. Published inside the transaction
+ * that made the change and handled once it commits.
+ */
+@Value
+@AllArgsConstructor
+public class GigChangedEvent {
+
+    Long gigId;
+    GigResponseDTO gig; // New state, or null when the gig was deleted
+    boolean removed;
+
+    public static GigChangedEvent removed(Long gigId) {
+        return new GigChangedEvent(gigId, null, true);
+    }
+}
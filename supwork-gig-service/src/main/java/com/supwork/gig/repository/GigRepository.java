@@ -4,10 +4,16 @@ import com.supwork.gig.entity.Gig;
 import com.supwork.gig.entity.GigStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GigRepository extends JpaRepository<Gig, Long> {
@@ -21,4 +27,16 @@ public interface GigRepository extends JpaRepository<Gig, Long> {
     Page<Gig> findByTechnicianId(Long technicianId, Pageable pageable);
     
     Page<Gig> findByClientId(Long clientId, Pageable pageable);
+    
+    // Locks the rows; single assigns lock through findWithLockById, so either one waits for the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Gig> findByIdInAndStatus(Collection<Long> ids, GigStatus status);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Gig> findWithLockById(Long id);
+    
+    // technicianId, number of gigs in the status
+    @Query("SELECT g.technicianId, COUNT(g) FROM Gig g WHERE g.status = :status AND g.technicianId IS NOT NULL "
+            + "GROUP BY g.technicianId")
+    List<Object[]> countByTechnicianInStatus(@Param("status") GigStatus status);
 }
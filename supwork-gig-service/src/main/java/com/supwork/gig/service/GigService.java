@@ -4,17 +4,23 @@ import com.supwork.gig.dto.*;
 import com.supwork.gig.entity.Gig;
 import com.supwork.gig.entity.GigStatus;
 import com.supwork.gig.entity.Rating;
+import com.supwork.gig.event.GigChangedEvent;
 import com.supwork.gig.repository.GigRepository;
 import com.supwork.gig.repository.RatingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing gig operations including creation, assignment,
@@ -37,6 +43,7 @@ public class GigService {
     private final GigRepository gigRepository;
     private final RatingRepository ratingRepository;
     private final UserClient userClient;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Creates a new gig in the system.
@@ -63,6 +70,7 @@ public class GigService {
             // Create and save gig
             Gig gig = buildGigFromRequest(request, clientId);
             Gig savedGig = gigRepository.save(gig);
+            publishChange(savedGig);
             
             log.info("Successfully created gig with ID: {}", savedGig.getId());
             return convertToResponseDTO(savedGig);
@@ -118,8 +126,9 @@ public class GigService {
         // Validate technician authorization
         validateTechnicianAuthorization(technicianId);
         
-        // Find and validate gig
-        Gig gig = findGigById(gigId);
+        // Find and validate gig, locked so a concurrent assignment or dispatch batch waits
+        Gig gig = gigRepository.findWithLockById(gigId)
+                .orElseThrow(() -> new RuntimeException("Gig not found with ID: " + gigId));
         validateGigForAssignment(gig);
         
         try {
@@ -128,6 +137,7 @@ public class GigService {
             gig.setStatus(GigStatus.ASSIGNED);
             
             Gig savedGig = gigRepository.save(gig);
+            publishChange(savedGig);
             log.info("Successfully assigned gig ID: {} to technician ID: {}", gigId, technicianId);
             
             return convertToResponseDTO(savedGig);
@@ -138,6 +148,63 @@ public class GigService {
         }
     }
     
+    /**
+     * Assigns many gigs at once, as proposed by search-service's dispatch
+     * engine.
+     * 
+     * The gigs are locked and re-checked in one query, and every assignment
+     * that still applies is flushed as a single JDBC batch. Gigs that were
+     * taken or closed since the proposal are skipped rather than failing the
+     * batch. Technician roles are not re-checked per gig: the proposals only
+     * name technicians from search-service's technician profiles.
+     * 
+     * @param assignments gig and technician pairs; later pairs for the same gig are ignored
+     * @return IDs of the gigs that were assigned
+     * @throws IllegalArgumentException if an assignment lacks a gig or technician ID
+     */
+    public List<Long> assignGigs(List<GigAssignmentRequest> assignments) {
+        log.info("Assigning {} gigs in one batch", assignments.size());
+        
+        Map<Long, Long> technicianByGig = new LinkedHashMap<>();
+        for (GigAssignmentRequest assignment : assignments) {
+            if (assignment.getGigId() == null || assignment.getTechnicianId() == null) {
+                throw new IllegalArgumentException("Each assignment needs a gig and a technician");
+            }
+            technicianByGig.putIfAbsent(assignment.getGigId(), assignment.getTechnicianId());
+        }
+        
+        List<Gig> gigs = gigRepository.findByIdInAndStatus(technicianByGig.keySet(), GigStatus.OPEN);
+        List<Long> assigned = new ArrayList<>(gigs.size());
+        for (Gig gig : gigs) {
+            if (gig.getTechnicianId() != null) {
+                continue;
+            }
+            gig.setTechnicianId(technicianByGig.get(gig.getId()));
+            gig.setStatus(GigStatus.ASSIGNED);
+            assigned.add(gig.getId());
+            publishChange(gig);
+        }
+        gigRepository.saveAll(gigs);
+        
+        log.info("Assigned {} of {} gigs; the rest were no longer open", assigned.size(), technicianByGig.size());
+        return assigned;
+    }
+    
+    /**
+     * Counts the gigs each technician currently holds, for dispatch to leave
+     * busy technicians out.
+     * 
+     * @return technician ID to number of ASSIGNED gigs; technicians with none are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getAssignedCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : gigRepository.countByTechnicianInStatus(GigStatus.ASSIGNED)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+    
     public void deleteGig(Long gigId, Long clientId) {
         log.info("Deleting gig ID: {} by client ID: {}", gigId, clientId);
         
@@ -149,6 +216,7 @@ public class GigService {
         }
         
         gigRepository.delete(gig);
+        eventPublisher.publishEvent(GigChangedEvent.removed(gigId));
         log.info("Deleted gig with ID: {}", gigId);
     }
     
@@ -251,6 +319,12 @@ public class GigService {
         if (request.getLocation() == null || request.getLocation().trim().isEmpty()) {
             throw new IllegalArgumentException("Location is required");
         }
+        if ((request.getScheduledStart() == null) != (request.getScheduledEnd() == null)) {
+            throw new IllegalArgumentException("Scheduled start and end must be given together");
+        }
+        if (request.getScheduledStart() != null && !request.getScheduledEnd().isAfter(request.getScheduledStart())) {
+            throw new IllegalArgumentException("Scheduled end must be after scheduled start");
+        }
     }
 
     /**
@@ -310,6 +384,30 @@ public class GigService {
         }
     }
 
+    /**
+     * Publishes a gig's new state for {@link SearchNotifier}, which sends it
+     * to search-service once the transaction commits. Built without the
+     * user-service lookups, since search-service ignores those fields.
+     * 
+     * @param gig the changed gig
+     */
+    private void publishChange(Gig gig) {
+        GigResponseDTO state = GigResponseDTO.builder()
+                .id(gig.getId())
+                .title(gig.getTitle())
+                .description(gig.getDescription())
+                .budget(gig.getBudget())
+                .location(gig.getLocation())
+                .status(gig.getStatus())
+                .clientId(gig.getClientId())
+                .technicianId(gig.getTechnicianId())
+                .scheduledStart(gig.getScheduledStart())
+                .scheduledEnd(gig.getScheduledEnd())
+                .createdAt(gig.getCreatedAt())
+                .build();
+        eventPublisher.publishEvent(new GigChangedEvent(gig.getId(), state, false));
+    }
+
     /**
      * Finds a gig by ID.
      * 
@@ -335,6 +433,8 @@ public class GigService {
                 .description(request.getDescription())
                 .budget(request.getBudget())
                 .location(request.getLocation())
+                .scheduledStart(request.getScheduledStart())
+                .scheduledEnd(request.getScheduledEnd())
                 .status(GigStatus.OPEN)
                 .clientId(clientId)
                 .createdAt(LocalDateTime.now())
@@ -361,6 +461,8 @@ public class GigService {
                 .clientId(gig.getClientId())
                 .technicianId(gig.getTechnicianId())
                 .technicianEmail(technicianEmail)
+                .scheduledStart(gig.getScheduledStart())
+                .scheduledEnd(gig.getScheduledEnd())
                 .createdAt(gig.getCreatedAt())
                 .canRate(ratingInfo.canRate)
                 .isRated(ratingInfo.isRated)
@@ -0,0 +1,98 @@
+package com.supwork.gig.service;
+
+import com.supwork.gig.event.GigChangedEvent;
+import com.supwork.gig.security.ServiceTokenProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells search-service about gig changes once they commit, so its open-gig
+ * replicas follow within moments instead of at their next reconcile.
+ * 
+ * Every search-service instance keeps its own replica, so each change is
+ * posted to all of them rather than load balanced to one. Posts run on a
+ * single background thread with a bounded queue, so requests never wait on
+ * search-service; a failed or dropped post is only logged, and
+ * search-service's periodic reconcile repairs whatever it missed.
+ */
+@Slf4j
+@Component
+public class SearchNotifier {
+
+    private static final String SEARCH_SERVICE = "search-service";
+
+    private final DiscoveryClient discoveryClient;
+    private final ServiceTokenProvider serviceTokenProvider;
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final ExecutorService executor;
+
+    public SearchNotifier(DiscoveryClient discoveryClient, ServiceTokenProvider serviceTokenProvider,
+                          RestClient.Builder restClientBuilder,
+                          @Value("${search.events.enabled:true}") boolean enabled,
+                          @Value("${search.events.timeout:2s}") Duration timeout,
+                          @Value("${search.events.queue-capacity:10000}") int queueCapacity) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.discoveryClient = discoveryClient;
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.enabled = enabled;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "search-notifier");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> log.warn("Search notification queue full; dropping a gig change"));
+    }
+
+    // Only after commit, so search-service never fetches or indexes a change that rolled back
+    @TransactionalEventListener
+    public void onGigChanged(GigChangedEvent event) {
+        if (enabled) {
+            executor.execute(() -> notifyAll(event));
+        }
+    }
+
+    private void notifyAll(GigChangedEvent event) {
+        for (ServiceInstance instance : discoveryClient.getInstances(SEARCH_SERVICE)) {
+            try {
+                if (event.isRemoved()) {
+                    restClient.delete()
+                            .uri(instance.getUri().resolve("/events/gigs/" + event.getGigId()))
+                            .header(HttpHeaders.AUTHORIZATION, serviceTokenProvider.authorization())
+                            .retrieve()
+                            .toBodilessEntity();
+                } else {
+                    restClient.post()
+                            .uri(instance.getUri().resolve("/events/gigs/" + event.getGigId()))
+                            .header(HttpHeaders.AUTHORIZATION, serviceTokenProvider.authorization())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(event.getGig())
+                            .retrieve()
+                            .toBodilessEntity();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to notify search-service at {} of gig {}: {}",
+                        instance.getUri(), event.getGigId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.supwork.search.cache;
+
+/**
+ * Serializes cached values for the Redis tier of a {@link TwoLevelCache}.
+ */
+public interface CacheCodec {
+
+    byte[] encode(Object value);
+
+    /**
+     * @throws IllegalArgumentException if the bytes were not written by this codec version
+     */
+    Object decode(byte[] bytes);
+}
@@ -0,0 +1,26 @@
+package com.supwork.search.cache;
+
+import com.supwork.search.model.MatchResult;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Match results as stored in the {@code matches} cache, stamped with when they
+ * were computed so readers can tell fresh entries from stale ones.
+ */
+@Value
+public class CachedMatches {
+
+    List<MatchResult> results;
+    long computedAt; // epoch millis
+
+    public boolean isFresh(long now, Duration freshFor) {
+        return now - computedAt < freshFor.toMillis();
+    }
+
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package com.supwork.search.cache;
+
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.model.MatchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts cached matches when the gig they were computed for, or any technician
+ * they contain, changes. Keys of the {@code matches} cache are
+ * {@code [gigId, radiusKm, limit, mode]} lists and values are
+ * {@link CachedMatches}, so the gig tag comes from the key and the technician
+ * tags from the cached results.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchCacheInvalidator {
+
+    public static final String CACHE_NAME = "matches";
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onGigChanged(GigChangedEvent event) {
+        evictTag(gigTag(event.getGigId()));
+    }
+
+    @EventListener
+    public void onTechnicianChanged(TechnicianChangedEvent event) {
+        evictTag(technicianTag(event.getUserId()));
+    }
+
+    private void evictTag(String tag) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictTag(tag);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public static Collection<String> tags(Object key, Object value) {
+        List<String> tags = new ArrayList<>();
+        if (key instanceof List<?> parts && !parts.isEmpty() && parts.get(0) != null) {
+            tags.add(gigTag(parts.get(0)));
+        }
+        if (value instanceof CachedMatches matches) {
+            for (MatchResult match : matches.getResults()) {
+                if (match.getTechnician() != null && match.getTechnician().getUserId() != null) {
+                    tags.add(technicianTag(match.getTechnician().getUserId()));
+                }
+            }
+        }
+        return tags;
+    }
+
+    private static String gigTag(Object gigId) {
+        return "gig:" + gigId;
+    }
+
+    private static String technicianTag(Object userId) {
+        return "technician:" + userId;
+    }
+}
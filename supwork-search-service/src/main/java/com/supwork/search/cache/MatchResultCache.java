@@ -0,0 +1,133 @@
+package com.supwork.search.cache;
+
+import com.supwork.search.model.MatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Read-through access to the {@code matches} cache with stale-while-revalidate:
+ * <ul>
+ *   <li>fresh entries are returned as is;</li>
+ *   <li>stale entries are returned immediately while one background refresh
+ *       recomputes them;</li>
+ *   <li>misses are computed on the caller's thread, once per key no matter how
+ *       many requests are waiting for it.</li>
+ * </ul>
+ * A loader that throws {@link UpstreamUnavailableException} never overwrites
+ * the cache: the last good entry keeps being served, or an uncached empty
+ * result if there is none. Empty results expire sooner than non-empty ones
+ * (see {@code search.cache.matches.empty-ttl}).
+ */
+@Component
+@Slf4j
+public class MatchResultCache {
+
+    private final Cache cache;
+    private final Executor refreshExecutor;
+    private final Duration freshFor;
+    private final ConcurrentHashMap<Object, CompletableFuture<CachedMatches>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter misses;
+    private final Counter unavailable;
+
+    public MatchResultCache(CacheManager cacheManager,
+                            @Qualifier("matchRefreshExecutor") Executor refreshExecutor,
+                            @Value("${search.cache.matches.fresh-for:60s}") Duration freshFor,
+                            MeterRegistry meterRegistry) {
+        this.cache = cacheManager.getCache(MatchCacheInvalidator.CACHE_NAME);
+        this.refreshExecutor = refreshExecutor;
+        this.freshFor = freshFor;
+        this.fresh = counter(meterRegistry, "fresh");
+        this.stale = counter(meterRegistry, "stale");
+        this.misses = counter(meterRegistry, "miss");
+        this.unavailable = counter(meterRegistry, "upstream-unavailable");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("search.match.cache.reads")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public List<MatchResult> get(Object key, Supplier<List<MatchResult>> loader) {
+        CachedMatches cached = cache.get(key, CachedMatches.class);
+        if (cached != null) {
+            if (cached.isFresh(System.currentTimeMillis(), freshFor)) {
+                fresh.increment();
+            } else {
+                stale.increment();
+                refreshInBackground(key, loader);
+            }
+            return cached.getResults();
+        }
+
+        misses.increment();
+        try {
+            return load(key, loader, Runnable::run).join().getResults();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UpstreamUnavailableException) {
+                unavailable.increment();
+                log.warn("Not caching matches for {}: {}", key, e.getCause().getMessage());
+                return List.of();
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void refreshInBackground(Object key, Supplier<List<MatchResult>> loader) {
+        load(key, loader, refreshExecutor).whenComplete((matches, error) -> {
+            if (error instanceof UpstreamUnavailableException) {
+                unavailable.increment();
+                log.debug("Keeping stale matches for {}: {}", key, error.getMessage());
+            } else if (error != null) {
+                log.warn("Background refresh of matches for {} failed", key, error);
+            }
+        });
+    }
+
+    // Single flight: concurrent callers for the same key share one computation
+    private CompletableFuture<CachedMatches> load(Object key, Supplier<List<MatchResult>> loader, Executor executor) {
+        CompletableFuture<CachedMatches> future = new CompletableFuture<>();
+        CompletableFuture<CachedMatches> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        Runnable task = () -> {
+            try {
+                CachedMatches matches = new CachedMatches(loader.get(), System.currentTimeMillis());
+                cache.put(key, matches);
+                future.complete(matches);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, future);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Refresh queue is full; the stale entry is served until a later request retries
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,233 @@
+package com.supwork.search.cache;
+
+import com.supwork.search.model.GigSearchDTO;
+import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.TechnicianProfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of {@link CachedMatches}: a version byte, the compute
+ * timestamp, the result count, then each result's fields in declaration
+ * order. Nullable fields carry a one-byte presence flag. Derived technician fields
+ * ({@code position}, {@code skillIds}) are not stored; they are rebuilt or
+ * re-interned when needed.
+ */
+public class MatchResultCodec implements CacheCodec {
+
+    private static final byte VERSION = 4;
+
+    @Override
+    public byte[] encode(Object value) {
+        CachedMatches matches = (CachedMatches) value;
+        List<MatchResult> results = matches.getResults();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + results.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(matches.getComputedAt());
+            out.writeInt(results.size());
+            for (MatchResult result : results) {
+                writeDouble(out, result.getSimilarityScore());
+                writeDouble(out, result.getDistanceKm());
+                writeDouble(out, result.getRating());
+                writeInt(out, result.getSkillsMatchCount());
+                writeTechnician(out, result.getTechnician());
+                writeGig(out, result.getGig());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public CachedMatches decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported match cache format version " + version);
+            }
+            long computedAt = in.readLong();
+            int count = in.readInt();
+            List<MatchResult> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(MatchResult.builder()
+                        .similarityScore(readDouble(in))
+                        .distanceKm(readDouble(in))
+                        .rating(readDouble(in))
+                        .skillsMatchCount(readInt(in))
+                        .technician(readTechnician(in))
+                        .gig(readGig(in))
+                        .build());
+            }
+            return new CachedMatches(results, computedAt);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt match cache entry", e);
+        }
+    }
+
+    private static void writeTechnician(DataOutputStream out, TechnicianProfile technician) throws IOException {
+        out.writeBoolean(technician != null);
+        if (technician == null) {
+            return;
+        }
+        writeString(out, technician.getId());
+        writeLong(out, technician.getUserId());
+        writeStrings(out, technician.getSkills());
+        writeString(out, technician.getLocation());
+        writeDouble(out, technician.getRating());
+        writeString(out, technician.getName());
+        writeString(out, technician.getEmail());
+        writeString(out, technician.getPhone());
+        writeString(out, technician.getBio());
+        out.writeByte(technician.getIsAvailable() == null ? -1 : technician.getIsAvailable() ? 1 : 0);
+    }
+
+    private static TechnicianProfile readTechnician(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        TechnicianProfile technician = new TechnicianProfile();
+        technician.setId(readString(in));
+        technician.setUserId(readLong(in));
+        technician.setSkills(readStrings(in));
+        technician.setLocation(readString(in));
+        technician.setPosition(TechnicianProfile.toPosition(technician.getLocation()));
+        technician.setRating(readDouble(in));
+        technician.setName(readString(in));
+        technician.setEmail(readString(in));
+        technician.setPhone(readString(in));
+        technician.setBio(readString(in));
+        byte available = in.readByte();
+        technician.setIsAvailable(available < 0 ? null : available == 1);
+        return technician;
+    }
+
+    private static void writeGig(DataOutputStream out, GigSearchDTO gig) throws IOException {
+        out.writeBoolean(gig != null);
+        if (gig == null) {
+            return;
+        }
+        writeLong(out, gig.getId());
+        writeString(out, gig.getTitle());
+        writeStrings(out, gig.getSkills());
+        writeString(out, gig.getLocation());
+        writeDouble(out, gig.getBudget());
+        writeString(out, gig.getDescription());
+        writeString(out, gig.getStatus());
+        writeLong(out, gig.getClientId());
+        writeDateTime(out, gig.getScheduledStart());
+        writeDateTime(out, gig.getScheduledEnd());
+    }
+
+    private static GigSearchDTO readGig(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return GigSearchDTO.builder()
+                .id(readLong(in))
+                .title(readString(in))
+                .skills(readStrings(in))
+                .location(readString(in))
+                .budget(readDouble(in))
+                .description(readString(in))
+                .status(readString(in))
+                .clientId(readLong(in))
+                .scheduledStart(readDateTime(in))
+                .scheduledEnd(readDateTime(in))
+                .build();
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values != null ? values.size() : -1);
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    // writeUTF is capped at 64 KB, so strings are length-prefixed UTF-8 instead
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeString(out, value != null ? value.toString() : null);
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        String value = readString(in);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
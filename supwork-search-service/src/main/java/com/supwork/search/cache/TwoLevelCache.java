@@ -0,0 +1,321 @@
+package com.supwork.search.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} backed by a bounded, expiring
+ * Caffeine map in front of Redis. Reads fall through L1 to L2 and promote L2
+ * hits; writes go to both tiers. Entries can be tagged (e.g. by gig or
+ * technician) so every key touching a changed entity is evicted together, and
+ * evictions are broadcast so other instances drop their L1 copies too.
+ * Redis failures degrade to L1-only behaviour instead of failing the request.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    /** Pub/sub channel carrying L1 evictions; the message is newline-separated cache keys or {@link #CLEAR_ALL}. */
+    public static final String EVICTION_CHANNEL = "search:cache:evictions";
+    static final String CLEAR_ALL = "*";
+    private static final String KEY_SEPARATOR = "\n";
+
+    // Atomic, so a key tagged between the read and the delete is neither orphaned nor left stale
+    private static final byte[] EVICT_TAG_SCRIPT = """
+            local keys = redis.call('SMEMBERS', KEYS[1])
+            for i = 1, #keys, 1000 do
+              redis.call('DEL', unpack(keys, i, math.min(i + 999, #keys)))
+            end
+            redis.call('DEL', KEYS[1])
+            return keys""".getBytes(StandardCharsets.UTF_8);
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final CacheCodec codec;
+    private final Duration maxRemoteTtl;
+    private final Function<Object, Duration> remoteTtl;
+    private final BiFunction<Object, Object, Collection<String>> tagger;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+    private final Timer localLatency;
+    private final Timer remoteLatency;
+
+    /**
+     * @param remoteTtl    Redis expiry of a value, at most {@code maxRemoteTtl}
+     * @param tagger       maps a key and its value to the tags it is evicted under
+     */
+    public TwoLevelCache(String name, Cache<String, Object> local,
+                         RedisTemplate<String, byte[]> redisTemplate, CacheCodec codec,
+                         Duration maxRemoteTtl, Function<Object, Duration> remoteTtl,
+                         BiFunction<Object, Object, Collection<String>> tagger, MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.maxRemoteTtl = maxRemoteTtl;
+        this.remoteTtl = remoteTtl;
+        this.tagger = tagger;
+
+        this.localHits = counter(meterRegistry, "l1", "hit");
+        this.localMisses = counter(meterRegistry, "l1", "miss");
+        this.remoteHits = counter(meterRegistry, "l2", "hit");
+        this.remoteMisses = counter(meterRegistry, "l2", "miss");
+        this.remoteErrors = counter(meterRegistry, "l2", "error");
+        this.localLatency = timer(meterRegistry, "l1");
+        this.remoteLatency = timer(meterRegistry, "l2");
+        meterRegistry.gauge("search.cache.size", List.of(Tag.of("cache", name),
+                Tag.of("tier", "l1")), local, c -> c.estimatedSize());
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("search.cache.gets")
+                .tags("cache", name, "tier", tier, "result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("search.cache.latency")
+                .tags("cache", name, "tier", tier)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = cacheKey(key);
+        Object value = localLatency.record(() -> local.getIfPresent(cacheKey));
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+
+        value = getRemote(cacheKey);
+        if (value != null) {
+            local.put(cacheKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = cacheKey(key);
+        Object value = local.getIfPresent(cacheKey);
+        if (value != null) {
+            localHits.increment();
+            return (T) value;
+        }
+        localMisses.increment();
+
+        // Redis is read and written outside Caffeine's per-key lock, which only guards the load
+        Object remote = getRemote(cacheKey);
+        if (remote != null) {
+            Object raced = local.asMap().putIfAbsent(cacheKey, remote);
+            return (T) (raced != null ? raced : remote);
+        }
+        boolean[] loaded = new boolean[1];
+        value = local.get(cacheKey, k -> {
+            try {
+                T computed = valueLoader.call();
+                loaded[0] = true;
+                return computed;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+        if (loaded[0] && value != null) {
+            putRemote(cacheKey, key, value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = cacheKey(key);
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        local.put(cacheKey, value);
+        putRemote(cacheKey, key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = cacheKey(key);
+        local.invalidate(cacheKey);
+        try {
+            redisTemplate.delete(cacheKey);
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, bytes(cacheKey));
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Could not evict {} from Redis: {}", cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts every entry stored under the tag, in both tiers and on every instance.
+     */
+    public void evictTag(String tag) {
+        byte[] tagKey = bytes(tagKey(tag));
+        try {
+            List<byte[]> members = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.scriptingCommands().eval(EVICT_TAG_SCRIPT, ReturnType.MULTI, 1, tagKey));
+            List<String> keys = new ArrayList<>();
+            if (members != null) {
+                for (byte[] member : members) {
+                    keys.add(new String(member, StandardCharsets.UTF_8));
+                }
+            }
+            local.invalidateAll(keys);
+            // One broadcast for the whole tag rather than one per key
+            if (!keys.isEmpty()) {
+                redisTemplate.convertAndSend(EVICTION_CHANNEL, bytes(String.join(KEY_SEPARATOR, keys)));
+            }
+            log.debug("Evicted {} {} entries tagged {}", keys.size(), name, tag);
+        } catch (RuntimeException e) {
+            // Without the tag index there is no telling which L1 entries are affected
+            remoteErrors.increment();
+            local.invalidateAll();
+            log.warn("Could not evict {} entries tagged {} from Redis, cleared L1: {}", name, tag, e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        try {
+            List<String> keys = new ArrayList<>();
+            try (Cursor<String> cursor = redisTemplate.scan(
+                    ScanOptions.scanOptions().match(name + "::*").count(1000).build())) {
+                cursor.forEachRemaining(keys::add);
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, bytes(CLEAR_ALL));
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Could not clear {} in Redis: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies an eviction broadcast by another instance (or echoed back to this one).
+     */
+    public void onEvictionMessage(String message) {
+        if (CLEAR_ALL.equals(message)) {
+            local.invalidateAll();
+            return;
+        }
+        for (String cacheKey : message.split(KEY_SEPARATOR)) {
+            if (cacheKey.startsWith(name + "::")) {
+                local.invalidate(cacheKey);
+            }
+        }
+    }
+
+    private Object getRemote(String cacheKey) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = redisTemplate.opsForValue().get(cacheKey);
+            if (bytes == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            return codec.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            // Written by an older codec version; drop it and recompute
+            remoteMisses.increment();
+            redisTemplate.delete(cacheKey);
+            return null;
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Redis read failed for {}: {}", cacheKey, e.getMessage());
+            return null;
+        } finally {
+            remoteLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // One pipelined round trip for the value and all of its tag memberships
+    private void putRemote(String cacheKey, Object key, Object value) {
+        long start = System.nanoTime();
+        try {
+            byte[] encoded = codec.encode(value);
+            byte[] rawKey = bytes(cacheKey);
+            Collection<String> tags = tagger.apply(key, value);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(rawKey, encoded, Expiration.from(remoteTtl.apply(value)),
+                        RedisStringCommands.SetOption.upsert());
+                for (String tag : tags) {
+                    byte[] tagKey = bytes(tagKey(tag));
+                    connection.setCommands().sAdd(tagKey, rawKey);
+                    expireTag(connection, tagKey);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Redis write failed for {}: {}", cacheKey, e.getMessage());
+        } finally {
+            remoteLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Tag sets outlive their longest-lived member so a tag never forgets a live key
+    private void expireTag(RedisConnection connection, byte[] tagKey) {
+        connection.keyCommands().expire(tagKey, maxRemoteTtl.toSeconds() + 60);
+    }
+
+    String cacheKey(Object key) {
+        return name + "::" + key;
+    }
+
+    private String tagKey(String tag) {
+        return name + ":tag:" + tag;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
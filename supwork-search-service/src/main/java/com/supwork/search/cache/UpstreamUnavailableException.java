@@ -0,0 +1,12 @@
+package com.supwork.search.cache;
+
+/**
+ * Thrown by a match loader whose inputs came from a fallback rather than the
+ * real upstream service; the result must not be cached.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,15 +1,18 @@
 package com.supwork.search.client;
 
+import com.supwork.search.model.GigAssignment;
 import com.supwork.search.model.GigSearchDTO;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
-@FeignClient(name = "gig-service", fallback = GigClientFallback.class)
+@FeignClient(name = "gig-service", fallback = GigClientFallback.class, configuration = GigClientConfig.class)
 public interface GigClient {
     
     @GetMapping("/gigs/open")
@@ -20,8 +23,16 @@ public interface GigClient {
     @CircuitBreaker(name = "gig-service", fallbackMethod = "fallbackGetGigById")
     GigSearchDTO getGigById(@PathVariable("id") Long gigId);
     
+    // Returns the IDs of the gigs actually assigned; ones taken meanwhile are skipped
+    @PutMapping("/gigs/assignments")
+    List<Long> assignGigs(@RequestBody List<GigAssignment> assignments);
+    
+    // Technician ID -> gigs currently assigned to them
+    @GetMapping("/gigs/assigned-counts")
+    Map<Long, Long> getAssignedCounts();
+    
     default List<GigSearchDTO> fallbackGetOpenGigs(Exception ex) {
-        return Collections.emptyList();
+        return null;
     }
     
     default GigSearchDTO fallbackGetGigById(Long gigId, Exception ex) {
@@ -31,7 +42,7 @@ public interface GigClient {
                 .skills(java.util.Arrays.asList("General"))
                 .location("0.0,0.0")
                 .budget(0.0)
-                .status("UNAVAILABLE")
+                .status(GigSearchDTO.STATUS_UNAVAILABLE)
                 .build();
     }
 }
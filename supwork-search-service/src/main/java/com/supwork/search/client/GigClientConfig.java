@@ -0,0 +1,32 @@
+package com.supwork.search.client;
+
+import com.supwork.search.security.ServiceTokenProvider;
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Credentials for the gig-service calls dispatch makes. Deliberately not a
+ * {@code @Configuration}, so it only applies to {@link GigClient}.
+ */
+public class GigClientConfig {
+
+    private static final String ASSIGNED_COUNTS = "/gigs/assigned-counts";
+
+    // Gig reads stay anonymous; dispatch calls carry the admin's token, or a service token on scheduled runs
+    @Bean
+    public RequestInterceptor gigDispatchAuthInterceptor(ServiceTokenProvider serviceTokenProvider) {
+        return template -> {
+            if (!"PUT".equals(template.method()) && !template.path().endsWith(ASSIGNED_COUNTS)) {
+                return;
+            }
+            String header = null;
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                header = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+            }
+            template.header(HttpHeaders.AUTHORIZATION, header != null ? header : serviceTokenProvider.authorization());
+        };
+    }
+}
@@ -1,19 +1,21 @@
 package com.supwork.search.client;
 
+import com.supwork.search.model.GigAssignment;
 import com.supwork.search.model.GigSearchDTO;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class GigClientFallback implements GigClient {
     
     @Override
     public List<GigSearchDTO> getOpenGigs() {
-        // Return empty list when gig service is down
-        return Collections.emptyList();
+        // Unknown, unlike an empty list; the open-gig replica is not reconciled from it
+        return null;
     }
     
     @Override
@@ -25,7 +27,19 @@ public class GigClientFallback implements GigClient {
                 .skills(Arrays.asList("General"))
                 .location("0.0,0.0")
                 .budget(0.0)
-                .status("UNAVAILABLE")
+                .status(GigSearchDTO.STATUS_UNAVAILABLE)
                 .build();
     }
+    
+    @Override
+    public List<Long> assignGigs(List<GigAssignment> assignments) {
+        // Nothing was assigned; the gigs stay open for the next round
+        return Collections.emptyList();
+    }
+    
+    @Override
+    public Map<Long, Long> getAssignedCounts() {
+        // Unknown, unlike an empty map; dispatch does not apply a round without it
+        return null;
+    }
 }
@@ -0,0 +1,53 @@
+package com.supwork.search.client;
+
+import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.ShardMatchRequest;
+import com.supwork.search.security.ServiceTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Calls another search-service instance's shard match endpoint. Unlike the
+ * Feign clients this targets one specific instance, the one owning the
+ * shard, rather than any instance of the service. Calls always carry a
+ * service token, since the endpoint is internal and refreshes and warm-up
+ * have no caller of their own.
+ */
+@Component
+public class ShardClient {
+
+    private static final ParameterizedTypeReference<List<MatchResult>> RESULTS = new ParameterizedTypeReference<>() {
+    };
+
+    private final RestClient restClient;
+    private final ServiceTokenProvider serviceTokenProvider;
+
+    public ShardClient(RestClient.Builder restClientBuilder, ServiceTokenProvider serviceTokenProvider,
+                       @Value("${search.shard.timeout:2s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.serviceTokenProvider = serviceTokenProvider;
+    }
+
+    public List<MatchResult> match(URI instance, ShardMatchRequest request) {
+        List<MatchResult> results = restClient.post()
+                .uri(instance.resolve("/match/shard"))
+                .header(HttpHeaders.AUTHORIZATION, serviceTokenProvider.authorization())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .body(RESULTS);
+        return results != null ? results : List.of();
+    }
+}
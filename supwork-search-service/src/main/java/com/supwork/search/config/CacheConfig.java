@@ -0,0 +1,107 @@
+package com.supwork.search.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.supwork.search.cache.CachedMatches;
+import com.supwork.search.cache.MatchCacheInvalidator;
+import com.supwork.search.cache.MatchResultCodec;
+import com.supwork.search.cache.TwoLevelCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public RedisTemplate<String, byte[]> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    @Bean
+    public TwoLevelCache matchesCache(
+            RedisTemplate<String, byte[]> cacheRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${search.cache.matches.local-max-size:10000}") long localMaxSize,
+            @Value("${search.cache.matches.local-ttl:30s}") Duration localTtl,
+            @Value("${search.cache.matches.remote-ttl:10m}") Duration remoteTtl,
+            @Value("${search.cache.matches.empty-ttl:15s}") Duration emptyTtl) {
+        // Empty results are often transient (no one nearby yet), so they expire sooner
+        Function<Object, Duration> ttl = value ->
+                value instanceof CachedMatches matches && matches.isEmpty() ? emptyTtl : remoteTtl;
+
+        // L1 expires well before L2 so a missed eviction broadcast is only briefly visible
+        Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfter(new Expiry<String, Object>() {
+                    @Override
+                    public long expireAfterCreate(String key, Object value, long currentTime) {
+                        Duration valueTtl = ttl.apply(value);
+                        return (valueTtl.compareTo(localTtl) < 0 ? valueTtl : localTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        return new TwoLevelCache(MatchCacheInvalidator.CACHE_NAME, local, cacheRedisTemplate,
+                new MatchResultCodec(), remoteTtl, ttl, MatchCacheInvalidator::tags, meterRegistry);
+    }
+
+    // Small and bounded: when it is saturated, stale matches are simply served a little longer
+    @Bean
+    public ThreadPoolTaskExecutor matchRefreshExecutor(
+            @Value("${search.cache.matches.refresh-threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("match-refresh-");
+        return executor;
+    }
+
+    @Bean
+    public CacheManager cacheManager(TwoLevelCache matchesCache) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(matchesCache));
+        return cacheManager;
+    }
+
+    // Applies L1 evictions published by other instances
+    @Bean
+    public RedisMessageListenerContainer cacheEvictionListener(RedisConnectionFactory connectionFactory,
+                                                               TwoLevelCache matchesCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> matchesCache.onEvictionMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TwoLevelCache.EVICTION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,46 @@
+package com.supwork.search.config;
+
+import com.supwork.search.index.GeoMath;
+import com.supwork.search.model.DispatchResult;
+import com.supwork.search.service.DispatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/dispatch} proposes assignments for the open gigs
+ * without applying them; {@code POST /actuator/dispatch} runs a dispatch
+ * round and applies it. Both admins only, optionally limited to
+ * {@code region} ("lat,lng") and {@code regionKm}.
+ */
+@Component
+@Endpoint(id = "dispatch")
+@RequiredArgsConstructor
+public class DispatchEndpoint {
+
+    private final DispatchService dispatchService;
+
+    @ReadOperation
+    public DispatchResult preview(@Nullable String region, @Nullable Double regionKm) {
+        return dispatchService.dispatch(center(region), regionKm != null ? regionKm : 0, false);
+    }
+
+    @WriteOperation
+    public DispatchResult run(@Nullable String region, @Nullable Double regionKm) {
+        return dispatchService.dispatch(center(region), regionKm != null ? regionKm : 0, true);
+    }
+
+    private static double[] center(String region) {
+        if (region == null) {
+            return null;
+        }
+        double[] center = GeoMath.parseLocation(region);
+        if (Double.isNaN(center[0])) {
+            throw new IllegalArgumentException("region must be \"lat,lng\"");
+        }
+        return center;
+    }
+}
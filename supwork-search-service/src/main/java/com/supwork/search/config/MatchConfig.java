@@ -0,0 +1,17 @@
+package com.supwork.search.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class MatchConfig {
+
+    // Dedicated pool so large match scans do not compete with parallel streams on the common pool
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool matchScoringPool(@Value("${search.match.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,37 @@
+package com.supwork.search.config;
+
+import com.supwork.search.service.TechnicianReindexJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/reindex} reports the technician reindex progress;
+ * {@code POST /actuator/reindex} (admins only) starts or resumes it, from
+ * scratch with {@code {"restart": true}}.
+ */
+@Component
+@Endpoint(id = "reindex")
+@RequiredArgsConstructor
+public class ReindexEndpoint {
+
+    private final TechnicianReindexJob technicianReindexJob;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return technicianReindexJob.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Boolean restart) {
+        boolean started = technicianReindexJob.start(Boolean.TRUE.equals(restart));
+        Map<String, Object> status = technicianReindexJob.status();
+        status.put("started", started);
+        return status;
+    }
+}
@@ -0,0 +1,53 @@
+package com.supwork.search.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SearchConfig {
+
+    // Runs page totals alongside the page query itself
+    @Bean
+    public ThreadPoolTaskExecutor searchCountExecutor(@Value("${search.technicians.count-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("search-count-");
+        return executor;
+    }
+
+    // Transforms and writes reindex pages; the job bounds how many are queued
+    @Bean
+    public ThreadPoolTaskExecutor reindexExecutor(@Value("${search.reindex.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("reindex-");
+        return executor;
+    }
+
+    // Sends pushed gigs to SSE subscribers; each connection occupies at most one thread at a time.
+    // Without a queue the pool grows while slow clients hold threads, instead of others waiting behind them
+    @Bean
+    public ThreadPoolTaskExecutor subscriptionExecutor(@Value("${search.subscriptions.threads:4}") int threads,
+                                                       @Value("${search.subscriptions.max-threads:64}") int maxThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(Math.max(threads, maxThreads));
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("subscription-");
+        return executor;
+    }
+
+    // Waits on other shards' match calls; one request occupies a thread per remote shard
+    @Bean
+    public ThreadPoolTaskExecutor shardExecutor(@Value("${search.shard.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("shard-");
+        return executor;
+    }
+}
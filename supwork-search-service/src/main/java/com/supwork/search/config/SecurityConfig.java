@@ -1,9 +1,11 @@
 package com.supwork.search.config;
 
 import com.supwork.search.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -23,10 +25,19 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Completes SSE streams whose request was already authorized; the JWT filter does not re-run here
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers(HttpMethod.POST, "/actuator/reindex").hasRole("ADMIN")
+                .requestMatchers("/actuator/dispatch").hasRole("ADMIN")
                 .requestMatchers("/actuator/**", "/health").permitAll()
                 .requestMatchers("/search/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // Internal scatter-gather calls between instances, made with a service token
+                .requestMatchers("/match/shard").hasAnyRole("SERVICE", "ADMIN")
                 .requestMatchers("/match/**").authenticated()
+                .requestMatchers("/presence/**").hasRole("TECHNICIAN")
+                // Change notifications from other services, which call with a service token
+                .requestMatchers("/events/**").hasAnyRole("SERVICE", "ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
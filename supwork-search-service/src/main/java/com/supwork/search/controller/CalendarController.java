@@ -0,0 +1,63 @@
+package com.supwork.search.controller;
+
+import com.supwork.search.model.CalendarSlot;
+import com.supwork.search.model.TechnicianCalendar;
+import com.supwork.search.service.TechnicianCalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/calendars")
+@RequiredArgsConstructor
+@Tag(name = "Calendars", description = "Technician availability calendars")
+public class CalendarController {
+
+    private final TechnicianCalendarService technicianCalendarService;
+
+    @GetMapping("/{technicianId}")
+    @Operation(summary = "Get calendar", description = "Busy slots of a technician")
+    public ResponseEntity<TechnicianCalendar> getCalendar(@PathVariable Long technicianId,
+                                                          Authentication authentication) {
+        if (!selfOrAdmin(technicianId, authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(technicianCalendarService.get(technicianId));
+    }
+
+    @PostMapping("/{technicianId}/slots")
+    @Operation(summary = "Reserve slot", description = "Adds a busy slot; 409 if it overlaps an existing one")
+    public ResponseEntity<CalendarSlot> reserve(@PathVariable Long technicianId,
+                                                @Valid @RequestBody CalendarSlot slot,
+                                                Authentication authentication) {
+        if (!selfOrAdmin(technicianId, authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return technicianCalendarService.reserve(technicianId, slot)
+                ? ResponseEntity.status(HttpStatus.CREATED).body(slot)
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @DeleteMapping("/{technicianId}/slots/{gigId}")
+    @Operation(summary = "Release slot", description = "Frees the slot reserved for a gig")
+    public ResponseEntity<Void> release(@PathVariable Long technicianId, @PathVariable Long gigId,
+                                        Authentication authentication) {
+        if (!selfOrAdmin(technicianId, authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return technicianCalendarService.release(technicianId, gigId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static boolean selfOrAdmin(Long technicianId, Authentication authentication) {
+        return authentication.getName().equals(String.valueOf(technicianId))
+                || authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.supwork.search.controller;
+
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.model.GigSearchDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Change notifications from other services")
+public class EventController {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostMapping("/gigs/{gigId}")
+    @Operation(summary = "Gig changed", description = "Notify search-service that a gig was created or updated; "
+            + "without a body its current state is fetched from gig-service")
+    public ResponseEntity<Void> gigChanged(
+            @Parameter(description = "ID of the changed gig") @PathVariable Long gigId,
+            @RequestBody(required = false) GigSearchDTO gig) {
+
+        if (gig != null) {
+            gig.setId(gigId);
+        }
+        eventPublisher.publishEvent(new GigChangedEvent(gigId, gig, false));
+        return ResponseEntity.accepted().build();
+    }
+
+    @DeleteMapping("/gigs/{gigId}")
+    @Operation(summary = "Gig removed", description = "Notify search-service that a gig was deleted")
+    public ResponseEntity<Void> gigRemoved(
+            @Parameter(description = "ID of the removed gig") @PathVariable Long gigId) {
+
+        eventPublisher.publishEvent(new GigChangedEvent(gigId, null, true));
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/technicians/{userId}")
+    @Operation(summary = "Technician changed", description = "Notify search-service that a technician profile was updated or removed")
+    public ResponseEntity<Void> technicianChanged(
+            @Parameter(description = "User ID of the changed technician") @PathVariable Long userId) {
+
+        eventPublisher.publishEvent(new TechnicianChangedEvent(userId));
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,15 +1,30 @@
 package com.supwork.search.controller;
 
+import com.supwork.search.model.BatchMatchRequest;
+import com.supwork.search.model.MatchMode;
+import com.supwork.search.model.MatchPage;
 import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.ShardMatchRequest;
+import com.supwork.search.service.GigSubscriptionService;
+import com.supwork.search.service.MatchCacheWarmer;
 import com.supwork.search.service.MatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/match")
@@ -18,22 +33,104 @@ import java.util.List;
 public class MatchController {
     
     private final MatchService matchService;
+    private final GigSubscriptionService gigSubscriptionService;
+    private final MatchCacheWarmer matchCacheWarmer;
     
     @GetMapping("/{gigId}")
-    @Operation(summary = "Find matches for a gig", description = "Find top 5 technicians that match a specific gig")
+    @Operation(summary = "Find matches for a gig", description = "Find the top technicians (5 by default) that match a specific gig")
     public ResponseEntity<List<MatchResult>> findMatchesForGig(
-            @Parameter(description = "Gig ID to find matches for") @PathVariable Long gigId) {
+            @Parameter(description = "Gig ID to find matches for") @PathVariable Long gigId,
+            @Parameter(description = "Search radius in km") @RequestParam(defaultValue = "10")
+            @Positive @Max(MatchService.MAX_RADIUS_KM) double radiusKm,
+            @Parameter(description = "Number of matches to return") @RequestParam(defaultValue = "5")
+            @Min(1) @Max(MatchService.MAX_LIMIT) int limit,
+            @Parameter(description = "Score in search-service (JVM) or in MongoDB (AGGREGATION)")
+            @RequestParam(defaultValue = "JVM") MatchMode mode) {
         
-        List<MatchResult> matches = matchService.findMatchesForGig(gigId);
+        matchCacheWarmer.record(gigId, radiusKm, limit, mode);
+        List<MatchResult> matches = matchService.findMatchesForGig(gigId, radiusKm, limit, mode);
         return ResponseEntity.ok(matches);
     }
     
+    @GetMapping("/{gigId}/ranked")
+    @Operation(summary = "Page through ranked matches for a gig",
+            description = "All matching technicians best first, a page at a time; pass nextCursor back as cursor")
+    public ResponseEntity<MatchPage> findRankedMatchesForGig(
+            @Parameter(description = "Gig ID to find matches for") @PathVariable Long gigId,
+            @Parameter(description = "Search radius in km") @RequestParam(defaultValue = "10")
+            @Positive @Max(MatchService.MAX_RADIUS_KM) double radiusKm,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20")
+            @Min(1) @Max(MatchService.MAX_LIMIT) int size,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        
+        return ResponseEntity.ok(matchService.findRankedMatchesForGig(gigId, radiusKm, size, cursor));
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Find matches for many gigs", description = "Top technicians per gig for up to "
+            + BatchMatchRequest.MAX_GIGS + " gigs, scored in one pass over the technician snapshot")
+    public ResponseEntity<Map<Long, List<MatchResult>>> findMatchesForGigs(@Valid @RequestBody BatchMatchRequest request) {
+        
+        Map<Long, List<MatchResult>> matches = matchService.findMatchesForGigs(
+                request.getGigIds(), request.getRadiusKm(), request.getLimit());
+        return ResponseEntity.ok(matches);
+    }
+    
+    @PostMapping("/shard")
+    @Operation(summary = "Match within this shard", description = "Internal: this instance's local top technicians "
+            + "for a gig, called by the instance coordinating a sharded match")
+    public ResponseEntity<List<MatchResult>> findLocalMatches(@Valid @RequestBody ShardMatchRequest request) {
+        
+        return ResponseEntity.ok(matchService.findLocalMatches(request));
+    }
+    
     @GetMapping("/technician/{technicianId}")
-    @Operation(summary = "Find matches for a technician", description = "Find top 5 gigs that match a specific technician")
+    @Operation(summary = "Find matches for a technician", description = "Find the top gigs (5 by default) that match a specific technician")
     public ResponseEntity<List<MatchResult>> findMatchesForTechnician(
-            @Parameter(description = "Technician ID to find matches for") @PathVariable Long technicianId) {
+            @Parameter(description = "Technician ID to find matches for") @PathVariable Long technicianId,
+            @Parameter(description = "Search radius in km") @RequestParam(defaultValue = "10")
+            @Positive @Max(MatchService.MAX_RADIUS_KM) double radiusKm,
+            @Parameter(description = "Number of matches to return") @RequestParam(defaultValue = "5")
+            @Min(1) @Max(MatchService.MAX_LIMIT) int limit) {
         
-        List<MatchResult> matches = matchService.findMatchesForTechnician(technicianId);
+        List<MatchResult> matches = matchService.findMatchesForTechnician(technicianId, radiusKm, limit);
         return ResponseEntity.ok(matches);
     }
+    
+    @GetMapping("/technician/{technicianId}/ranked")
+    @Operation(summary = "Page through ranked matches for a technician",
+            description = "All matching open gigs best first, a page at a time; pass nextCursor back as cursor")
+    public ResponseEntity<MatchPage> findRankedMatchesForTechnician(
+            @Parameter(description = "Technician ID to find matches for") @PathVariable Long technicianId,
+            @Parameter(description = "Search radius in km") @RequestParam(defaultValue = "10")
+            @Positive @Max(MatchService.MAX_RADIUS_KM) double radiusKm,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20")
+            @Min(1) @Max(MatchService.MAX_LIMIT) int size,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor) {
+        
+        return ResponseEntity.ok(matchService.findRankedMatchesForTechnician(technicianId, radiusKm, size, cursor));
+    }
+    
+    @GetMapping(value = "/technician/{technicianId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream new gigs for a technician", description = "Server-Sent Events: a \"gig\" event "
+            + "for every newly opened gig matching the technician's skills within the radius, replacing polling")
+    public ResponseEntity<SseEmitter> streamMatchesForTechnician(
+            @Parameter(description = "Technician ID to stream matches for") @PathVariable Long technicianId,
+            @Parameter(description = "Search radius in km") @RequestParam(defaultValue = "10")
+            @Positive @Max(MatchService.MAX_RADIUS_KM) double radiusKm,
+            Authentication authentication) {
+        
+        // A technician's feed reveals where they are; only they and admins may follow it
+        if (!selfOrAdmin(technicianId, authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        SseEmitter emitter = gigSubscriptionService.subscribe(technicianId, radiusKm);
+        return emitter != null ? ResponseEntity.ok(emitter) : ResponseEntity.notFound().build();
+    }
+    
+    private static boolean selfOrAdmin(Long technicianId, Authentication authentication) {
+        return authentication.getName().equals(String.valueOf(technicianId))
+                || authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
 }
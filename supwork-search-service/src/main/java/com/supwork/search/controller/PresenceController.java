@@ -0,0 +1,33 @@
+package com.supwork.search.controller;
+
+import com.supwork.search.service.PresenceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/presence")
+@RequiredArgsConstructor
+@Tag(name = "Presence", description = "Live technician availability")
+public class PresenceController {
+
+    private final PresenceService presenceService;
+
+    @PostMapping("/heartbeat")
+    @Operation(summary = "Heartbeat", description = "Keeps the calling technician online for one TTL; "
+            + "send well within it, e.g. every 30 s")
+    public ResponseEntity<Void> heartbeat(Authentication authentication) {
+        boolean tracked = presenceService.heartbeat(Long.valueOf(authentication.getName()));
+        return tracked ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Go offline", description = "Takes the calling technician offline immediately")
+    public ResponseEntity<Void> goOffline(Authentication authentication) {
+        boolean tracked = presenceService.goOffline(Long.valueOf(authentication.getName()));
+        return tracked ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
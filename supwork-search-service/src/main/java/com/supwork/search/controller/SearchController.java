@@ -1,11 +1,16 @@
 package com.supwork.search.controller;
 
 import com.supwork.search.model.GigSearchDTO;
+import com.supwork.search.model.SkillSuggestion;
 import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.model.TechnicianSlice;
 import com.supwork.search.service.SearchService;
+import com.supwork.search.service.SkillSuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,10 +26,13 @@ import java.util.List;
 public class SearchController {
     
     private final SearchService searchService;
+    private final SkillSuggestService skillSuggestService;
     
     @GetMapping("/technicians")
-    @Operation(summary = "Search technicians", description = "Search for technicians with filters")
+    @Operation(summary = "Search technicians", description = "Search for technicians with filters; "
+            + "q adds full-text search over name, bio and skills")
     public ResponseEntity<Page<TechnicianProfile>> searchTechnicians(
+            @Parameter(description = "Free text to match against name, bio and skills") @RequestParam(required = false) String q,
             @Parameter(description = "Skills to filter by") @RequestParam(required = false) List<String> skills,
             @Parameter(description = "Location to search near") @RequestParam(required = false) String location,
             @Parameter(description = "Minimum rating") @RequestParam(required = false) Double minRating,
@@ -35,17 +43,48 @@ public class SearchController {
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir) {
         
         Pageable pageable = searchService.createPageable(page, size, sortBy, sortDir);
-        Page<TechnicianProfile> result = searchService.searchTechnicians(skills, location, minRating, maxDistance, pageable);
+        Page<TechnicianProfile> result = q != null && !q.isBlank()
+                ? searchService.searchTechniciansByText(q, skills, location, minRating, maxDistance, pageable)
+                : searchService.searchTechnicians(skills, location, minRating, maxDistance, pageable);
         
         return ResponseEntity.ok(result);
     }
     
+    @GetMapping("/technicians/slice")
+    @Operation(summary = "Search technicians by slice", description = "Cursor-paginated technician search without a total count; "
+            + "pass nextCursor back as cursor to continue")
+    public ResponseEntity<TechnicianSlice> searchTechniciansSlice(
+            @Parameter(description = "Skills to filter by") @RequestParam(required = false) List<String> skills,
+            @Parameter(description = "Location to search near") @RequestParam(required = false) String location,
+            @Parameter(description = "Minimum rating") @RequestParam(required = false) Double minRating,
+            @Parameter(description = "Maximum distance in km") @RequestParam(required = false) Double maxDistance,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @Parameter(description = "Sort by rating or userId") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "nextCursor of the previous slice") @RequestParam(required = false) String cursor) {
+        
+        TechnicianSlice result = searchService.searchTechniciansSlice(
+                skills, location, minRating, maxDistance, size, sortBy, sortDir, cursor);
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/skills/suggest")
+    @Operation(summary = "Suggest skills", description = "Skills starting with the prefix, most used first")
+    public ResponseEntity<List<SkillSuggestion>> suggestSkills(
+            @Parameter(description = "Typed prefix, case-insensitive") @RequestParam String prefix,
+            @Parameter(description = "Maximum suggestions") @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        
+        return ResponseEntity.ok(skillSuggestService.suggest(prefix, limit));
+    }
+    
     @GetMapping("/gigs")
     @Operation(summary = "Search gigs", description = "Search for gigs with filters")
     public ResponseEntity<Page<GigSearchDTO>> searchGigs(
             @Parameter(description = "Title to search for") @RequestParam(required = false) String title,
             @Parameter(description = "Skills to filter by") @RequestParam(required = false) List<String> skills,
             @Parameter(description = "Location to search near") @RequestParam(required = false) String location,
+            @Parameter(description = "Maximum distance in km") @RequestParam(required = false) Double maxDistance,
             @Parameter(description = "Minimum budget") @RequestParam(required = false) Double minBudget,
             @Parameter(description = "Maximum budget") @RequestParam(required = false) Double maxBudget,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
@@ -54,7 +93,7 @@ public class SearchController {
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir) {
         
         Pageable pageable = searchService.createPageable(page, size, sortBy, sortDir);
-        Page<GigSearchDTO> result = searchService.searchGigs(title, skills, location, minBudget, maxBudget, pageable);
+        Page<GigSearchDTO> result = searchService.searchGigs(title, skills, location, maxDistance, minBudget, maxBudget, pageable);
         
         return ResponseEntity.ok(result);
     }
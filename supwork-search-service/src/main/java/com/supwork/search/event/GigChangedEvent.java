@@ -0,0 +1,21 @@
+package com.supwork.search.event;
+
+import com.supwork.search.model.GigSearchDTO;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * A gig was created, updated, closed or deleted in gig-service.
+ */
+@Value
+@AllArgsConstructor
+public class GigChangedEvent {
+
+    Long gigId;
+    GigSearchDTO gig; // New state when the notifier sent it, otherwise null
+    boolean removed;
+
+    public GigChangedEvent(Long gigId) {
+        this(gigId, null, false);
+    }
+}
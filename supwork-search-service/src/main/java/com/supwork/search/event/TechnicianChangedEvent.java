@@ -0,0 +1,12 @@
+package com.supwork.search.event;
+
+import lombok.Value;
+
+/**
+ * A technician profile was written or removed.
+ */
+@Value
+public class TechnicianChangedEvent {
+
+    Long userId;
+}
@@ -0,0 +1,52 @@
+package com.supwork.search.index;
+
+import java.util.Arrays;
+
+/**
+ * Capacity-constrained assignment over a sparse gig x technician score
+ * matrix. Edges are taken best first and kept while both ends still have
+ * room: one technician per gig, at most {@code capacity} gigs per
+ * technician. That is a 1/2-approximation of the best total score, and it
+ * runs in one sort of the edges, so thousands of gigs with a few dozen
+ * candidates each are solved in milliseconds.
+ */
+public final class DispatchSolver {
+
+    private DispatchSolver() {
+    }
+
+    /**
+     * @param gigs        gig rows are {@code 0..gigs-1}
+     * @param capacities  remaining gigs each technician row may take; consumed by the solve
+     * @param edgeGigs    gig row of every edge
+     * @param edgeTechs   technician row of every edge
+     * @param edgeScores  score of every edge; must not be negative
+     * @param edgeCount   edges in use in the arrays
+     * @return technician row assigned to each gig row, {@code -1} where none is
+     */
+    public static int[] greedy(int gigs, int[] capacities, int[] edgeGigs, int[] edgeTechs, float[] edgeScores,
+                               int edgeCount) {
+        // Non-negative float bits order like the floats, so one primitive sort ranks every edge;
+        // the inverted edge index in the low half prefers earlier edges on ties
+        long[] order = new long[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            order[e] = ((long) Float.floatToIntBits(edgeScores[e]) << 32) | (~e & 0xFFFFFFFFL);
+        }
+        Arrays.sort(order);
+
+        int[] assigned = new int[gigs];
+        Arrays.fill(assigned, -1);
+        int open = gigs;
+        for (int i = edgeCount - 1; i >= 0 && open > 0; i--) {
+            int e = ~(int) order[i];
+            int gig = edgeGigs[e];
+            int tech = edgeTechs[e];
+            if (assigned[gig] < 0 && capacities[tech] > 0) {
+                assigned[gig] = tech;
+                capacities[tech]--;
+                open--;
+            }
+        }
+        return assigned;
+    }
+}
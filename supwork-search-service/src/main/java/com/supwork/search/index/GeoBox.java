@@ -0,0 +1,77 @@
+package com.supwork.search.index;
+
+/**
+ * Latitude/longitude bounding box around a circle, used as a cheap reject
+ * test before the exact Haversine distance.
+ */
+public final class GeoBox {
+
+    private static final double KM_PER_DEGREE = Math.toRadians(GeoMath.EARTH_RADIUS_KM);
+
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+    private final boolean allLongitudes;
+
+    private GeoBox(double minLat, double maxLat, double minLon, double maxLon, boolean allLongitudes) {
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLon = minLon;
+        this.maxLon = maxLon;
+        this.allLongitudes = allLongitudes;
+    }
+
+    public static GeoBox around(double lat, double lon, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double minLat = lat - dLat;
+        double maxLat = lat + dLat;
+        if (minLat <= -90.0 || maxLat >= 90.0) {
+            // The circle reaches a pole, so every longitude is in range
+            return new GeoBox(Math.max(minLat, -90.0), Math.min(maxLat, 90.0), -180.0, 180.0, true);
+        }
+        // Widest longitude span is at the latitude closest to the pole
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double dLon = dLat / cosLat;
+        if (dLon >= 180.0) {
+            return new GeoBox(minLat, maxLat, -180.0, 180.0, true);
+        }
+        return new GeoBox(minLat, maxLat, lon - dLon, lon + dLon, false);
+    }
+
+    public boolean contains(double lat, double lon) {
+        if (!(lat >= minLat && lat <= maxLat)) {
+            return false;
+        }
+        if (allLongitudes) {
+            return true;
+        }
+        // Shift by whole turns so boxes crossing the antimeridian still work
+        if (lon < minLon) {
+            lon += 360.0;
+        } else if (lon > maxLon) {
+            lon -= 360.0;
+        }
+        return lon >= minLon && lon <= maxLon;
+    }
+
+    public double minLat() {
+        return minLat;
+    }
+
+    public double maxLat() {
+        return maxLat;
+    }
+
+    public double minLon() {
+        return minLon;
+    }
+
+    public double maxLon() {
+        return maxLon;
+    }
+
+    public boolean allLongitudes() {
+        return allLongitudes;
+    }
+}
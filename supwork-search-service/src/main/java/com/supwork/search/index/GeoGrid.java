@@ -0,0 +1,130 @@
+package com.supwork.search.index;
+
+import java.util.Arrays;
+
+/**
+ * Immutable geohash cell index over a set of points identified by row number.
+ * Only occupied cells are stored, as sorted cell keys with offsets into one
+ * row array, so memory grows with the number of points rather than with the
+ * area covered.
+ */
+public final class GeoGrid {
+
+    /** 5 characters gives cells of roughly 4.9 x 4.9 km at the equator. */
+    public static final int DEFAULT_PRECISION = 5;
+
+    /** Cell keys share a long with the row number, which leaves room for 6 characters. */
+    public static final int MAX_PRECISION = 6;
+
+    /** Past this many cells a radius query is cheaper as a full scan. */
+    private static final int MAX_CELLS_PER_QUERY = 4096;
+
+    private final int precision;
+    private final long[] cellKeys;
+    private final int[] cellStarts; // cellKeys.length + 1 entries
+    private final int[] rows;
+    private final int pointCount;
+
+    private GeoGrid(int precision, long[] cellKeys, int[] cellStarts, int[] rows, int pointCount) {
+        this.precision = precision;
+        this.cellKeys = cellKeys;
+        this.cellStarts = cellStarts;
+        this.rows = rows;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * Indexes every row with known coordinates; NaN rows are left out.
+     */
+    public static GeoGrid build(double[] latitudes, double[] longitudes, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Grid precision must be between 1 and " + MAX_PRECISION);
+        }
+        int n = latitudes.length;
+        long[] packed = new long[n];
+        int indexed = 0;
+        for (int row = 0; row < n; row++) {
+            if (Double.isNaN(latitudes[row]) || Double.isNaN(longitudes[row])) {
+                continue;
+            }
+            long cell = GeoHash.encode(latitudes[row], longitudes[row], precision);
+            // Cell in the high bits, row in the low 32 so one sort groups rows by cell
+            packed[indexed++] = (cell << 32) | row;
+        }
+        Arrays.sort(packed, 0, indexed);
+
+        long[] keys = new long[indexed];
+        int[] starts = new int[indexed + 1];
+        int[] rows = new int[indexed];
+        int cells = 0;
+        for (int i = 0; i < indexed; i++) {
+            long cell = packed[i] >>> 32;
+            if (cells == 0 || keys[cells - 1] != cell) {
+                keys[cells] = cell;
+                starts[cells] = i;
+                cells++;
+            }
+            rows[i] = (int) packed[i];
+        }
+        starts[cells] = indexed;
+        return new GeoGrid(precision, Arrays.copyOf(keys, cells), Arrays.copyOf(starts, cells + 1), rows, n);
+    }
+
+    /**
+     * Rows in the cells covering {@code box}, in ascending row order. Returns
+     * {@code null} when the box spans so many cells that the caller should scan
+     * every row instead.
+     */
+    public int[] candidates(GeoBox box) {
+        long latFrom = GeoHash.latIndex(box.minLat(), precision);
+        long latTo = GeoHash.latIndex(box.maxLat(), precision);
+        long lonCells = 1L << GeoHash.lonBits(precision);
+        long lonFrom = 0;
+        long lonTo = lonCells - 1;
+        if (!box.allLongitudes()) {
+            long from = (long) Math.floor((box.minLon() + 180.0) / GeoHash.cellWidth(precision));
+            long to = (long) Math.floor((box.maxLon() + 180.0) / GeoHash.cellWidth(precision));
+            // Narrower than a full turn; otherwise wrapped indexes would visit cells twice
+            if (to - from + 1 < lonCells) {
+                lonFrom = from;
+                lonTo = to;
+            }
+        }
+        if ((latTo - latFrom + 1) * (lonTo - lonFrom + 1) > MAX_CELLS_PER_QUERY) {
+            return null;
+        }
+
+        int[] result = new int[16];
+        int size = 0;
+        for (long latIndex = latFrom; latIndex <= latTo; latIndex++) {
+            for (long lonIndex = lonFrom; lonIndex <= lonTo; lonIndex++) {
+                int cell = Arrays.binarySearch(cellKeys, GeoHash.fromIndexes(latIndex, lonIndex, precision));
+                if (cell < 0) {
+                    continue;
+                }
+                int from = cellStarts[cell];
+                int to = cellStarts[cell + 1];
+                if (size + (to - from) > result.length) {
+                    result = Arrays.copyOf(result, Math.max(result.length * 2, size + (to - from)));
+                }
+                System.arraycopy(rows, from, result, size, to - from);
+                size += to - from;
+            }
+        }
+        result = Arrays.copyOf(result, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public int cellCount() {
+        return cellKeys.length;
+    }
+
+    public int pointCount() {
+        return pointCount;
+    }
+}
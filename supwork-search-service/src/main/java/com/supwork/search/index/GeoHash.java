@@ -0,0 +1,91 @@
+package com.supwork.search.index;
+
+/**
+ * Integer geohash cells. A hash of {@code precision} characters is a
+ * {@code 5 * precision} bit number with longitude and latitude bits interleaved,
+ * longitude first, exactly as in the base32 geohash string.
+ */
+public final class GeoHash {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {
+    }
+
+    public static int lonBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+
+    public static int latBits(int precision) {
+        return (5 * precision) / 2;
+    }
+
+    /**
+     * Height of a cell in degrees of latitude.
+     */
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << latBits(precision));
+    }
+
+    /**
+     * Width of a cell in degrees of longitude.
+     */
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << lonBits(precision));
+    }
+
+    public static long latIndex(double lat, int precision) {
+        long cells = 1L << latBits(precision);
+        long index = (long) Math.floor((lat + 90.0) / 180.0 * cells);
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+
+    public static long lonIndex(double lon, int precision) {
+        long cells = 1L << lonBits(precision);
+        long index = (long) Math.floor((lon + 180.0) / 360.0 * cells);
+        return Math.floorMod(index, cells);
+    }
+
+    public static long encode(double lat, double lon, int precision) {
+        return fromIndexes(latIndex(lat, precision), lonIndex(lon, precision), precision);
+    }
+
+    /**
+     * Builds a cell hash from latitude/longitude cell indexes. Longitude indexes
+     * wrap around the antimeridian.
+     */
+    public static long fromIndexes(long latIndex, long lonIndex, int precision) {
+        int lonBits = lonBits(precision);
+        int latBits = latBits(precision);
+        lonIndex = Math.floorMod(lonIndex, 1L << lonBits);
+
+        long hash = 0;
+        for (int k = 0; k < lonBits + latBits; k++) {
+            long bit = (k & 1) == 0
+                    ? lonIndex >>> (lonBits - 1 - k / 2)
+                    : latIndex >>> (latBits - 1 - k / 2);
+            hash = (hash << 1) | (bit & 1L);
+        }
+        return hash;
+    }
+
+    /**
+     * Parses a base32 geohash string; its precision is its length.
+     */
+    public static long parse(String geohash) {
+        if (geohash.isEmpty() || geohash.length() > MAX_PRECISION) {
+            throw new IllegalArgumentException("Invalid geohash: " + geohash);
+        }
+        long hash = 0;
+        for (int i = 0; i < geohash.length(); i++) {
+            int digit = BASE32.indexOf(Character.toLowerCase(geohash.charAt(i)));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + geohash);
+            }
+            hash = (hash << 5) | digit;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,56 @@
+package com.supwork.search.index;
+
+/**
+ * Primitive geo helpers shared by the in-memory indexes.
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Parses a "lat,lng" location string. Missing, malformed and "0.0,0.0"
+     * placeholder locations come back as NaN so they never pass a distance filter.
+     */
+    public static double[] parseLocation(String location) {
+        double[] coordinates = {Double.NaN, Double.NaN};
+        if (location == null) {
+            return coordinates;
+        }
+        int comma = location.indexOf(',');
+        if (comma < 0) {
+            return coordinates;
+        }
+        try {
+            double lat = Double.parseDouble(location.substring(0, comma).trim());
+            double lng = Double.parseDouble(location.substring(comma + 1).trim());
+            if (lat != 0.0 || lng != 0.0) {
+                coordinates[0] = lat;
+                coordinates[1] = lng;
+            }
+        } catch (NumberFormatException e) {
+            // Leave as NaN
+        }
+        return coordinates;
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        return haversineKm(lat1Rad, Math.cos(lat1Rad), lon1, lat2Rad, Math.cos(lat2Rad), lon2);
+    }
+
+    /**
+     * Haversine with the latitude radians and cosines already computed, which is
+     * how the snapshot columns store them.
+     */
+    static double haversineKm(double lat1Rad, double cosLat1, double lon1,
+                              double lat2Rad, double cosLat2, double lon2) {
+        double sinLat = Math.sin((lat2Rad - lat1Rad) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,60 @@
+package com.supwork.search.index;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Technician-to-gig counterpart of {@link MatchKernel}: scores the open gigs
+ * around a technician by skill cosine similarity, keeping the best in a
+ * bounded {@link MatchHits} whose rows index the {@link GigSearchIndex}.
+ */
+public final class GigMatchKernel {
+
+    private GigMatchKernel() {
+    }
+
+    public static MatchHits topK(GigSearchIndex gigs, double latitude, double longitude, int[] skillIds,
+                                 double radiusKm, int limit) {
+        return topK(gigs, latitude, longitude, skillIds, radiusKm, limit, Double.POSITIVE_INFINITY, Long.MIN_VALUE,
+                null);
+    }
+
+    /**
+     * Keyset variant for deeper pages: only gigs ranked strictly after the one
+     * with {@code afterScore} and {@code afterGigId} are kept, ranking by score
+     * descending and then gig ID, the index's row order.
+     *
+     * @param rowFilter extra per-row condition, such as a free calendar, checked before a gig
+     *                  takes one of the {@code limit} slots; {@code null} for none
+     */
+    public static MatchHits topK(GigSearchIndex gigs, double latitude, double longitude, int[] skillIds,
+                                 double radiusKm, int limit, double afterScore, long afterGigId,
+                                 IntPredicate rowFilter) {
+        MatchHits hits = new MatchHits(limit);
+        if (skillIds.length == 0) {
+            return hits.finish();
+        }
+        for (int row : gigs.near(latitude, longitude, radiusKm)) {
+            IndexedGig gig = gigs.gig(row);
+            int[] gigSkills = gig.skillIds();
+            int overlap = SkillSet.overlap(skillIds, gigSkills);
+            if (overlap == 0) {
+                continue;
+            }
+            double score = overlap / Math.sqrt((double) skillIds.length * gigSkills.length);
+            if (score > afterScore || (score == afterScore && gigId(gig) <= afterGigId)) {
+                continue;
+            }
+            if (rowFilter != null && !rowFilter.test(row)) {
+                continue;
+            }
+            double distance = GeoMath.haversineKm(latitude, longitude, gig.latitude(), gig.longitude());
+            hits.offer(row, score, distance, overlap);
+        }
+        return hits.finish();
+    }
+
+    // Gigs without an ID sort last in the index
+    public static long gigId(IndexedGig gig) {
+        return gig.id() != null ? gig.id() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,37 @@
+package com.supwork.search.index;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One filtered, sorted search against a {@link GigSearchIndex}. Every filter
+ * is optional.
+ */
+@Value
+@Builder
+public class GigQuery {
+
+    /** Every token must appear in the title; see {@link GigSearchIndex#tokenize}. */
+    List<String> titleTokens;
+
+    /** Matches gigs requiring any of these skills; empty matches nothing, {@code null} disables the filter. */
+    int[] skillIds;
+
+    Double minBudget;
+    Double maxBudget;
+
+    /** Origin for the radius filter and distance ordering; NaN when absent. */
+    @Builder.Default
+    double latitude = Double.NaN;
+    @Builder.Default
+    double longitude = Double.NaN;
+
+    /** Radius around the origin, {@code null} to only order by distance. */
+    Double radiusKm;
+
+    /** "budget", "title", "id" or "distance"; anything else uses the default order. */
+    String sortBy;
+    boolean descending;
+}
@@ -0,0 +1,418 @@
+package com.supwork.search.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable search structure over the open gigs, with one access path per
+ * filter: budgets sorted for range lookups, a row bitmap per skill and per
+ * title token, and a geohash grid. A query estimates how many rows each of
+ * its filters would produce, enumerates the cheapest one and checks the rest
+ * row by row in order of increasing cost.
+ * <p>
+ * Rows are numbered in gig ID order, which makes the row number the tie-break
+ * that keeps sorting, and therefore paging, stable.
+ */
+public final class GigSearchIndex {
+
+    private final IndexedGig[] gigs;
+    private final double[] budgets;        // NaN when unknown
+    private final double[] sortedBudgets;  // known budgets, ascending
+    private final int[] rowsByBudget;      // rows in sortedBudgets order
+    private final String[] titleKeys;      // lower-cased titles for ordering
+    private final Map<Integer, BitSet> skillRows = new HashMap<>();
+    private final Map<String, BitSet> tokenRows = new HashMap<>();
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final GeoGrid grid;
+
+    private GigSearchIndex(IndexedGig[] gigs) {
+        int n = gigs.length;
+        this.gigs = gigs;
+        this.budgets = new double[n];
+        this.titleKeys = new String[n];
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+
+        for (int row = 0; row < n; row++) {
+            IndexedGig gig = gigs[row];
+            Double budget = gig.gig().getBudget();
+            budgets[row] = budget != null ? budget : Double.NaN;
+            String title = gig.gig().getTitle();
+            titleKeys[row] = title != null ? title.toLowerCase(Locale.ROOT) : "";
+            latitudes[row] = gig.latitude();
+            longitudes[row] = gig.longitude();
+            for (int skillId : gig.skillIds()) {
+                skillRows.computeIfAbsent(skillId, id -> new BitSet(n)).set(row);
+            }
+            for (String token : tokenize(title)) {
+                tokenRows.computeIfAbsent(token, t -> new BitSet(n)).set(row);
+            }
+        }
+
+        int known = 0;
+        Integer[] order = new Integer[n];
+        for (int row = 0; row < n; row++) {
+            if (!Double.isNaN(budgets[row])) {
+                order[known++] = row;
+            }
+        }
+        Arrays.sort(order, 0, known, Comparator.comparingDouble((Integer row) -> budgets[row]));
+        this.rowsByBudget = new int[known];
+        this.sortedBudgets = new double[known];
+        for (int i = 0; i < known; i++) {
+            rowsByBudget[i] = order[i];
+            sortedBudgets[i] = budgets[order[i]];
+        }
+
+        this.grid = GeoGrid.build(latitudes, longitudes, GeoGrid.DEFAULT_PRECISION);
+    }
+
+    public static GigSearchIndex build(Collection<IndexedGig> source) {
+        IndexedGig[] gigs = source.toArray(new IndexedGig[0]);
+        Arrays.sort(gigs, Comparator.comparing(IndexedGig::id, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new GigSearchIndex(gigs);
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, so "Fix-sink, ASAP" gives [fix, sink, asap].
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public int size() {
+        return gigs.length;
+    }
+
+    public IndexedGig gig(int row) {
+        return gigs[row];
+    }
+
+    /**
+     * @return rows within {@code radiusKm} of the origin, in no particular order
+     */
+    public int[] near(double latitude, double longitude, double radiusKm) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return new int[0];
+        }
+        return new GeoFilter(latitude, longitude, radiusKm).rows();
+    }
+
+    /**
+     * @return every matching row, in the query's sort order
+     */
+    public int[] search(GigQuery query) {
+        boolean hasOrigin = !Double.isNaN(query.getLatitude()) && !Double.isNaN(query.getLongitude());
+        List<Filter> filters = new ArrayList<>(4);
+        if (query.getMinBudget() != null || query.getMaxBudget() != null) {
+            filters.add(new BudgetFilter(query.getMinBudget(), query.getMaxBudget()));
+        }
+        if (query.getSkillIds() != null) {
+            filters.add(new SkillFilter(query.getSkillIds()));
+        }
+        if (query.getTitleTokens() != null && !query.getTitleTokens().isEmpty()) {
+            filters.add(new TitleFilter(query.getTitleTokens()));
+        }
+        if (hasOrigin && query.getRadiusKm() != null) {
+            filters.add(new GeoFilter(query.getLatitude(), query.getLongitude(), query.getRadiusKm()));
+        }
+        filters.sort(Comparator.comparingInt(Filter::cost));
+
+        int[] candidates = filters.isEmpty() ? allRows() : filters.get(0).rows();
+        int[] matched = new int[candidates.length];
+        int size = 0;
+        candidates:
+        for (int row : candidates) {
+            for (int f = 1; f < filters.size(); f++) {
+                if (!filters.get(f).test(row)) {
+                    continue candidates;
+                }
+            }
+            matched[size++] = row;
+        }
+        return order(Arrays.copyOf(matched, size), query, hasOrigin);
+    }
+
+    private int[] order(int[] rows, GigQuery query, boolean hasOrigin) {
+        double[] distances = null;
+        if (hasOrigin) {
+            distances = new double[gigs.length];
+            for (int row : rows) {
+                distances[row] = Double.isNaN(latitudes[row])
+                        ? Double.NaN
+                        : GeoMath.haversineKm(query.getLatitude(), query.getLongitude(), latitudes[row], longitudes[row]);
+            }
+        }
+        double[] rowDistances = distances;
+        boolean descending = query.isDescending();
+
+        Comparator<Integer> comparator;
+        String sortBy = query.getSortBy() != null ? query.getSortBy() : "";
+        switch (sortBy) {
+            case "budget" -> comparator = (a, b) -> compareKnownFirst(budgets[a], budgets[b], descending);
+            case "title" -> comparator = (a, b) -> descending
+                    ? titleKeys[b].compareTo(titleKeys[a])
+                    : titleKeys[a].compareTo(titleKeys[b]);
+            case "id" -> comparator = (a, b) -> descending ? Integer.compare(b, a) : Integer.compare(a, b);
+            case "distance" -> comparator = hasOrigin
+                    ? (a, b) -> compareKnownFirst(rowDistances[a], rowDistances[b], descending)
+                    : defaultOrder(null);
+            default -> comparator = defaultOrder(rowDistances);
+        }
+        comparator = comparator.thenComparing(Comparator.naturalOrder());
+
+        Integer[] boxed = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            boxed[i] = rows[i];
+        }
+        Arrays.sort(boxed, comparator);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = boxed[i];
+        }
+        return rows;
+    }
+
+    // Nearest first around an origin, otherwise newest (highest ID) first
+    private static Comparator<Integer> defaultOrder(double[] distances) {
+        if (distances != null) {
+            return (a, b) -> compareKnownFirst(distances[a], distances[b], false);
+        }
+        return (a, b) -> Integer.compare(b, a);
+    }
+
+    // Missing (NaN) values sort last in either direction
+    private static int compareKnownFirst(double a, double b, boolean descending) {
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            return Boolean.compare(Double.isNaN(a), Double.isNaN(b));
+        }
+        return descending ? Double.compare(b, a) : Double.compare(a, b);
+    }
+
+    private int[] allRows() {
+        int[] rows = new int[gigs.length];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+
+    private interface Filter {
+
+        /** Upper bound on the rows {@link #rows()} returns. */
+        int cost();
+
+        int[] rows();
+
+        boolean test(int row);
+    }
+
+    private final class BudgetFilter implements Filter {
+
+        private final double min;
+        private final double max;
+        private final int from;
+        private final int to;
+
+        BudgetFilter(Double min, Double max) {
+            this.min = min != null ? min : Double.NEGATIVE_INFINITY;
+            this.max = max != null ? max : Double.POSITIVE_INFINITY;
+            this.from = firstAtLeast(this.min);
+            this.to = Math.max(from, firstAbove(this.max));
+        }
+
+        private int firstAtLeast(double value) {
+            int low = 0;
+            int high = sortedBudgets.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedBudgets[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstAbove(double value) {
+            int low = 0;
+            int high = sortedBudgets.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedBudgets[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public int cost() {
+            return to - from;
+        }
+
+        @Override
+        public int[] rows() {
+            return Arrays.copyOfRange(rowsByBudget, from, to);
+        }
+
+        @Override
+        public boolean test(int row) {
+            return budgets[row] >= min && budgets[row] <= max;
+        }
+    }
+
+    private final class SkillFilter implements Filter {
+
+        private final List<BitSet> bitmaps = new ArrayList<>();
+        private final int cost;
+
+        SkillFilter(int[] skillIds) {
+            int total = 0;
+            for (int skillId : skillIds) {
+                BitSet rows = skillRows.get(skillId);
+                if (rows != null) {
+                    bitmaps.add(rows);
+                    total += rows.cardinality();
+                }
+            }
+            this.cost = total;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public int[] rows() {
+            BitSet union = new BitSet(gigs.length);
+            for (BitSet rows : bitmaps) {
+                union.or(rows);
+            }
+            return union.stream().toArray();
+        }
+
+        @Override
+        public boolean test(int row) {
+            for (BitSet rows : bitmaps) {
+                if (rows.get(row)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final class TitleFilter implements Filter {
+
+        private final List<BitSet> bitmaps = new ArrayList<>();
+        private final int cost;
+
+        TitleFilter(List<String> tokens) {
+            int smallest = Integer.MAX_VALUE;
+            for (String token : tokens) {
+                BitSet rows = tokenRows.get(token);
+                if (rows == null) {
+                    // A token no title contains: nothing can match
+                    bitmaps.clear();
+                    smallest = 0;
+                    break;
+                }
+                bitmaps.add(rows);
+                smallest = Math.min(smallest, rows.cardinality());
+            }
+            this.cost = smallest;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public int[] rows() {
+            if (cost == 0) {
+                return new int[0];
+            }
+            BitSet intersection = (BitSet) bitmaps.get(0).clone();
+            for (int i = 1; i < bitmaps.size(); i++) {
+                intersection.and(bitmaps.get(i));
+            }
+            return intersection.stream().toArray();
+        }
+
+        @Override
+        public boolean test(int row) {
+            if (cost == 0) {
+                return false;
+            }
+            for (BitSet rows : bitmaps) {
+                if (!rows.get(row)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final class GeoFilter implements Filter {
+
+        private final double latitude;
+        private final double longitude;
+        private final double radiusKm;
+        private final GeoBox box;
+        private final int[] cellRows; // null when the radius covers too many cells
+
+        GeoFilter(double latitude, double longitude, double radiusKm) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusKm = radiusKm;
+            this.box = GeoBox.around(latitude, longitude, radiusKm);
+            this.cellRows = grid.candidates(box);
+        }
+
+        @Override
+        public int cost() {
+            return cellRows != null ? cellRows.length : gigs.length;
+        }
+
+        @Override
+        public int[] rows() {
+            int[] candidates = cellRows != null ? cellRows : allRows();
+            int[] rows = new int[candidates.length];
+            int size = 0;
+            for (int row : candidates) {
+                if (test(row)) {
+                    rows[size++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, size);
+        }
+
+        @Override
+        public boolean test(int row) {
+            return box.contains(latitudes[row], longitudes[row])
+                    && GeoMath.haversineKm(latitude, longitude, latitudes[row], longitudes[row]) <= radiusKm;
+        }
+    }
+}
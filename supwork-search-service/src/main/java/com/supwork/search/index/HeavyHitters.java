@@ -0,0 +1,118 @@
+package com.supwork.search.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Approximate top-K counter (Space-Saving). At most {@code capacity} keys
+ * are counted; a new key takes the slot of the least counted one and starts
+ * from its count, so counts are over-estimates but every key seen more than
+ * {@code total / capacity} times is guaranteed to be kept. Slots form a
+ * min-heap on count, making each addition O(log capacity).
+ * <p>
+ * Not thread-safe.
+ */
+public final class HeavyHitters<K> {
+
+    private final Object[] keys;
+    private final long[] counts;
+    private final Map<K, Integer> slots; // key -> heap position
+    private int size;
+
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.keys = new Object[capacity];
+        this.counts = new long[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(K key) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot]++;
+            siftDown(slot);
+        } else if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = 1;
+            slots.put(key, size);
+            siftUp(size++);
+        } else {
+            // Evict the minimum; the newcomer inherits its count as the error bound
+            slots.remove(key(0));
+            keys[0] = key;
+            counts[0]++;
+            slots.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return the counted keys, most counted first, leaving the counter empty
+     */
+    public Map<K, Long> drain() {
+        Integer[] order = new Integer[size];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> counts[i]).reversed());
+        Map<K, Long> top = new LinkedHashMap<>();
+        for (int i : order) {
+            top.put(key(i), counts[i]);
+        }
+        Arrays.fill(keys, 0, size, null);
+        slots.clear();
+        size = 0;
+        return top;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int slot) {
+        return (K) keys[slot];
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                child++;
+            }
+            if (counts[slot] <= counts[child]) {
+                return;
+            }
+            swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        slots.put(key(a), a);
+        slots.put(key(b), b);
+    }
+}
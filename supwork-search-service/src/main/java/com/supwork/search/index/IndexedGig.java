@@ -0,0 +1,106 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.GigSearchDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * An open gig with the fields matching needs already parsed: coordinates from
+ * its "lat,lng" location, its skills as sorted dictionary IDs and its
+ * optional time window in epoch milliseconds.
+ */
+public final class IndexedGig {
+
+    private final GigSearchDTO gig;
+    private final double latitude;  // NaN when unknown
+    private final double longitude; // NaN when unknown
+    private final int[] skillIds;
+    private final int skillCount;   // distinct skills the gig requires, known to the dictionary or not
+    private final long windowStart; // 0 when the gig has no window
+    private final long windowEnd;
+
+    private IndexedGig(GigSearchDTO gig, double latitude, double longitude, int[] skillIds, int skillCount,
+                       long windowStart, long windowEnd) {
+        this.gig = gig;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.skillIds = skillIds;
+        this.skillCount = skillCount;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    public static IndexedGig of(GigSearchDTO gig, SkillDictionary dictionary) {
+        int[] skillIds = SkillSet.of(gig.getSkills(), dictionary);
+        return of(gig, skillIds, skillIds.length);
+    }
+
+    /**
+     * Like {@link #of} but without growing the dictionary, for gigs sent by
+     * callers: skills no technician or gig here has are left out of the IDs,
+     * yet still count towards the gig's side of the similarity.
+     */
+    public static IndexedGig lookup(GigSearchDTO gig, SkillDictionary dictionary) {
+        int skillCount = gig.getSkills() == null ? 0
+                : (int) gig.getSkills().stream().filter(Objects::nonNull).distinct().count();
+        return of(gig, SkillSet.lookup(gig.getSkills(), dictionary), skillCount);
+    }
+
+    private static IndexedGig of(GigSearchDTO gig, int[] skillIds, int skillCount) {
+        double[] coordinates = GeoMath.parseLocation(gig.getLocation());
+        // gig-service stores the window in UTC; a half-set or inverted window is treated as none
+        long start = 0;
+        long end = 0;
+        if (gig.getScheduledStart() != null && gig.getScheduledEnd() != null
+                && gig.getScheduledEnd().isAfter(gig.getScheduledStart())) {
+            start = epochMillis(gig.getScheduledStart());
+            end = epochMillis(gig.getScheduledEnd());
+        }
+        return new IndexedGig(gig, coordinates[0], coordinates[1], skillIds, skillCount, start, end);
+    }
+
+    private static long epochMillis(LocalDateTime utc) {
+        return utc.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public GigSearchDTO gig() {
+        return gig;
+    }
+
+    public Long id() {
+        return gig.getId();
+    }
+
+    public double latitude() {
+        return latitude;
+    }
+
+    public double longitude() {
+        return longitude;
+    }
+
+    /**
+     * Callers must not modify the returned array.
+     */
+    public int[] skillIds() {
+        return skillIds;
+    }
+
+    public int skillCount() {
+        return skillCount;
+    }
+
+    public boolean hasWindow() {
+        return windowEnd > windowStart;
+    }
+
+    public long windowStart() {
+        return windowStart;
+    }
+
+    public long windowEnd() {
+        return windowEnd;
+    }
+}
@@ -0,0 +1,84 @@
+package com.supwork.search.index;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of half-open time intervals {@code [start, end)} in epoch
+ * milliseconds, kept sorted and merged so no two intervals touch. Because the
+ * merged intervals are ordered by both start and end, an overlap test is one
+ * binary search for the first interval ending after the probe's start.
+ */
+public final class IntervalSet {
+
+    public static final IntervalSet EMPTY = new IntervalSet(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private IntervalSet(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @param starts interval starts, in any order
+     * @param ends   matching interval ends; empty or inverted intervals are ignored
+     */
+    public static IntervalSet of(long[] starts, long[] ends, int count) {
+        long[][] intervals = new long[count][];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (starts[i] < ends[i]) {
+                intervals[kept++] = new long[]{starts[i], ends[i]};
+            }
+        }
+        Arrays.sort(intervals, 0, kept, (a, b) -> Long.compare(a[0], b[0]));
+
+        long[] mergedStarts = new long[kept];
+        long[] mergedEnds = new long[kept];
+        int size = 0;
+        for (int i = 0; i < kept; i++) {
+            if (size > 0 && intervals[i][0] <= mergedEnds[size - 1]) {
+                mergedEnds[size - 1] = Math.max(mergedEnds[size - 1], intervals[i][1]);
+            } else {
+                mergedStarts[size] = intervals[i][0];
+                mergedEnds[size] = intervals[i][1];
+                size++;
+            }
+        }
+        return size == 0 ? EMPTY : new IntervalSet(Arrays.copyOf(mergedStarts, size), Arrays.copyOf(mergedEnds, size));
+    }
+
+    /**
+     * @return whether any interval shares time with {@code [start, end)}
+     */
+    public boolean overlaps(long start, long end) {
+        if (start >= end) {
+            return false;
+        }
+        // First interval ending after start; every earlier one ends too soon
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < starts.length && starts[low] < end;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public long start(int i) {
+        return starts[i];
+    }
+
+    public long end(int i) {
+        return ends[i];
+    }
+}
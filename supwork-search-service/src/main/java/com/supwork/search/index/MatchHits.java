@@ -0,0 +1,139 @@
+package com.supwork.search.index;
+
+/**
+ * Bounded top-K collector of scored rows. While collecting it is a binary
+ * min-heap whose root is the current worst hit, so each offer is O(log K);
+ * {@link #finish()} turns it into a best-first list. Only these rows are ever
+ * turned into result objects.
+ *
+ * Higher scores win; equal scores prefer the lower row, which keeps results
+ * identical to a stable sort over the scan order however the scan was split.
+ */
+public final class MatchHits {
+
+    private final int[] rows;
+    private final double[] scores;
+    private final double[] distances;
+    private final int[] overlaps;
+    private int size;
+    private boolean finished;
+
+    public MatchHits(int capacity) {
+        this.rows = new int[capacity];
+        this.scores = new double[capacity];
+        this.distances = new double[capacity];
+        this.overlaps = new int[capacity];
+    }
+
+    public void offer(int row, double score, double distance, int overlap) {
+        int capacity = rows.length;
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            set(size, row, score, distance, overlap);
+            siftUp(size++);
+        } else if (better(score, row, scores[0], rows[0])) {
+            set(0, row, score, distance, overlap);
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Folds another partition's hits into this one.
+     */
+    public void merge(MatchHits other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.rows[i], other.scores[i], other.distances[i], other.overlaps[i]);
+        }
+    }
+
+    /**
+     * Sorts the hits best-first in place. No more offers are accepted after this.
+     */
+    public MatchHits finish() {
+        if (!finished) {
+            // Heap sort: repeatedly move the worst hit to the end
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            finished = true;
+        }
+        return this;
+    }
+
+    private static boolean better(double score, int row, double otherScore, int otherRow) {
+        return score > otherScore || (score == otherScore && row < otherRow);
+    }
+
+    private boolean worse(int i, int j) {
+        return better(scores[j], rows[j], scores[i], rows[i]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int end) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= end) {
+                break;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < end && worse(right, left)) {
+                worst = right;
+            }
+            if (!worse(worst, i)) {
+                break;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void set(int i, int row, double score, double distance, int overlap) {
+        rows[i] = row;
+        scores[i] = score;
+        distances[i] = distance;
+        overlaps[i] = overlap;
+    }
+
+    private void swap(int i, int j) {
+        int row = rows[i];
+        double score = scores[i];
+        double distance = distances[i];
+        int overlap = overlaps[i];
+        set(i, rows[j], scores[j], distances[j], overlaps[j]);
+        set(j, row, score, distance, overlap);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int row(int i) {
+        return rows[i];
+    }
+
+    public double score(int i) {
+        return scores[i];
+    }
+
+    public double distanceKm(int i) {
+        return distances[i];
+    }
+
+    public int overlap(int i) {
+        return overlaps[i];
+    }
+}
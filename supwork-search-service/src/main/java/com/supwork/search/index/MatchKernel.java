@@ -0,0 +1,145 @@
+package com.supwork.search.index;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Scoring kernel over a {@link TechnicianSnapshot}. Candidates come from the
+ * snapshot's geohash grid cells covering the radius; the scan then reads only
+ * primitive columns: rating filter, bounding-box reject, Haversine distance,
+ * popcount skill overlap and cosine similarity of the two skill sets, feeding a
+ * bounded top-K heap. Technicians sharing no skill with the query, offline
+ * in the query's presence mask or rejected by its row filter are not matches.
+ *
+ * Large candidate sets are split across a fork-join pool; each partition keeps
+ * its own heap and the heaps are merged on the way back up.
+ */
+public final class MatchKernel {
+
+    /** Smallest partition worth handing to another worker. */
+    private static final int MIN_PARTITION = 4096;
+
+    private MatchKernel() {
+    }
+
+    public static MatchHits topK(TechnicianSnapshot snapshot, MatchQuery query) {
+        return topK(snapshot, query, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param pool              pool for the parallel path, or {@code null} to always scan on the caller
+     * @param parallelThreshold candidate count from which the scan is split across {@code pool}
+     */
+    public static MatchHits topK(TechnicianSnapshot snapshot, MatchQuery query,
+                                 ForkJoinPool pool, int parallelThreshold) {
+        if (query.getPresence() != null && query.getPresence().snapshot() != snapshot) {
+            throw new IllegalArgumentException("Presence mask belongs to another snapshot");
+        }
+        if (query.getSkillCount() == 0 || Double.isNaN(query.getLatitude()) || Double.isNaN(query.getLongitude())) {
+            return new MatchHits(query.getLimit());
+        }
+
+        GeoBox box = GeoBox.around(query.getLatitude(), query.getLongitude(), query.getRadiusKm());
+        int[] candidates = snapshot.grid().candidates(box);
+        int count = candidates != null ? candidates.length : snapshot.size();
+
+        boolean parallel = pool != null && pool.getParallelism() > 1 && count >= parallelThreshold;
+        Scan scan = new Scan(snapshot, query, box, candidates, 0, count, parallel);
+        MatchHits hits = parallel ? pool.invoke(scan) : scan.compute();
+        return hits.finish();
+    }
+
+    private static final class Scan extends RecursiveTask<MatchHits> {
+
+        private final TechnicianSnapshot snapshot;
+        private final MatchQuery query;
+        private final GeoBox box;
+        private final int[] candidates;
+        private final int from;
+        private final int to;
+        private final boolean split;
+
+        Scan(TechnicianSnapshot snapshot, MatchQuery query, GeoBox box, int[] candidates,
+             int from, int to, boolean split) {
+            this.snapshot = snapshot;
+            this.query = query;
+            this.box = box;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.split = split;
+        }
+
+        @Override
+        protected MatchHits compute() {
+            if (split && to - from >= 2 * MIN_PARTITION) {
+                int mid = (from + to) >>> 1;
+                Scan left = new Scan(snapshot, query, box, candidates, from, mid, true);
+                Scan right = new Scan(snapshot, query, box, candidates, mid, to, true);
+                left.fork();
+                MatchHits hits = right.compute();
+                hits.merge(left.join());
+                return hits;
+            }
+            return scan();
+        }
+
+        private MatchHits scan() {
+            MatchHits hits = new MatchHits(query.getLimit());
+
+            final float[] ratings = snapshot.ratings();
+            final double[] latitudes = snapshot.latitudes();
+            final double[] latRadians = snapshot.latRadians();
+            final double[] cosLatitudes = snapshot.cosLatitudes();
+            final double[] longitudes = snapshot.longitudes();
+            final long[] skillBits = snapshot.skillBits();
+            final int[] skillCounts = snapshot.skillCounts();
+            final int words = snapshot.wordsPerRow();
+            final long[] querySkills = query.getSkillBits();
+            final double querySkillCount = query.getSkillCount();
+            final double minRating = query.getMinRating();
+            final double radiusKm = query.getRadiusKm();
+            final double lon = query.getLongitude();
+            final double queryLatRad = Math.toRadians(query.getLatitude());
+            final double queryCosLat = Math.cos(queryLatRad);
+            final double afterScore = query.getAfterScore();
+            final long afterUserId = query.getAfterUserId();
+            final PresenceMask presence = query.getPresence();
+            final IntPredicate rowFilter = query.getRowFilter();
+
+            for (int i = from; i < to; i++) {
+                int row = candidates != null ? candidates[i] : i;
+                if (presence != null && !presence.contains(row)) {
+                    continue;
+                }
+                // NaN ratings and coordinates fail these comparisons and drop out
+                if (!(ratings[row] >= minRating)) {
+                    continue;
+                }
+                if (!box.contains(latitudes[row], longitudes[row])) {
+                    continue;
+                }
+                double distance = GeoMath.haversineKm(queryLatRad, queryCosLat, lon,
+                        latRadians[row], cosLatitudes[row], longitudes[row]);
+                if (!(distance <= radiusKm)) {
+                    continue;
+                }
+                int overlap = SkillBits.overlap(skillBits, row * words, querySkills, words);
+                if (overlap == 0) {
+                    continue;
+                }
+                double score = overlap / Math.sqrt(querySkillCount * skillCounts[row]);
+                // Rows an earlier page already returned never enter the heap
+                if (score > afterScore || (score == afterScore && snapshot.userId(row) <= afterUserId)) {
+                    continue;
+                }
+                if (rowFilter != null && !rowFilter.test(row)) {
+                    continue;
+                }
+                hits.offer(row, score, distance, overlap);
+            }
+            return hits;
+        }
+    }
+}
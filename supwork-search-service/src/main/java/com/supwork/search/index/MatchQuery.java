@@ -0,0 +1,47 @@
+package com.supwork.search.index;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.function.IntPredicate;
+
+/**
+ * One scoring request against a {@link TechnicianSnapshot}.
+ */
+@Value
+@Builder
+public class MatchQuery {
+
+    double latitude;
+    double longitude;
+
+    /** Query skill bitset, {@link TechnicianSnapshot#wordsPerRow()} words wide. */
+    long[] skillBits;
+
+    /** Distinct query skills, including ones no technician has. */
+    int skillCount;
+
+    double minRating;
+    double radiusKm;
+    int limit;
+
+    /**
+     * Keyset boundary for deeper pages: only rows ranked strictly after the
+     * hit with this score and user ID are kept. Ranking is score descending,
+     * then user ID ascending, which matches the kernel's row tie-break as long
+     * as snapshot rows are in user ID order. The defaults keep every row.
+     */
+    @Builder.Default
+    double afterScore = Double.POSITIVE_INFINITY;
+    @Builder.Default
+    long afterUserId = Long.MIN_VALUE;
+
+    /** Only rows set in this mask are matched, or every row when {@code null}. */
+    PresenceMask presence;
+
+    /**
+     * Extra per-row test, run last on rows that would otherwise match, or
+     * {@code null} for none. Called from scoring workers concurrently.
+     */
+    IntPredicate rowFilter;
+}
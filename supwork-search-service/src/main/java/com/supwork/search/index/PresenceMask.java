@@ -0,0 +1,50 @@
+package com.supwork.search.index;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Online bitmap aligned with the rows of one {@link TechnicianSnapshot}, so
+ * the match kernel checks availability with a single bit test. Bits are
+ * flipped in place as technicians come and go.
+ */
+public final class PresenceMask {
+
+    private final TechnicianSnapshot snapshot;
+    private final AtomicLongArray words;
+    private final Map<Long, Integer> rowsByUserId;
+
+    public PresenceMask(TechnicianSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.words = new AtomicLongArray((snapshot.size() + 63) >>> 6);
+        this.rowsByUserId = new HashMap<>(snapshot.size() * 2);
+        for (int row = 0; row < snapshot.size(); row++) {
+            rowsByUserId.put(snapshot.userId(row), row);
+        }
+    }
+
+    public TechnicianSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean contains(int row) {
+        return (words.get(row >>> 6) & (1L << row)) != 0;
+    }
+
+    /**
+     * No-op for technicians that are not in the snapshot.
+     */
+    public void set(long userId, boolean online) {
+        Integer row = rowsByUserId.get(userId);
+        if (row == null) {
+            return;
+        }
+        long bit = 1L << row;
+        if (online) {
+            words.getAndAccumulate(row >>> 6, bit, (word, b) -> word | b);
+        } else {
+            words.getAndAccumulate(row >>> 6, bit, (word, b) -> word & ~b);
+        }
+    }
+}
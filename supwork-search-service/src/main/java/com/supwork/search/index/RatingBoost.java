@@ -0,0 +1,79 @@
+package com.supwork.search.index;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.DoubleValues;
+import org.apache.lucene.search.DoubleValuesSource;
+import org.apache.lucene.search.IndexSearcher;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Score multiplier {@code 1 + weight * rating / 5} read from a double doc
+ * values field; unrated documents get 1.
+ */
+final class RatingBoost extends DoubleValuesSource {
+
+    private static final double MAX_RATING = 5.0;
+
+    private final String field;
+    private final double weight;
+
+    RatingBoost(String field, double weight) {
+        this.field = field;
+        this.weight = weight;
+    }
+
+    @Override
+    public DoubleValues getValues(LeafReaderContext ctx, DoubleValues scores) throws IOException {
+        NumericDocValues ratings = DocValues.getNumeric(ctx.reader(), field);
+        return new DoubleValues() {
+            private double boost;
+
+            @Override
+            public double doubleValue() {
+                return boost;
+            }
+
+            @Override
+            public boolean advanceExact(int doc) throws IOException {
+                boost = ratings.advanceExact(doc)
+                        ? 1 + weight * Double.longBitsToDouble(ratings.longValue()) / MAX_RATING
+                        : 1;
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public boolean needsScores() {
+        return false;
+    }
+
+    @Override
+    public DoubleValuesSource rewrite(IndexSearcher searcher) {
+        return this;
+    }
+
+    @Override
+    public boolean isCacheable(LeafReaderContext ctx) {
+        return DocValues.isCacheable(ctx, field);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RatingBoost other && field.equals(other.field) && weight == other.weight;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, weight);
+    }
+
+    @Override
+    public String toString() {
+        return "ratingBoost(" + field + ", " + weight + ")";
+    }
+}
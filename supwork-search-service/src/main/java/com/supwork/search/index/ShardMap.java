@@ -0,0 +1,120 @@
+package com.supwork.search.index;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Geographic shards as a set of geohash prefixes. A point belongs to every
+ * prefix its geohash starts with, and a search area to every prefix whose
+ * cell intersects its bounding box. Prefixes may differ in length; they are
+ * grouped by length so a point lookup is one hash probe per distinct length.
+ */
+public final class ShardMap {
+
+    public static final ShardMap EMPTY = of(Set.of());
+
+    private final Map<Integer, Map<Long, String>> byLength; // length -> hash -> prefix
+    private final Set<String> prefixes;
+
+    private ShardMap(Map<Integer, Map<Long, String>> byLength, Set<String> prefixes) {
+        this.byLength = byLength;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * @param prefixes base32 geohash prefixes; blanks are ignored and case does not matter
+     */
+    public static ShardMap of(Collection<String> prefixes) {
+        Map<Integer, Map<Long, String>> byLength = new HashMap<>();
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String prefix : prefixes) {
+            String value = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+            if (value.isEmpty()) {
+                continue;
+            }
+            byLength.computeIfAbsent(value.length(), length -> new HashMap<>()).put(GeoHash.parse(value), value);
+            normalized.add(value);
+        }
+        return new ShardMap(byLength, Set.copyOf(normalized));
+    }
+
+    public boolean isEmpty() {
+        return prefixes.isEmpty();
+    }
+
+    public Set<String> prefixes() {
+        return prefixes;
+    }
+
+    public boolean contains(String prefix) {
+        return prefixes.contains(prefix);
+    }
+
+    /**
+     * @return whether the point lies in any prefix; unknown coordinates lie in none
+     */
+    public boolean covers(double lat, double lon) {
+        if (Double.isNaN(lat) || Double.isNaN(lon)) {
+            return false;
+        }
+        for (Map.Entry<Integer, Map<Long, String>> entry : byLength.entrySet()) {
+            if (entry.getValue().containsKey(GeoHash.encode(lat, lon, entry.getKey()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the prefixes whose cells intersect {@code box}
+     */
+    public Set<String> overlapping(GeoBox box) {
+        // There are few shards, so each prefix cell is tested against the box directly
+        Set<String> result = new LinkedHashSet<>();
+        for (Map.Entry<Integer, Map<Long, String>> entry : byLength.entrySet()) {
+            for (Map.Entry<Long, String> cell : entry.getValue().entrySet()) {
+                if (intersects(box, cell.getKey(), entry.getKey())) {
+                    result.add(cell.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    // Cell bounds from its hash, tested against the box the same way points are
+    private static boolean intersects(GeoBox box, long hash, int precision) {
+        int lonBits = GeoHash.lonBits(precision);
+        int latBits = GeoHash.latBits(precision);
+        long latIndex = 0;
+        long lonIndex = 0;
+        for (int k = 0; k < lonBits + latBits; k++) {
+            long bit = (hash >>> (lonBits + latBits - 1 - k)) & 1L;
+            if ((k & 1) == 0) {
+                lonIndex = (lonIndex << 1) | bit;
+            } else {
+                latIndex = (latIndex << 1) | bit;
+            }
+        }
+        double minLat = latIndex * GeoHash.cellHeight(precision) - 90.0;
+        double maxLat = minLat + GeoHash.cellHeight(precision);
+        if (maxLat < box.minLat() || minLat > box.maxLat()) {
+            return false;
+        }
+        if (box.allLongitudes()) {
+            return true;
+        }
+        double minLon = lonIndex * GeoHash.cellWidth(precision) - 180.0;
+        double maxLon = minLon + GeoHash.cellWidth(precision);
+        // Shift by whole turns so boxes crossing the antimeridian still work
+        for (double shift = -360.0; shift <= 360.0; shift += 360.0) {
+            if (maxLon + shift >= box.minLon() && minLon + shift <= box.maxLon()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.supwork.search.index;
+
+import java.util.Collection;
+
+/**
+ * Fixed-width skill bitsets addressed by {@link SkillDictionary} IDs.
+ */
+public final class SkillBits {
+
+    private SkillBits() {
+    }
+
+    public static int wordsFor(int skillCount) {
+        return Math.max(1, (skillCount + 63) >>> 6);
+    }
+
+    /**
+     * Encodes a query skill set without growing the dictionary. Skills nobody
+     * has yet simply cannot overlap and are left out of the bitset.
+     */
+    public static long[] encodeQuery(Collection<String> skills, SkillDictionary dictionary, int words) {
+        long[] bits = new long[words];
+        for (String skill : skills) {
+            int id = dictionary.lookup(skill);
+            if (id != SkillDictionary.UNKNOWN && (id >>> 6) < words) {
+                bits[id >>> 6] |= 1L << id;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Encodes already interned IDs; IDs wider than the row cannot overlap and are dropped.
+     */
+    public static long[] encode(int[] ids, int words) {
+        long[] bits = new long[words];
+        SkillSet.toBits(ids, bits, 0, words);
+        return bits;
+    }
+
+    static int overlap(long[] rows, int offset, long[] query, int words) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(rows[offset + w] & query[w]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,49 @@
+package com.supwork.search.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns skill names to dense integer IDs so skill sets can be held as bitsets
+ * and compared without string equality checks. IDs are stable for the lifetime
+ * of the process and shared by every index built on top of them.
+ */
+@Component
+public class SkillDictionary {
+
+    public static final int UNKNOWN = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public int intern(String skill) {
+        Integer id = ids.get(skill);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            return ids.computeIfAbsent(skill, s -> {
+                names.add(s);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    public int lookup(String skill) {
+        Integer id = ids.get(skill);
+        return id != null ? id : UNKNOWN;
+    }
+
+    public String name(int id) {
+        synchronized (names) {
+            return names.get(id);
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,106 @@
+package com.supwork.search.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Skill sets as sorted, distinct {@code int[]} of {@link SkillDictionary} IDs.
+ * Overlap and cosine similarity are a single merge pass with no allocation.
+ */
+public final class SkillSet {
+
+    public static final int[] EMPTY = new int[0];
+
+    private SkillSet() {
+    }
+
+    public static int[] of(Collection<String> skills, SkillDictionary dictionary) {
+        if (skills == null || skills.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[skills.size()];
+        int size = 0;
+        for (String skill : skills) {
+            if (skill != null) {
+                ids[size++] = dictionary.intern(skill);
+            }
+        }
+        return sortedDistinct(ids, size);
+    }
+
+    /**
+     * Like {@link #of} but without growing the dictionary; unknown skills are left out.
+     */
+    public static int[] lookup(Collection<String> skills, SkillDictionary dictionary) {
+        if (skills == null || skills.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[skills.size()];
+        int size = 0;
+        for (String skill : skills) {
+            int id = skill != null ? dictionary.lookup(skill) : SkillDictionary.UNKNOWN;
+            if (id != SkillDictionary.UNKNOWN) {
+                ids[size++] = id;
+            }
+        }
+        return sortedDistinct(ids, size);
+    }
+
+    private static int[] sortedDistinct(int[] ids, int size) {
+        Arrays.sort(ids, 0, size);
+        // Drop duplicates in place
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+    }
+
+    public static int overlap(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < b.length) {
+            int x = a[i];
+            int y = b[j];
+            if (x == y) {
+                count++;
+                i++;
+                j++;
+            } else if (x < y) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cosine similarity of two binary skill vectors: |A ∩ B| / sqrt(|A| * |B|).
+     */
+    public static double cosine(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0.0;
+        }
+        return overlap(a, b) / Math.sqrt((double) a.length * b.length);
+    }
+
+    /**
+     * Sets the bit of every ID into {@code target[offset, offset + words)}.
+     *
+     * @return number of IDs that fit the row width
+     */
+    static int toBits(int[] ids, long[] target, int offset, int words) {
+        int count = 0;
+        for (int id : ids) {
+            if ((id >>> 6) < words) {
+                target[offset + (id >>> 6)] |= 1L << id;
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,141 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.SkillSuggestion;
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup;
+import org.apache.lucene.search.suggest.fst.WFSTCompletionLookup;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable prefix lookup over skill names, weighted by usage. The names are
+ * compiled into a weighted FST, so a lookup walks the prefix and then the
+ * top-weighted paths below it without touching any other skill. Matching is
+ * case-insensitive; each suggestion is shown in its most used spelling.
+ */
+public final class SkillSuggester {
+
+    public static final SkillSuggester EMPTY = build(Map.of());
+
+    private final WFSTCompletionLookup lookup;
+    private final Map<String, String> displayNames; // lower-cased key -> most used spelling
+
+    private SkillSuggester(WFSTCompletionLookup lookup, Map<String, String> displayNames) {
+        this.lookup = lookup;
+        this.displayNames = displayNames;
+    }
+
+    /**
+     * @param usage skill name as written -> how often it is used; spellings differing only in case are merged
+     */
+    public static SkillSuggester build(Map<String, Long> usage) {
+        Map<String, Long> weights = new HashMap<>();
+        Map<String, String> displayNames = new HashMap<>();
+        Map<String, Long> displayWeights = new HashMap<>();
+        for (Map.Entry<String, Long> entry : usage.entrySet()) {
+            String skill = entry.getKey() != null ? entry.getKey().trim() : "";
+            if (skill.isEmpty()) {
+                continue;
+            }
+            String key = key(skill);
+            long count = entry.getValue();
+            weights.merge(key, count, Long::sum);
+            if (count > displayWeights.getOrDefault(key, -1L)) {
+                displayWeights.put(key, count);
+                displayNames.put(key, skill);
+            }
+        }
+
+        WFSTCompletionLookup lookup = new WFSTCompletionLookup(new ByteBuffersDirectory(), "skills");
+        try {
+            lookup.build(new WeightIterator(weights.entrySet().iterator()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SkillSuggester(lookup, displayNames);
+    }
+
+    /**
+     * @return up to {@code limit} skills starting with {@code prefix}, most used first
+     */
+    public List<SkillSuggestion> suggest(String prefix, int limit) {
+        String key = key(prefix != null ? prefix.trim() : "");
+        if (key.isEmpty() || displayNames.isEmpty()) {
+            return List.of();
+        }
+        List<Lookup.LookupResult> results;
+        try {
+            results = lookup.lookup(key, false, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<SkillSuggestion> suggestions = new ArrayList<>(results.size());
+        for (Lookup.LookupResult result : results) {
+            suggestions.add(new SkillSuggestion(displayNames.get(result.key.toString()), result.value));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return displayNames.size();
+    }
+
+    private static String key(String skill) {
+        return skill.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class WeightIterator implements InputIterator {
+
+        private final Iterator<Map.Entry<String, Long>> entries;
+        private long weight;
+
+        WeightIterator(Iterator<Map.Entry<String, Long>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public BytesRef next() {
+            if (!entries.hasNext()) {
+                return null;
+            }
+            Map.Entry<String, Long> entry = entries.next();
+            weight = entry.getValue();
+            return new BytesRef(entry.getKey());
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+
+        @Override
+        public BytesRef payload() {
+            return null;
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return false;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
+    }
+}
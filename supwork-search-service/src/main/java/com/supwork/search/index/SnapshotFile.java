@@ -0,0 +1,293 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.GigSearchDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * On-disk copy of a {@link TechnicianSnapshot} and the open gigs, so a
+ * starting instance can load both without a full Mongo scan or gig-service
+ * fetch. Layout, all big-endian:
+ * <ol>
+ *   <li>magic, format version, technician and gig checkpoints (epoch ms);</li>
+ *   <li>the skill names behind the skill IDs used in the file;</li>
+ *   <li>the technician columns, each contiguous: user IDs, latitudes,
+ *       longitudes, ratings, per-row skill counts, then all skill IDs;</li>
+ *   <li>the open gigs, field by field;</li>
+ *   <li>a CRC32 of everything before it.</li>
+ * </ol>
+ * Files are written beside the target and moved over it atomically, and read
+ * through a memory mapping, so the columns are bulk-copied straight out of
+ * the page cache. Skill IDs are remapped on load, since each process interns
+ * skills in its own order.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x53575353; // "SWSS"
+    private static final int VERSION = 1;
+
+    private final TechnicianSnapshot technicians;
+    private final List<GigSearchDTO> gigs;
+    private final long gigCheckpoint;
+
+    private SnapshotFile(TechnicianSnapshot technicians, List<GigSearchDTO> gigs, long gigCheckpoint) {
+        this.technicians = technicians;
+        this.gigs = gigs;
+        this.gigCheckpoint = gigCheckpoint;
+    }
+
+    /**
+     * @param gigCheckpoint when {@code gigs} was copied; every gig change applied earlier is in it
+     */
+    public static void write(Path path, TechnicianSnapshot technicians, SkillDictionary dictionary,
+                             Collection<GigSearchDTO> gigs, long gigCheckpoint) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(technicians.builtAt());
+                out.writeLong(gigCheckpoint);
+                writeTechnicians(out, technicians, dictionary);
+                out.writeInt(gigs.size());
+                for (GigSearchDTO gig : gigs) {
+                    writeGig(out, gig);
+                }
+                out.flush();
+                // Not part of the checksum itself
+                new DataOutputStream(file).writeLong(crc.getValue());
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @throws IOException if the file is missing, of another format version, or corrupt
+     */
+    public static SnapshotFile read(Path path, SkillDictionary dictionary) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < 32 || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a search snapshot: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported search snapshot version " + buffer.getInt(4));
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, buffer.limit() - 8));
+            if (crc.getValue() != buffer.getLong(buffer.limit() - 8)) {
+                throw new IOException("Search snapshot checksum mismatch: " + path);
+            }
+
+            try {
+                buffer.position(8);
+                long technicianCheckpoint = buffer.getLong();
+                long gigCheckpoint = buffer.getLong();
+                TechnicianSnapshot technicians = readTechnicians(buffer, dictionary, technicianCheckpoint);
+                int gigCount = buffer.getInt();
+                List<GigSearchDTO> gigs = new ArrayList<>(gigCount);
+                for (int i = 0; i < gigCount; i++) {
+                    gigs.add(readGig(buffer));
+                }
+                return new SnapshotFile(technicians, gigs, gigCheckpoint);
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt search snapshot: " + path, e);
+            }
+        }
+    }
+
+    public TechnicianSnapshot technicians() {
+        return technicians;
+    }
+
+    /**
+     * Every technician change committed before this is in {@link #technicians()}.
+     */
+    public long technicianCheckpoint() {
+        return technicians.builtAt();
+    }
+
+    public List<GigSearchDTO> gigs() {
+        return gigs;
+    }
+
+    public long gigCheckpoint() {
+        return gigCheckpoint;
+    }
+
+    private static void writeTechnicians(DataOutputStream out, TechnicianSnapshot technicians,
+                                         SkillDictionary dictionary) throws IOException {
+        int rows = technicians.size();
+        int[][] skillIds = new int[rows][];
+        int maxSkillId = -1;
+        for (int row = 0; row < rows; row++) {
+            skillIds[row] = technicians.skillIds(row);
+            if (skillIds[row].length > 0) {
+                maxSkillId = Math.max(maxSkillId, skillIds[row][skillIds[row].length - 1]);
+            }
+        }
+        out.writeInt(maxSkillId + 1);
+        for (int id = 0; id <= maxSkillId; id++) {
+            writeString(out, dictionary.name(id));
+        }
+
+        out.writeInt(rows);
+        for (int row = 0; row < rows; row++) {
+            out.writeLong(technicians.userId(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            out.writeDouble(technicians.latitude(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            out.writeDouble(technicians.longitude(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            out.writeFloat(technicians.rating(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            out.writeInt(skillIds[row].length);
+        }
+        for (int[] ids : skillIds) {
+            for (int id : ids) {
+                out.writeInt(id);
+            }
+        }
+    }
+
+    private static TechnicianSnapshot readTechnicians(ByteBuffer buffer, SkillDictionary dictionary,
+                                                      long checkpoint) {
+        int[] localIds = new int[buffer.getInt()];
+        for (int id = 0; id < localIds.length; id++) {
+            localIds[id] = dictionary.intern(readString(buffer));
+        }
+
+        int rows = buffer.getInt();
+        long[] userIds = new long[rows];
+        buffer.asLongBuffer().get(userIds);
+        buffer.position(buffer.position() + rows * Long.BYTES);
+        double[] latitudes = new double[rows];
+        buffer.asDoubleBuffer().get(latitudes);
+        buffer.position(buffer.position() + rows * Double.BYTES);
+        double[] longitudes = new double[rows];
+        buffer.asDoubleBuffer().get(longitudes);
+        buffer.position(buffer.position() + rows * Double.BYTES);
+        float[] ratings = new float[rows];
+        buffer.asFloatBuffer().get(ratings);
+        buffer.position(buffer.position() + rows * Float.BYTES);
+        int[] skillCounts = new int[rows];
+        buffer.asIntBuffer().get(skillCounts);
+        buffer.position(buffer.position() + rows * Integer.BYTES);
+
+        TechnicianSnapshot.Builder builder = new TechnicianSnapshot.Builder(dictionary, checkpoint);
+        for (int row = 0; row < rows; row++) {
+            int[] ids = new int[skillCounts[row]];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = localIds[buffer.getInt()];
+            }
+            Arrays.sort(ids);
+            builder.add(userIds[row], latitudes[row], longitudes[row], ratings[row], ids);
+        }
+        return builder.build();
+    }
+
+    private static void writeGig(DataOutputStream out, GigSearchDTO gig) throws IOException {
+        writeLong(out, gig.getId());
+        writeString(out, gig.getTitle());
+        List<String> skills = gig.getSkills();
+        out.writeInt(skills != null ? skills.size() : -1);
+        if (skills != null) {
+            for (String skill : skills) {
+                writeString(out, skill);
+            }
+        }
+        writeString(out, gig.getLocation());
+        out.writeBoolean(gig.getBudget() != null);
+        if (gig.getBudget() != null) {
+            out.writeDouble(gig.getBudget());
+        }
+        writeString(out, gig.getDescription());
+        writeString(out, gig.getStatus());
+        writeLong(out, gig.getClientId());
+        writeString(out, gig.getScheduledStart() != null ? gig.getScheduledStart().toString() : null);
+        writeString(out, gig.getScheduledEnd() != null ? gig.getScheduledEnd().toString() : null);
+    }
+
+    private static GigSearchDTO readGig(ByteBuffer buffer) {
+        GigSearchDTO.GigSearchDTOBuilder gig = GigSearchDTO.builder()
+                .id(readLong(buffer))
+                .title(readString(buffer));
+        int skillCount = buffer.getInt();
+        if (skillCount >= 0) {
+            List<String> skills = new ArrayList<>(skillCount);
+            for (int i = 0; i < skillCount; i++) {
+                skills.add(readString(buffer));
+            }
+            gig.skills(skills);
+        }
+        gig.location(readString(buffer));
+        gig.budget(buffer.get() != 0 ? buffer.getDouble() : null);
+        gig.description(readString(buffer));
+        gig.status(readString(buffer));
+        gig.clientId(readLong(buffer));
+        String start = readString(buffer);
+        String end = readString(buffer);
+        return gig.scheduledStart(start != null ? LocalDateTime.parse(start) : null)
+                .scheduledEnd(end != null ? LocalDateTime.parse(end) : null)
+                .build();
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(ByteBuffer buffer) {
+        return buffer.get() != 0 ? buffer.getLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
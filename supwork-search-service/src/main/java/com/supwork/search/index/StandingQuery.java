@@ -0,0 +1,52 @@
+package com.supwork.search.index;
+
+/**
+ * A technician's registered interest in new gigs: their position, search
+ * radius and skills, plus the {@link SubscriptionIndex} postings it lives
+ * under. Identity-compared, so one technician may hold several at once.
+ */
+public final class StandingQuery {
+
+    private final Long technicianId;
+    private final double latitude;
+    private final double longitude;
+    private final double radiusKm;
+    private final int[] skillIds;
+    private final long[] keys;
+
+    public StandingQuery(Long technicianId, double latitude, double longitude, double radiusKm, int[] skillIds) {
+        this.technicianId = technicianId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusKm = radiusKm;
+        this.skillIds = skillIds;
+        this.keys = SubscriptionIndex.keys(latitude, longitude, radiusKm, skillIds);
+    }
+
+    public Long technicianId() {
+        return technicianId;
+    }
+
+    public double latitude() {
+        return latitude;
+    }
+
+    public double longitude() {
+        return longitude;
+    }
+
+    public double radiusKm() {
+        return radiusKm;
+    }
+
+    /**
+     * Callers must not modify the returned array.
+     */
+    public int[] skillIds() {
+        return skillIds;
+    }
+
+    long[] keys() {
+        return keys;
+    }
+}
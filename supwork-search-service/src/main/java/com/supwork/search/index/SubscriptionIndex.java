@@ -0,0 +1,125 @@
+package com.supwork.search.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index of standing match queries, keyed by skill and geohash cell.
+ * A query is posted under every (skill, cell) pair its skills and radius
+ * cover, so matching a new gig only reads the postings for the gig's own
+ * skills in the gig's own cell and then checks those few queries exactly.
+ * Queries covering too many cells are posted per skill alone.
+ * <p>
+ * Safe for concurrent registration, removal and matching.
+ */
+public final class SubscriptionIndex {
+
+    /** 4 characters gives cells of roughly 39 x 19.5 km at the equator. */
+    public static final int PRECISION = 4;
+
+    /** Past this many cells a query is posted under its skills alone. */
+    private static final int MAX_CELLS_PER_QUERY = 256;
+
+    private static final long ANY_CELL = 0xFFFFFFFFL;
+
+    private final Map<Long, Set<StandingQuery>> postings = new ConcurrentHashMap<>();
+
+    public void add(StandingQuery query) {
+        for (long key : query.keys()) {
+            postings.compute(key, (k, queries) -> {
+                Set<StandingQuery> set = queries != null ? queries : ConcurrentHashMap.newKeySet();
+                set.add(query);
+                return set;
+            });
+        }
+    }
+
+    public void remove(StandingQuery query) {
+        for (long key : query.keys()) {
+            postings.computeIfPresent(key, (k, queries) -> {
+                queries.remove(query);
+                return queries.isEmpty() ? null : queries;
+            });
+        }
+    }
+
+    /**
+     * @return the queries within whose radius the gig lies and which share at least one skill with it
+     */
+    public List<StandingQuery> match(double latitude, double longitude, int[] skillIds) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude) || skillIds.length == 0) {
+            return List.of();
+        }
+        long cell = GeoHash.encode(latitude, longitude, PRECISION);
+        Set<StandingQuery> candidates = new HashSet<>();
+        for (int skillId : skillIds) {
+            Set<StandingQuery> local = postings.get(key(skillId, cell));
+            if (local != null) {
+                candidates.addAll(local);
+            }
+            Set<StandingQuery> wide = postings.get(key(skillId, ANY_CELL));
+            if (wide != null) {
+                candidates.addAll(wide);
+            }
+        }
+        List<StandingQuery> matches = new ArrayList<>(candidates.size());
+        for (StandingQuery query : candidates) {
+            if (GeoMath.haversineKm(query.latitude(), query.longitude(), latitude, longitude) <= query.radiusKm()) {
+                matches.add(query);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Number of distinct (skill, cell) postings, for monitoring.
+     */
+    public int postingCount() {
+        return postings.size();
+    }
+
+    static long[] keys(double latitude, double longitude, double radiusKm, int[] skillIds) {
+        GeoBox box = GeoBox.around(latitude, longitude, radiusKm);
+        long latFrom = GeoHash.latIndex(box.minLat(), PRECISION);
+        long latTo = GeoHash.latIndex(box.maxLat(), PRECISION);
+        long lonCells = 1L << GeoHash.lonBits(PRECISION);
+        long lonFrom = 0;
+        long lonTo = lonCells - 1;
+        if (!box.allLongitudes()) {
+            long from = (long) Math.floor((box.minLon() + 180.0) / GeoHash.cellWidth(PRECISION));
+            long to = (long) Math.floor((box.maxLon() + 180.0) / GeoHash.cellWidth(PRECISION));
+            if (to - from + 1 < lonCells) {
+                lonFrom = from;
+                lonTo = to;
+            }
+        }
+
+        long cellCount = (latTo - latFrom + 1) * (lonTo - lonFrom + 1);
+        if (cellCount > MAX_CELLS_PER_QUERY) {
+            long[] keys = new long[skillIds.length];
+            for (int i = 0; i < skillIds.length; i++) {
+                keys[i] = key(skillIds[i], ANY_CELL);
+            }
+            return keys;
+        }
+        long[] keys = new long[(int) cellCount * skillIds.length];
+        int size = 0;
+        for (long latIndex = latFrom; latIndex <= latTo; latIndex++) {
+            for (long lonIndex = lonFrom; lonIndex <= lonTo; lonIndex++) {
+                long cell = GeoHash.fromIndexes(latIndex, lonIndex, PRECISION);
+                for (int skillId : skillIds) {
+                    keys[size++] = key(skillId, cell);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static long key(int skillId, long cell) {
+        return ((long) skillId << 32) | cell;
+    }
+}
@@ -0,0 +1,174 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.TechnicianProfile;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LatLonDocValuesField;
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queries.function.FunctionScoreQuery;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lucene mapping of {@link TechnicianProfile}: the document layout, and the
+ * queries and sorts run against it. Only the Mongo ID is stored; hits are
+ * loaded from Mongo by ID.
+ */
+public final class TechnicianDocuments {
+
+    public static final String ID = "id";
+    public static final String USER_ID = "userId";
+    static final String NAME = "name";
+    static final String BIO = "bio";
+    static final String SKILL_TEXT = "skillText";
+    static final String SKILL = "skill";
+    static final String RATING = "rating";
+    static final String AVAILABLE = "available";
+    static final String POSITION = "position";
+
+    private static final float NAME_BOOST = 2.0f;
+    private static final float SKILL_BOOST = 1.5f;
+    private static final float PHRASE_BOOST = 2.0f;
+    // Best-matching field counts fully, the others only a little
+    private static final float TIE_BREAKER = 0.1f;
+
+    private TechnicianDocuments() {
+    }
+
+    public static Document toDocument(TechnicianProfile profile) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, profile.getId(), Field.Store.YES));
+        if (profile.getUserId() != null) {
+            doc.add(new StringField(USER_ID, profile.getUserId().toString(), Field.Store.NO));
+        }
+        if (profile.getName() != null) {
+            doc.add(new TextField(NAME, profile.getName(), Field.Store.NO));
+        }
+        if (profile.getBio() != null) {
+            doc.add(new TextField(BIO, profile.getBio(), Field.Store.NO));
+        }
+        if (profile.getSkills() != null) {
+            for (String skill : profile.getSkills()) {
+                if (skill != null) {
+                    doc.add(new StringField(SKILL, skill, Field.Store.NO));
+                    doc.add(new TextField(SKILL_TEXT, skill, Field.Store.NO));
+                }
+            }
+        }
+        if (profile.getRating() != null) {
+            doc.add(new DoublePoint(RATING, profile.getRating()));
+            doc.add(new DoubleDocValuesField(RATING, profile.getRating()));
+        }
+        doc.add(new StringField(AVAILABLE, Boolean.TRUE.equals(profile.getIsAvailable()) ? "true" : "false",
+                Field.Store.NO));
+        double[] coordinates = GeoMath.parseLocation(profile.getLocation());
+        if (!Double.isNaN(coordinates[0]) && Math.abs(coordinates[0]) <= 90.0 && Math.abs(coordinates[1]) <= 180.0) {
+            doc.add(new LatLonPoint(POSITION, coordinates[0], coordinates[1]));
+            doc.add(new LatLonDocValuesField(POSITION, coordinates[0], coordinates[1]));
+        }
+        return doc;
+    }
+
+    /**
+     * Available technicians matching {@code text} (any field, BM25) and every
+     * given filter. Text relevance is multiplied by a rating boost of up to
+     * {@code 1 + ratingWeight}; without text all matches score alike.
+     *
+     * @param origin "lat,lng" pair from {@link GeoMath#parseLocation}, or {@code null}
+     */
+    public static Query query(Analyzer analyzer, String text, List<String> skills, Double minRating,
+                              double[] origin, Double maxDistanceKm, double ratingWeight) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(AVAILABLE, "true")), Occur.FILTER);
+
+        List<String> tokens = text != null ? analyze(analyzer, text) : List.of();
+        if (!tokens.isEmpty()) {
+            BooleanQuery.Builder matches = new BooleanQuery.Builder();
+            for (String token : tokens) {
+                matches.add(new DisjunctionMaxQuery(List.of(
+                        new BoostQuery(new TermQuery(new Term(NAME, token)), NAME_BOOST),
+                        new BoostQuery(new TermQuery(new Term(SKILL_TEXT, token)), SKILL_BOOST),
+                        new TermQuery(new Term(BIO, token))), TIE_BREAKER), Occur.SHOULD);
+            }
+            if (tokens.size() > 1) {
+                // Free-text skill phrases like "gas boiler repair" rank above scattered words
+                matches.add(new BoostQuery(new PhraseQuery(SKILL_TEXT, tokens.toArray(new String[0])), PHRASE_BOOST),
+                        Occur.SHOULD);
+            }
+            query.add(matches.build(), Occur.MUST);
+        }
+
+        if (skills != null && !skills.isEmpty()) {
+            List<BytesRef> terms = new ArrayList<>(skills.size());
+            for (String skill : skills) {
+                terms.add(new BytesRef(skill));
+            }
+            query.add(new TermInSetQuery(SKILL, terms), Occur.FILTER);
+        }
+        if (minRating != null) {
+            query.add(DoublePoint.newRangeQuery(RATING, minRating, Double.POSITIVE_INFINITY), Occur.FILTER);
+        }
+        if (origin != null && !Double.isNaN(origin[0]) && maxDistanceKm != null) {
+            query.add(LatLonPoint.newDistanceQuery(POSITION, origin[0], origin[1], maxDistanceKm * 1000), Occur.FILTER);
+        }
+
+        Query filtered = query.build();
+        if (tokens.isEmpty()) {
+            return filtered;
+        }
+        return FunctionScoreQuery.boostByValue(filtered, new RatingBoost(RATING, ratingWeight));
+    }
+
+    /**
+     * "rating" and, with an origin, "distance" sort on the field with relevance
+     * as tie-break; anything else is relevance order.
+     */
+    public static Sort sort(String sortBy, boolean descending, double[] origin) {
+        if ("rating".equals(sortBy)) {
+            SortField rating = new SortField(RATING, SortField.Type.DOUBLE, descending);
+            rating.setMissingValue(descending ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+            return new Sort(rating, SortField.FIELD_SCORE);
+        }
+        if ("distance".equals(sortBy) && origin != null && !Double.isNaN(origin[0])) {
+            return new Sort(LatLonDocValuesField.newDistanceSort(POSITION, origin[0], origin[1]), SortField.FIELD_SCORE);
+        }
+        return Sort.RELEVANCE;
+    }
+
+    static List<String> analyze(Analyzer analyzer, String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,222 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.TechnicianProfile;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Immutable column-oriented view of the technicians considered for matching.
+ * Every attribute the scoring kernel touches lives in a primitive array indexed
+ * by row, so a scan never dereferences a {@link TechnicianProfile} or re-parses
+ * its "lat,lng" location string. Profiles themselves are not retained; callers
+ * load the few they return by user ID.
+ */
+public final class TechnicianSnapshot {
+
+    private final long[] userIds;
+    private final double[] latitudes;   // degrees, NaN when unknown
+    private final double[] longitudes;  // degrees, NaN when unknown
+    private final double[] latRadians;
+    private final double[] cosLatitudes;
+    private final float[] ratings;      // NaN when unrated
+    private final long[] skillBits;     // wordsPerRow words per row
+    private final int[] skillCounts;
+    private final int wordsPerRow;
+    private final GeoGrid grid;
+    private final long builtAt;
+
+    private TechnicianSnapshot(Builder builder) {
+        int size = builder.size;
+        this.userIds = Arrays.copyOf(builder.userIds, size);
+        this.latitudes = Arrays.copyOf(builder.latitudes, size);
+        this.longitudes = Arrays.copyOf(builder.longitudes, size);
+        this.ratings = Arrays.copyOf(builder.ratings, size);
+        this.latRadians = new double[size];
+        this.cosLatitudes = new double[size];
+        for (int row = 0; row < size; row++) {
+            latRadians[row] = Math.toRadians(latitudes[row]);
+            cosLatitudes[row] = Math.cos(latRadians[row]);
+        }
+
+        // Row width is only known once every skill ID has been seen
+        this.wordsPerRow = SkillBits.wordsFor(builder.maxSkillId + 1);
+        this.skillBits = new long[size * wordsPerRow];
+        this.skillCounts = new int[size];
+        for (int row = 0; row < size; row++) {
+            skillCounts[row] = SkillSet.toBits(builder.skillIds[row], skillBits, row * wordsPerRow, wordsPerRow);
+        }
+
+        this.grid = GeoGrid.build(latitudes, longitudes, GeoGrid.DEFAULT_PRECISION);
+        this.builtAt = builder.startedAt;
+    }
+
+    public static TechnicianSnapshot build(List<TechnicianProfile> technicians, SkillDictionary dictionary) {
+        return build(technicians.iterator(), dictionary);
+    }
+
+    /**
+     * Builds a snapshot from a cursor without holding on to the profiles.
+     */
+    public static TechnicianSnapshot build(Iterator<TechnicianProfile> technicians, SkillDictionary dictionary) {
+        Builder builder = new Builder(dictionary);
+        while (technicians.hasNext()) {
+            builder.add(technicians.next());
+        }
+        return builder.build();
+    }
+
+    public static final class Builder {
+
+        private final SkillDictionary dictionary;
+        // Before the first profile is read, so every change committed earlier is in the snapshot
+        private final long startedAt;
+        private long[] userIds = new long[256];
+        private double[] latitudes = new double[256];
+        private double[] longitudes = new double[256];
+        private float[] ratings = new float[256];
+        private int[][] skillIds = new int[256][];
+        private int maxSkillId = -1;
+        private int size;
+
+        public Builder(SkillDictionary dictionary) {
+            this(dictionary, System.currentTimeMillis());
+        }
+
+        /**
+         * @param startedAt what {@link #builtAt()} reports, for snapshots assembled from earlier data
+         */
+        public Builder(SkillDictionary dictionary, long startedAt) {
+            this.dictionary = dictionary;
+            this.startedAt = startedAt;
+        }
+
+        public Builder add(TechnicianProfile technician) {
+            double[] coordinates = GeoMath.parseLocation(technician.getLocation());
+            return add(technician.getUserId() != null ? technician.getUserId() : -1L,
+                    coordinates[0], coordinates[1],
+                    technician.getRating() != null ? technician.getRating().floatValue() : Float.NaN,
+                    technician.getSkillIds() != null
+                            ? technician.getSkillIds()
+                            : SkillSet.of(technician.getSkills(), dictionary));
+        }
+
+        /**
+         * Adds an already parsed row.
+         *
+         * @param rowSkillIds sorted dictionary IDs; not copied
+         */
+        public Builder add(long userId, double latitude, double longitude, float rating, int[] rowSkillIds) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                skillIds = Arrays.copyOf(skillIds, capacity);
+            }
+            userIds[size] = userId;
+            ratings[size] = rating;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            skillIds[size] = rowSkillIds;
+            if (rowSkillIds.length > 0) {
+                maxSkillId = Math.max(maxSkillId, rowSkillIds[rowSkillIds.length - 1]);
+            }
+            size++;
+            return this;
+        }
+
+        public TechnicianSnapshot build() {
+            return new TechnicianSnapshot(this);
+        }
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public long userId(int row) {
+        return userIds[row];
+    }
+
+    public double latitude(int row) {
+        return latitudes[row];
+    }
+
+    public double longitude(int row) {
+        return longitudes[row];
+    }
+
+    public float rating(int row) {
+        return ratings[row];
+    }
+
+    public int skillCount(int row) {
+        return skillCounts[row];
+    }
+
+    /**
+     * Sorted skill IDs of a row, decoded from its bitset.
+     */
+    public int[] skillIds(int row) {
+        int offset = row * wordsPerRow;
+        int count = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            count += Long.bitCount(skillBits[offset + w]);
+        }
+        int[] ids = new int[count];
+        int n = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            for (long word = skillBits[offset + w]; word != 0; word &= word - 1) {
+                ids[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * When loading started; the snapshot reflects every profile change committed before it.
+     */
+    public long builtAt() {
+        return builtAt;
+    }
+
+    public GeoGrid grid() {
+        return grid;
+    }
+
+    // Raw columns for the scoring kernel; callers must not modify them
+    long[] skillBits() {
+        return skillBits;
+    }
+
+    int[] skillCounts() {
+        return skillCounts;
+    }
+
+    float[] ratings() {
+        return ratings;
+    }
+
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] latRadians() {
+        return latRadians;
+    }
+
+    double[] cosLatitudes() {
+        return cosLatitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+}
@@ -0,0 +1,91 @@
+package com.supwork.search.index;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Precomputed best matches for one gig or technician, best first, packed into
+ * primitive arrays: the matched user or gig IDs with their score, distance
+ * and skill overlap. Scores and distances stay doubles so a precomputed
+ * answer reports exactly what the live path would. Also remembers the origin
+ * it was computed around, so a later move can find the entries the old
+ * position affected.
+ */
+public final class TopMatches {
+
+    private final long[] ids;
+    private final double[] scores;
+    private final double[] distances;
+    private final short[] overlaps;
+    private final double latitude;
+    private final double longitude;
+    private final long computedAt;
+    private final boolean complete;
+
+    private TopMatches(int size, double latitude, double longitude, long computedAt, boolean complete) {
+        this.ids = new long[size];
+        this.scores = new double[size];
+        this.distances = new double[size];
+        this.overlaps = new short[size];
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.computedAt = computedAt;
+        this.complete = complete;
+    }
+
+    /**
+     * @param idOf maps a hit row to the ID stored for it
+     * @param limit the most hits the search was allowed to return
+     */
+    public static TopMatches of(MatchHits hits, IntToLongFunction idOf, double latitude, double longitude,
+                                int limit) {
+        TopMatches top = new TopMatches(hits.size(), latitude, longitude, System.currentTimeMillis(),
+                hits.size() < limit);
+        for (int i = 0; i < hits.size(); i++) {
+            top.ids[i] = idOf.applyAsLong(hits.row(i));
+            top.scores[i] = hits.score(i);
+            top.distances[i] = hits.distanceKm(i);
+            top.overlaps[i] = (short) Math.min(hits.overlap(i), Short.MAX_VALUE);
+        }
+        return top;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int i) {
+        return ids[i];
+    }
+
+    public double score(int i) {
+        return scores[i];
+    }
+
+    public double distanceKm(int i) {
+        return distances[i];
+    }
+
+    public int overlap(int i) {
+        return overlaps[i];
+    }
+
+    public double latitude() {
+        return latitude;
+    }
+
+    public double longitude() {
+        return longitude;
+    }
+
+    public long computedAt() {
+        return computedAt;
+    }
+
+    /**
+     * Whether the search found fewer matches than it was allowed to keep, so
+     * nothing past the last entry exists.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
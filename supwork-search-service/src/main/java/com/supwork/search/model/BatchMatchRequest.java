@@ -0,0 +1,38 @@
+package com.supwork.search.model;
+
+import com.supwork.search.service.MatchService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMatchRequest {
+    
+    public static final int MAX_GIGS = 1000;
+    
+    @NotEmpty
+    @Size(max = MAX_GIGS)
+    private List<Long> gigIds;
+    
+    @Positive
+    @Max(MatchService.MAX_RADIUS_KM)
+    @Builder.Default
+    private double radiusKm = 10;
+    
+    @Min(1)
+    @Max(MatchService.MAX_LIMIT)
+    @Builder.Default
+    private int limit = 5;
+    
+}
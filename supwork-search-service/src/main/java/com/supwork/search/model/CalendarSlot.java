@@ -0,0 +1,29 @@
+package com.supwork.search.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One busy interval {@code [start, end)} in a technician's calendar: either
+ * reserved for a gig or blocked by the technician.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarSlot {
+    
+    @NotNull
+    private Instant start;
+    
+    @NotNull
+    private Instant end;
+    
+    private Long gigId; // null for time the technician blocked themselves
+    
+}
@@ -0,0 +1,23 @@
+package com.supwork.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchResult {
+    
+    private int gigs; // Open gigs considered
+    private int candidates; // Gig-technician pairs scored
+    private List<GigAssignment> assignments;
+    private boolean applied; // False for a dry run or when gig-service refused the batch
+    private int appliedCount; // Assignments gig-service accepted; gigs taken meanwhile are skipped
+    private long durationMs;
+    
+}
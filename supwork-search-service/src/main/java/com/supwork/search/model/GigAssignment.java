@@ -0,0 +1,19 @@
+package com.supwork.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GigAssignment {
+    
+    private Long gigId;
+    private Long technicianId;
+    private Double score; // Dispatch score: skill similarity discounted by distance
+    private Double distanceKm;
+    
+}
@@ -1,10 +1,12 @@
 package com.supwork.search.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -13,6 +15,10 @@ import java.util.List;
 @AllArgsConstructor
 public class GigSearchDTO {
     
+    // Status of the placeholder gig returned by the gig-service fallbacks
+    public static final String STATUS_UNAVAILABLE = "UNAVAILABLE";
+    
+    private Long id;
     private String title;
     private List<String> skills;
     private String location; // Format: "lat,lng"
@@ -20,6 +26,8 @@ public class GigSearchDTO {
     private String description;
     private String status;
     private Long clientId;
+    private LocalDateTime scheduledStart; // Optional time window (UTC)
+    private LocalDateTime scheduledEnd;
     
     // Helper methods for location
     public Double getLatitude() {
@@ -39,4 +47,9 @@ public class GigSearchDTO {
     public void setLocation(Double latitude, Double longitude) {
         this.location = latitude + "," + longitude;
     }
+    
+    @JsonIgnore
+    public boolean isPlaceholder() {
+        return STATUS_UNAVAILABLE.equals(status);
+    }
 }
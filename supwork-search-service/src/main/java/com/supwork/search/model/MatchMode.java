@@ -0,0 +1,13 @@
+package com.supwork.search.model;
+
+/**
+ * Where gig-to-technician matching is computed.
+ */
+public enum MatchMode {
+
+    /** Score the in-memory technician snapshot inside search-service. */
+    JVM,
+
+    /** Run one aggregation pipeline in MongoDB and return only the top results. */
+    AGGREGATION
+}
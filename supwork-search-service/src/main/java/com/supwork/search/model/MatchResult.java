@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 public class MatchResult {
     
     private TechnicianProfile technician;
+    private GigSearchDTO gig; // Set for technician-to-gig matches
     private Double similarityScore;
     private Double distanceKm;
     private Double rating;
@@ -0,0 +1,35 @@
+package com.supwork.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of a reindex job, saved after every completed page so an
+ * interrupted run resumes after {@code lastId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "reindex_checkpoints")
+public class ReindexCheckpoint {
+    
+    public enum Status { RUNNING, COMPLETED, FAILED }
+    
+    @Id
+    private String id; // Collection being reindexed
+    
+    private String lastId; // Every document up to and including this _id is done
+    private long processed;
+    private long modified;
+    private Status status;
+    private Instant startedAt;
+    private Instant updatedAt;
+    
+}
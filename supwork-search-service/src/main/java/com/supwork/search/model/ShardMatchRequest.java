@@ -0,0 +1,36 @@
+package com.supwork.search.model;
+
+import com.supwork.search.service.MatchService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One shard's part of a scatter-gather match: the gig as the coordinator
+ * resolved it, and the keyset position to rank after when paging.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMatchRequest {
+    
+    @NotNull
+    private GigSearchDTO gig;
+    
+    @Positive
+    private double radiusKm;
+    
+    @Min(1)
+    @Max(MatchService.MAX_LIMIT + 1) // One more than the page limit, to tell whether another page follows
+    private int limit;
+    
+    private Double afterScore;
+    private Long afterUserId;
+    
+}
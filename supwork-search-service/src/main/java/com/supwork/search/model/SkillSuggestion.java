@@ -0,0 +1,17 @@
+package com.supwork.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillSuggestion {
+    
+    private String skill;
+    private Long usage; // Technicians listing the skill plus open gigs requiring it
+    
+}
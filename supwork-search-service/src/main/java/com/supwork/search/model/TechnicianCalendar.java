@@ -0,0 +1,31 @@
+package com.supwork.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Busy time of one technician. Slots never overlap: they are only added by
+ * a conditional update that fails if the new slot would overlap one already
+ * stored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "technician_calendars")
+public class TechnicianCalendar {
+    
+    @Id
+    private Long userId;
+    
+    @Builder.Default
+    private List<CalendarSlot> slots = new ArrayList<>();
+    
+}
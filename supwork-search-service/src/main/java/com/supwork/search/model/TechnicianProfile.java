@@ -1,10 +1,15 @@
 package com.supwork.search.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -26,8 +31,18 @@ public class TechnicianProfile {
     @Indexed
     private List<String> skills;
     
+    // Sorted interned skill IDs, filled when the document is loaded
+    @Transient
+    @JsonIgnore
+    private int[] skillIds;
+    
     private String location; // Format: "lat,lng"
     
+    // GeoJSON copy of location for $nearSphere/$geoWithin queries
+    @JsonIgnore
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint position;
+    
     @Indexed
     private Double rating;
     
@@ -54,5 +69,25 @@ public class TechnicianProfile {
     
     public void setLocation(Double latitude, Double longitude) {
         this.location = latitude + "," + longitude;
+        this.position = new GeoJsonPoint(longitude, latitude);
+    }
+    
+    // GeoJSON points are (lng, lat); returns null for missing, malformed or out-of-range locations,
+    // and for 0,0, which is what clients send when they have no fix
+    public static GeoJsonPoint toPosition(String location) {
+        if (location != null && location.contains(",")) {
+            String[] coords = location.split(",");
+            try {
+                double lat = Double.parseDouble(coords[0].trim());
+                double lng = Double.parseDouble(coords[1].trim());
+                if (Math.abs(lat) > 90.0 || Math.abs(lng) > 180.0 || (lat == 0.0 && lng == 0.0)) {
+                    return null;
+                }
+                return new GeoJsonPoint(lng, lat);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,21 @@
+package com.supwork.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TechnicianSlice {
+    
+    private List<TechnicianProfile> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // Pass back as cursor to get the next slice; null on the last one
+    
+}
@@ -0,0 +1,26 @@
+package com.supwork.search.repository;
+
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.SkillSet;
+import com.supwork.search.model.TechnicianProfile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interns skills to integer IDs as technician profiles are read from Mongo,
+ * so matching never compares skill strings.
+ */
+@Component
+@RequiredArgsConstructor
+public class SkillInterningListener extends AbstractMongoEventListener<TechnicianProfile> {
+
+    private final SkillDictionary skillDictionary;
+
+    @Override
+    public void onAfterConvert(AfterConvertEvent<TechnicianProfile> event) {
+        TechnicianProfile profile = event.getSource();
+        profile.setSkillIds(SkillSet.of(profile.getSkills(), skillDictionary));
+    }
+}
@@ -0,0 +1,38 @@
+package com.supwork.search.repository;
+
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.model.TechnicianProfile;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a {@link TechnicianChangedEvent} for every technician profile
+ * written through this service.
+ */
+@Component
+@RequiredArgsConstructor
+public class TechnicianChangeListener extends AbstractMongoEventListener<TechnicianProfile> {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<TechnicianProfile> event) {
+        if (event.getSource().getUserId() != null) {
+            eventPublisher.publishEvent(new TechnicianChangedEvent(event.getSource().getUserId()));
+        }
+    }
+
+    // Only the delete filter is available here; deletes by userId still carry it
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<TechnicianProfile> event) {
+        Document filter = event.getSource();
+        if (filter.get("userId") instanceof Number userId) {
+            eventPublisher.publishEvent(new TechnicianChangedEvent(userId.longValue()));
+        }
+    }
+}
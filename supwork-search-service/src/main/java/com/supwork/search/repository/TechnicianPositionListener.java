@@ -0,0 +1,20 @@
+package com.supwork.search.repository;
+
+import com.supwork.search.model.TechnicianProfile;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives {@code position} from {@code location} on every save, so the
+ * 2dsphere index never disagrees with the location it was built from.
+ */
+@Component
+public class TechnicianPositionListener extends AbstractMongoEventListener<TechnicianProfile> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<TechnicianProfile> event) {
+        TechnicianProfile profile = event.getSource();
+        profile.setPosition(TechnicianProfile.toPosition(profile.getLocation()));
+    }
+}
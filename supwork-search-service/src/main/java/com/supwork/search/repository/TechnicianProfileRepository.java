@@ -5,10 +5,12 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TechnicianProfileRepository extends MongoRepository<TechnicianProfile, String> {
+public interface TechnicianProfileRepository extends MongoRepository<TechnicianProfile, String>,
+        TechnicianProfileRepositoryCustom {
     
     @Query("{ 'skills': { $in: ?0 }, 'isAvailable': true }")
     List<TechnicianProfile> findBySkillsInAndAvailable(List<String> skills);
@@ -22,4 +24,6 @@ public interface TechnicianProfileRepository extends MongoRepository<TechnicianP
     List<TechnicianProfile> findByIsAvailableTrue();
     
     TechnicianProfile findByUserId(Long userId);
+    
+    List<TechnicianProfile> findByUserIdIn(Collection<Long> userIds);
 }
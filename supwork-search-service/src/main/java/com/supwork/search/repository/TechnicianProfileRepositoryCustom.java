@@ -0,0 +1,20 @@
+package com.supwork.search.repository;
+
+import com.supwork.search.model.TechnicianProfile;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+public interface TechnicianProfileRepositoryCustom {
+    
+    /**
+     * Streams technicians with only the fields scoring needs
+     * (userId, skills, location, rating), filtering availability, rating and
+     * skill overlap in Mongo. The stream holds a server cursor and must be closed.
+     *
+     * @param availableOnly only technicians whose stored {@code isAvailable} is set
+     * @param minRating     minimum rating, or null for any
+     * @param skills        at least one of these skills, or null/empty for any
+     */
+    Stream<TechnicianProfile> streamMatchCandidates(boolean availableOnly, Double minRating, Collection<String> skills);
+}
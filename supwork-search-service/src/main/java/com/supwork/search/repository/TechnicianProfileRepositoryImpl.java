@@ -0,0 +1,42 @@
+package com.supwork.search.repository;
+
+import com.supwork.search.model.TechnicianProfile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class TechnicianProfileRepositoryImpl implements TechnicianProfileRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Value("${search.match.cursor-batch-size:1000}")
+    private int cursorBatchSize;
+    
+    @Override
+    public Stream<TechnicianProfile> streamMatchCandidates(boolean availableOnly, Double minRating,
+                                                           Collection<String> skills) {
+        Query query = new Query();
+        if (availableOnly) {
+            query.addCriteria(Criteria.where("isAvailable").is(true));
+        }
+        if (minRating != null) {
+            query.addCriteria(Criteria.where("rating").gte(minRating));
+        }
+        if (skills != null && !skills.isEmpty()) {
+            query.addCriteria(Criteria.where("skills").in(skills));
+        }
+        query.fields().include("userId", "skills", "location", "rating");
+        // Snapshot rows follow user ID order, which ranked-match paging relies on for ties
+        query.with(Sort.by("userId"));
+        query.cursorBatchSize(cursorBatchSize);
+        
+        return mongoTemplate.stream(query, TechnicianProfile.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.supwork.search.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Short-lived JWTs for calls this service makes on its own behalf: shard
+ * matches between instances, and gig-service calls from background jobs that
+ * have no caller whose token could be forwarded. Signed with the shared
+ * {@code jwt.secret} under the SERVICE role, and re-minted once half their
+ * lifetime is gone, so a token handed out never expires mid-call.
+ */
+@Component
+public class ServiceTokenProvider {
+
+    public static final String ROLE = "SERVICE";
+    private static final String SUBJECT = "search-service";
+
+    private final SecretKey key;
+    private final long ttlMs;
+
+    private volatile String token;
+    private volatile long renewAt;
+
+    public ServiceTokenProvider(@Value("${jwt.secret}") String secret,
+                                @Value("${search.service-token.ttl:5m}") Duration ttl) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.ttlMs = ttl.toMillis();
+    }
+
+    /**
+     * @return an {@code Authorization} header value
+     */
+    public String authorization() {
+        long now = System.currentTimeMillis();
+        if (token == null || now >= renewAt) {
+            synchronized (this) {
+                if (token == null || now >= renewAt) {
+                    token = Jwts.builder()
+                            .setSubject(SUBJECT)
+                            .claim("role", ROLE)
+                            .setIssuedAt(new Date(now))
+                            .setExpiration(new Date(now + ttlMs))
+                            .signWith(key, SignatureAlgorithm.HS256)
+                            .compact();
+                    renewAt = now + ttlMs / 2;
+                }
+            }
+        }
+        return "Bearer " + token;
+    }
+}
@@ -0,0 +1,92 @@
+package com.supwork.search.service;
+
+import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.TechnicianProfile;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Gig-to-technician matching computed entirely inside MongoDB. One pipeline
+ * does the radius search, skill overlap, similarity score, sort and limit,
+ * so only the top results cross the wire.
+ */
+@Service
+@RequiredArgsConstructor
+public class AggregationMatchService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * @param gigSkills distinct gig skills
+     */
+    public List<MatchResult> findMatches(double latitude, double longitude, Collection<String> gigSkills,
+                                         double minRating, double radiusKm, int limit) {
+        if (gigSkills.isEmpty() || Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return List.of();
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(buildPipeline(
+                latitude, longitude, new ArrayList<>(gigSkills), minRating, radiusKm, limit));
+        String collection = mongoTemplate.getCollectionName(TechnicianProfile.class);
+
+        List<MatchResult> matches = new ArrayList<>(limit);
+        for (Document document : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+            TechnicianProfile technician = mongoTemplate.getConverter().read(TechnicianProfile.class, document);
+            matches.add(MatchResult.builder()
+                    .technician(technician)
+                    .similarityScore(document.get("score", Number.class).doubleValue())
+                    .distanceKm(document.get("distanceMeters", Number.class).doubleValue() / 1000.0)
+                    .rating(technician.getRating())
+                    .skillsMatchCount(document.get("skillsMatchCount", Number.class).intValue())
+                    .build());
+        }
+        return matches;
+    }
+
+    static List<AggregationOperation> buildPipeline(
+            double latitude, double longitude, List<String> gigSkills,
+            double minRating, double radiusKm, int limit) {
+
+        // $geoNear must come first; it uses the 2dsphere index on position and
+        // applies the remaining filters before documents leave the index scan
+        Document geoNear = new Document("$geoNear", new Document()
+                .append("near", new Document("type", "Point").append("coordinates", List.of(longitude, latitude)))
+                .append("key", "position")
+                .append("distanceField", "distanceMeters")
+                .append("maxDistance", radiusKm * 1000.0)
+                .append("spherical", true)
+                .append("query", new Document()
+                        .append("isAvailable", true)
+                        .append("rating", new Document("$gte", minRating))
+                        .append("skills", new Document("$in", gigSkills))));
+
+        Document overlap = new Document("$addFields", new Document()
+                .append("skillsMatchCount", new Document("$size",
+                        new Document("$setIntersection", List.of("$skills", gigSkills))))
+                // $setUnion with an empty array drops duplicate skills
+                .append("distinctSkillCount", new Document("$size",
+                        new Document("$setUnion", List.of("$skills", List.of())))));
+
+        // Cosine similarity of the two binary skill vectors
+        Document score = new Document("$addFields", new Document("score", new Document("$divide", List.of(
+                "$skillsMatchCount",
+                new Document("$sqrt", new Document("$multiply",
+                        List.of("$distinctSkillCount", gigSkills.size())))))));
+
+        return List.of(
+                Aggregation.stage(geoNear),
+                Aggregation.stage(overlap),
+                Aggregation.stage(score),
+                Aggregation.stage(new Document("$sort", new Document("score", -1).append("userId", 1))),
+                Aggregation.limit(limit),
+                Aggregation.stage(new Document("$project", new Document("position", 0).append("distinctSkillCount", 0))));
+    }
+}
@@ -0,0 +1,380 @@
+package com.supwork.search.service;
+
+import com.supwork.search.client.GigClient;
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.index.DispatchSolver;
+import com.supwork.search.index.GigSearchIndex;
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.MatchHits;
+import com.supwork.search.index.MatchKernel;
+import com.supwork.search.index.MatchQuery;
+import com.supwork.search.index.SkillBits;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.model.CalendarSlot;
+import com.supwork.search.model.DispatchResult;
+import com.supwork.search.model.GigAssignment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Optional push-based assignment of open gigs. A run scores every open gig
+ * in the region against the technician snapshot, keeping each gig's best
+ * candidates as a sparse score matrix, solves it with
+ * {@link DispatchSolver#greedy} and sends the result to gig-service as one
+ * batch. Gig-service skips gigs that were taken in the meantime, and the
+ * ones it assigned leave the open-gig replica straight away. A technician's
+ * capacity is reduced by the gigs they already hold.
+ * <p>
+ * Gigs with a time window only get candidates that are free for it, and
+ * their slot is reserved in the technician's calendar before the batch is
+ * sent; a gig whose reservation loses a race is left for the next run.
+ * <p>
+ * Rounds that apply their result hold a lease in Redis, so only one instance
+ * dispatches at a time. The lease is renewed before the batch is sent, and a
+ * round that lost it meanwhile sends nothing.
+ */
+@Service
+@Slf4j
+public class DispatchService {
+
+    static final String LOCK_KEY = "search:dispatch:lock";
+
+    // Only the holder may renew or release; an expired lease may already belong to another instance
+    private static final byte[] RENEW_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0""".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0""".getBytes(StandardCharsets.UTF_8);
+
+    private final OpenGigIndex openGigIndex;
+    private final TechnicianSnapshotService technicianSnapshotService;
+    private final PresenceService presenceService;
+    private final TechnicianCalendarService technicianCalendarService;
+    private final ForkJoinPool matchScoringPool;
+    private final GigClient gigClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double radiusKm;
+    private final int candidatesPerGig;
+    private final int technicianCapacity;
+    private final double distanceWeight;
+    private final long lockLeaseMs;
+
+    private final Counter proposed;
+    private final Counter applied;
+
+    public DispatchService(OpenGigIndex openGigIndex, TechnicianSnapshotService technicianSnapshotService,
+                           PresenceService presenceService, TechnicianCalendarService technicianCalendarService,
+                           ForkJoinPool matchScoringPool, GigClient gigClient,
+                           ApplicationEventPublisher eventPublisher,
+                           RedisTemplate<String, byte[]> cacheRedisTemplate, MeterRegistry meterRegistry,
+                           @Value("${search.dispatch.enabled:false}") boolean enabled,
+                           @Value("${search.dispatch.radius-km:10}") double radiusKm,
+                           @Value("${search.dispatch.candidates-per-gig:20}") int candidatesPerGig,
+                           @Value("${search.dispatch.technician-capacity:1}") int technicianCapacity,
+                           @Value("${search.dispatch.distance-weight:0.5}") double distanceWeight,
+                           @Value("${search.dispatch.lock-lease:5m}") Duration lockLease) {
+        this.openGigIndex = openGigIndex;
+        this.technicianSnapshotService = technicianSnapshotService;
+        this.presenceService = presenceService;
+        this.technicianCalendarService = technicianCalendarService;
+        this.matchScoringPool = matchScoringPool;
+        this.gigClient = gigClient;
+        this.eventPublisher = eventPublisher;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.radiusKm = radiusKm;
+        this.candidatesPerGig = candidatesPerGig;
+        this.technicianCapacity = technicianCapacity;
+        this.distanceWeight = distanceWeight;
+        this.lockLeaseMs = lockLease.toMillis();
+        this.proposed = meterRegistry.counter("search.dispatch.assignments", "result", "proposed");
+        this.applied = meterRegistry.counter("search.dispatch.assignments", "result", "applied");
+    }
+
+    @Scheduled(fixedDelayString = "${search.dispatch.interval:60000}")
+    public void scheduledRun() {
+        if (enabled && openGigIndex.isBootstrapped()) {
+            dispatch(null, 0, true);
+        }
+    }
+
+    /**
+     * Runs one dispatch round. Applying rounds never overlap, on this
+     * instance or any other, so two rounds cannot hand out the same
+     * technician's capacity twice. While another instance holds the lease an
+     * applying round returns without assignments.
+     *
+     * @param center   "lat,lng" of the region, or {@code null} for every open gig
+     * @param regionKm radius of the region around {@code center}
+     * @param apply    {@code false} for a dry run that only proposes
+     */
+    public synchronized DispatchResult dispatch(double[] center, double regionKm, boolean apply) {
+        if (!apply) {
+            return round(center, regionKm, null);
+        }
+        byte[] lease = acquireLease();
+        if (lease == null) {
+            log.info("Another instance is dispatching; skipping this round");
+            return DispatchResult.builder().assignments(List.of()).build();
+        }
+        try {
+            return round(center, regionKm, lease);
+        } finally {
+            releaseLease(lease);
+        }
+    }
+
+    // Applies its result only while holding the lease, when one is given
+    private DispatchResult round(double[] center, double regionKm, byte[] lease) {
+        boolean apply = lease != null;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.currentTimeMillis();
+
+        TechnicianSnapshot snapshot = technicianSnapshotService.current();
+        GigSearchIndex gigIndex = openGigIndex.searchIndex();
+        int[] gigRows = center != null
+                ? gigIndex.near(center[0], center[1], regionKm)
+                : IntStream.range(0, gigIndex.size()).toArray();
+        if (snapshot == null || gigRows.length == 0) {
+            return DispatchResult.builder().gigs(gigRows.length).assignments(List.of()).build();
+        }
+
+        // Candidates per gig, scored in parallel; each gig keeps only its best few
+        MatchHits[] hits = new MatchHits[gigRows.length];
+        matchScoringPool.submit(() -> IntStream.range(0, gigRows.length).parallel().forEach(i -> {
+            IndexedGig gig = gigIndex.gig(gigRows[i]);
+            hits[i] = gig.id() != null && gig.skillIds().length > 0
+                    ? MatchKernel.topK(snapshot, candidateQuery(snapshot, gig))
+                    : new MatchHits(0).finish();
+        })).join();
+
+        int edgeCount = 0;
+        for (MatchHits gigHits : hits) {
+            edgeCount += gigHits.size();
+        }
+        int[] edgeGigs = new int[edgeCount];
+        int[] edgeTechs = new int[edgeCount];
+        float[] edgeScores = new float[edgeCount];
+        int e = 0;
+        for (int i = 0; i < hits.length; i++) {
+            for (int h = 0; h < hits[i].size(); h++) {
+                edgeGigs[e] = i;
+                edgeTechs[e] = hits[i].row(h);
+                edgeScores[e] = (float) dispatchScore(hits[i].score(h), hits[i].distanceKm(h));
+                e++;
+            }
+        }
+        // Capacity is per technician, not per round: gigs they already hold count against it
+        Map<Long, Long> held = assignedCounts();
+        if (held == null) {
+            if (apply) {
+                log.warn("gig-service did not report assigned gigs; skipping this dispatch round");
+                return DispatchResult.builder().gigs(gigRows.length).assignments(List.of()).build();
+            }
+            held = Map.of();
+        }
+        int[] capacities = new int[snapshot.size()];
+        Arrays.fill(capacities, technicianCapacity);
+        for (int row = 0; row < capacities.length && !held.isEmpty(); row++) {
+            Long count = held.get(snapshot.userId(row));
+            if (count != null) {
+                capacities[row] = (int) Math.max(0, technicianCapacity - count);
+            }
+        }
+        int[] assigned = DispatchSolver.greedy(gigRows.length, capacities, edgeGigs, edgeTechs, edgeScores, edgeCount);
+
+        List<GigAssignment> assignments = new ArrayList<>();
+        Map<Long, IndexedGig> windowed = new HashMap<>();
+        for (int i = 0; i < assigned.length; i++) {
+            if (assigned[i] < 0) {
+                continue;
+            }
+            IndexedGig gig = gigIndex.gig(gigRows[i]);
+            if (gig.hasWindow()) {
+                windowed.put(gig.id(), gig);
+            }
+            for (int h = 0; h < hits[i].size(); h++) {
+                if (hits[i].row(h) == assigned[i]) {
+                    assignments.add(GigAssignment.builder()
+                            .gigId(gig.id())
+                            .technicianId(snapshot.userId(assigned[i]))
+                            .score(dispatchScore(hits[i].score(h), hits[i].distanceKm(h)))
+                            .distanceKm(hits[i].distanceKm(h))
+                            .build());
+                    break;
+                }
+            }
+        }
+        proposed.increment(assignments.size());
+
+        DispatchResult.DispatchResultBuilder result = DispatchResult.builder()
+                .gigs(gigRows.length)
+                .candidates(edgeCount)
+                .assignments(assignments);
+        if (apply && !assignments.isEmpty()) {
+            if (renewLease(lease)) {
+                apply(assignments, windowed, result);
+            } else {
+                log.warn("Dispatch lease expired while scoring; discarding {} assignments", assignments.size());
+            }
+        }
+        sample.stop(meterRegistry.timer("search.dispatch.duration", "apply", String.valueOf(apply)));
+        DispatchResult done = result.durationMs(System.currentTimeMillis() - start).build();
+        log.info("Dispatch over {} gigs and {} candidates proposed {} assignments, applied {}",
+                done.getGigs(), done.getCandidates(), assignments.size(), done.getAppliedCount());
+        return done;
+    }
+
+    private void apply(List<GigAssignment> assignments, Map<Long, IndexedGig> windowed,
+                       DispatchResult.DispatchResultBuilder result) {
+        // Windowed gigs hold their slot first; one taken since scoring is not sent
+        List<GigAssignment> reserved = new ArrayList<>(assignments.size());
+        for (GigAssignment assignment : assignments) {
+            IndexedGig gig = windowed.get(assignment.getGigId());
+            if (gig == null || technicianCalendarService.reserve(assignment.getTechnicianId(), slot(gig))) {
+                reserved.add(assignment);
+            }
+        }
+        if (reserved.isEmpty()) {
+            return;
+        }
+
+        List<Long> assignedGigIds;
+        try {
+            assignedGigIds = gigClient.assignGigs(reserved);
+        } catch (RuntimeException e) {
+            log.warn("gig-service rejected {} dispatch assignments: {}", reserved.size(), e.getMessage());
+            assignedGigIds = List.of();
+        }
+        Set<Long> accepted = new HashSet<>(assignedGigIds);
+        for (GigAssignment assignment : reserved) {
+            if (!accepted.contains(assignment.getGigId()) && windowed.containsKey(assignment.getGigId())) {
+                technicianCalendarService.release(assignment.getTechnicianId(), assignment.getGigId());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        // Assigned gigs are no longer open; drop them without asking gig-service again
+        for (Long gigId : accepted) {
+            eventPublisher.publishEvent(new GigChangedEvent(gigId, null, true));
+        }
+        applied.increment(accepted.size());
+        result.applied(true).appliedCount(accepted.size());
+    }
+
+    // Null when the lease is held elsewhere or Redis cannot be reached; both skip the round
+    private byte[] acquireLease() {
+        byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            Boolean acquired = cacheRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.stringCommands().set(bytes(LOCK_KEY), token,
+                            Expiration.milliseconds(lockLeaseMs), SetOption.ifAbsent()));
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.warn("Could not take the dispatch lease: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean renewLease(byte[] token) {
+        try {
+            Long renewed = cacheRedisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(RENEW_SCRIPT, ReturnType.INTEGER, 1,
+                            bytes(LOCK_KEY), token, bytes(String.valueOf(lockLeaseMs))));
+            return renewed != null && renewed > 0;
+        } catch (RuntimeException e) {
+            log.warn("Could not renew the dispatch lease: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // A lease that cannot be released expires on its own
+    private void releaseLease(byte[] token) {
+        try {
+            cacheRedisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1,
+                            bytes(LOCK_KEY), token));
+        } catch (RuntimeException e) {
+            log.warn("Could not release the dispatch lease: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Map<Long, Long> assignedCounts() {
+        try {
+            return gigClient.getAssignedCounts();
+        } catch (RuntimeException e) {
+            log.warn("Could not fetch assigned gig counts: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static CalendarSlot slot(IndexedGig gig) {
+        return CalendarSlot.builder()
+                .start(Instant.ofEpochMilli(gig.windowStart()))
+                .end(Instant.ofEpochMilli(gig.windowEnd()))
+                .gigId(gig.id())
+                .build();
+    }
+
+    private MatchQuery candidateQuery(TechnicianSnapshot snapshot, IndexedGig gig) {
+        MatchQuery.MatchQueryBuilder query = MatchQuery.builder()
+                .latitude(gig.latitude())
+                .longitude(gig.longitude())
+                .skillBits(SkillBits.encode(gig.skillIds(), snapshot.wordsPerRow()))
+                .skillCount(gig.skillCount())
+                .minRating(technicianSnapshotService.minRating())
+                .radiusKm(radiusKm)
+                .limit(candidatesPerGig)
+                .presence(presenceService.mask(snapshot));
+        if (gig.hasWindow()) {
+            long start = gig.windowStart();
+            long end = gig.windowEnd();
+            query.rowFilter(row -> technicianCalendarService.isFree(snapshot.userId(row), start, end));
+        }
+        return query.build();
+    }
+
+    // Skill similarity, discounted linearly by up to distanceWeight at the edge of the radius
+    private double dispatchScore(double similarity, double distanceKm) {
+        return similarity * Math.max(0.0, 1.0 - distanceWeight * distanceKm / radiusKm);
+    }
+}
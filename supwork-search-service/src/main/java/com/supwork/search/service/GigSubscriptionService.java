@@ -0,0 +1,331 @@
+package com.supwork.search.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.index.GeoMath;
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.SkillSet;
+import com.supwork.search.index.StandingQuery;
+import com.supwork.search.index.SubscriptionIndex;
+import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.repository.TechnicianProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes newly opened gigs to connected technicians over Server-Sent Events,
+ * so clients no longer poll for new work. Each connection registers a
+ * {@link StandingQuery} in a {@link SubscriptionIndex}; a new gig is matched
+ * against the queries posted under its skills and cell only.
+ * <p>
+ * Every connection has a bounded queue drained by at most one sender at a
+ * time. When its queue is full the oldest pending event is dropped. Sends are
+ * blocking servlet writes, so a client that stops reading pins its sender
+ * thread: the pool grows up to a bound instead of making other connections
+ * wait, and a send blocked longer than the send timeout closes the
+ * connection and interrupts its sender.
+ */
+@Service
+@Slf4j
+public class GigSubscriptionService {
+
+    private final TechnicianProfileRepository technicianProfileRepository;
+    private final OpenGigIndex openGigIndex;
+    private final SkillDictionary skillDictionary;
+    private final ThreadPoolTaskExecutor subscriptionExecutor;
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final long sendTimeoutMs;
+
+    private final SubscriptionIndex index = new SubscriptionIndex();
+    private final Map<StandingQuery, Connection> byQuery = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Connection>> byTechnician = new ConcurrentHashMap<>();
+    // Gigs already pushed, so later updates of the same gig are not announced again
+    private final Cache<Long, Boolean> pushedGigs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(1))
+            .maximumSize(1_000_000)
+            .build();
+
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter stalled;
+
+    public GigSubscriptionService(TechnicianProfileRepository technicianProfileRepository, OpenGigIndex openGigIndex,
+                                  SkillDictionary skillDictionary, ThreadPoolTaskExecutor subscriptionExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${search.subscriptions.timeout:1800000}") long timeoutMs,
+                                  @Value("${search.subscriptions.queue-capacity:64}") int queueCapacity,
+                                  @Value("${search.subscriptions.send-timeout:5000}") long sendTimeoutMs) {
+        this.technicianProfileRepository = technicianProfileRepository;
+        this.openGigIndex = openGigIndex;
+        this.skillDictionary = skillDictionary;
+        this.subscriptionExecutor = subscriptionExecutor;
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.sent = meterRegistry.counter("search.subscriptions.events", "result", "sent");
+        this.dropped = meterRegistry.counter("search.subscriptions.events", "result", "dropped");
+        this.stalled = meterRegistry.counter("search.subscriptions.stalled");
+        meterRegistry.gauge("search.subscriptions.connections", byTechnician,
+                connections -> connections.values().stream().mapToInt(Set::size).sum());
+        meterRegistry.gauge("search.subscriptions.postings", index, SubscriptionIndex::postingCount);
+    }
+
+    /**
+     * Opens a stream of new gigs matching the technician's skills within
+     * {@code radiusKm}. The stream follows later changes to the profile.
+     *
+     * @return the stream, or {@code null} if the technician does not exist
+     */
+    public SseEmitter subscribe(Long technicianId, double radiusKm) {
+        TechnicianProfile technician = technicianProfileRepository.findByUserId(technicianId);
+        if (technician == null) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(technicianId, radiusKm, emitter);
+        emitter.onCompletion(() -> close(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(error -> close(connection));
+
+        byTechnician.computeIfAbsent(technicianId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        register(connection, technician);
+        log.debug("Technician {} subscribed within {} km", technicianId, radiusKm);
+        return emitter;
+    }
+
+    // Runs after OpenGigIndex has applied the change
+    @EventListener
+    @Order(2)
+    public void onGigChanged(GigChangedEvent event) {
+        if (event.isRemoved() || byQuery.isEmpty()) {
+            return;
+        }
+        IndexedGig gig = openGigIndex.get(event.getGigId());
+        if (gig == null || pushedGigs.asMap().putIfAbsent(gig.id(), Boolean.TRUE) != null) {
+            return;
+        }
+        for (StandingQuery query : index.match(gig.latitude(), gig.longitude(), gig.skillIds())) {
+            Connection connection = byQuery.get(query);
+            if (connection == null) {
+                continue; // Replaced or closed since the lookup
+            }
+            MatchResult match = MatchResult.builder()
+                    .gig(gig.gig())
+                    .similarityScore(SkillSet.cosine(query.skillIds(), gig.skillIds()))
+                    .distanceKm(GeoMath.haversineKm(query.latitude(), query.longitude(), gig.latitude(), gig.longitude()))
+                    .skillsMatchCount(SkillSet.overlap(query.skillIds(), gig.skillIds()))
+                    .build();
+            enqueue(connection, SseEmitter.event().name("gig").id(String.valueOf(gig.id())).data(match));
+        }
+    }
+
+    // A moved or reskilled technician is re-posted under their new cells and skills
+    @EventListener
+    public void onTechnicianChanged(TechnicianChangedEvent event) {
+        Set<Connection> connections = byTechnician.get(event.getUserId());
+        if (connections == null || connections.isEmpty()) {
+            return;
+        }
+        TechnicianProfile technician = technicianProfileRepository.findByUserId(event.getUserId());
+        for (Connection connection : connections) {
+            register(connection, technician);
+        }
+    }
+
+    // Keeps idle streams open through proxies and finds connections that went away
+    @Scheduled(fixedDelayString = "${search.subscriptions.keepalive-interval:30000}")
+    public void keepAlive() {
+        for (Set<Connection> connections : byTechnician.values()) {
+            for (Connection connection : connections) {
+                enqueue(connection, SseEmitter.event().comment("keepalive"));
+            }
+        }
+    }
+
+    // Drops connections whose client stopped reading, freeing their sender
+    @Scheduled(fixedDelayString = "${search.subscriptions.send-timeout:5000}")
+    public void closeStalled() {
+        long cutoff = System.currentTimeMillis() - sendTimeoutMs;
+        for (Set<Connection> connections : byTechnician.values()) {
+            for (Connection connection : connections) {
+                synchronized (connection) {
+                    // Under the monitor, so the sender cannot have moved on to another connection
+                    if (connection.sender == null || connection.sendingSince > cutoff) {
+                        continue;
+                    }
+                    connection.stalled = true;
+                    connection.sender.interrupt();
+                }
+                stalled.increment();
+                log.debug("Closing stalled stream of technician {}", connection.technicianId);
+                close(connection);
+            }
+        }
+    }
+
+    private void register(Connection connection, TechnicianProfile technician) {
+        StandingQuery query = queryFor(technician, connection.radiusKm);
+        StandingQuery previous;
+        synchronized (connection) {
+            if (connection.closed) {
+                return;
+            }
+            previous = connection.query;
+            connection.query = query;
+            if (query != null) {
+                byQuery.put(query, connection);
+                index.add(query);
+            }
+        }
+        if (previous != null) {
+            index.remove(previous);
+            byQuery.remove(previous);
+        }
+    }
+
+    // Without skills or a location nothing can match; the stream stays open for later changes
+    private StandingQuery queryFor(TechnicianProfile technician, double radiusKm) {
+        if (technician == null || technician.getSkills() == null || technician.getSkills().isEmpty()) {
+            return null;
+        }
+        double[] origin = GeoMath.parseLocation(technician.getLocation());
+        if (Double.isNaN(origin[0])) {
+            return null;
+        }
+        int[] skillIds = technician.getSkillIds() != null
+                ? technician.getSkillIds()
+                : SkillSet.of(technician.getSkills(), skillDictionary);
+        return skillIds.length > 0
+                ? new StandingQuery(technician.getUserId(), origin[0], origin[1], radiusKm, skillIds)
+                : null;
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        synchronized (connection) {
+            if (connection.closed) {
+                return;
+            }
+            if (connection.pending.size() >= queueCapacity) {
+                connection.pending.poll();
+                dropped.increment();
+            }
+            connection.pending.add(event);
+            if (connection.draining) {
+                return;
+            }
+            connection.draining = true;
+        }
+        try {
+            subscriptionExecutor.execute(() -> drain(connection));
+        } catch (TaskRejectedException e) {
+            // Every sender is busy; the events stay queued for the next enqueue or keepalive
+            synchronized (connection) {
+                connection.draining = false;
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            boolean done;
+            boolean stalled;
+            synchronized (connection) {
+                event = connection.pending.poll();
+                done = event == null || connection.closed;
+                stalled = connection.stalled;
+                if (done) {
+                    connection.draining = false;
+                } else {
+                    connection.sender = Thread.currentThread();
+                    connection.sendingSince = System.currentTimeMillis();
+                }
+            }
+            if (done) {
+                if (stalled) {
+                    // The blocked send went through after all; end the stream closeStalled() dropped
+                    connection.emitter.complete();
+                }
+                return;
+            }
+            try {
+                connection.emitter.send(event);
+                sent.increment();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; completing the emitter ends up in close()
+                connection.emitter.completeWithError(e);
+                close(connection);
+                return;
+            } finally {
+                synchronized (connection) {
+                    connection.sender = null;
+                }
+                Thread.interrupted(); // An interrupt meant for this send must not reach the next one
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        StandingQuery query;
+        synchronized (connection) {
+            if (connection.closed) {
+                return;
+            }
+            connection.closed = true;
+            connection.pending.clear();
+            query = connection.query;
+            connection.query = null;
+        }
+        if (query != null) {
+            index.remove(query);
+            byQuery.remove(query);
+        }
+        byTechnician.computeIfPresent(connection.technicianId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private static final class Connection {
+
+        final Long technicianId;
+        final double radiusKm;
+        final SseEmitter emitter;
+        // Guarded by the connection's monitor
+        final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        StandingQuery query;
+        boolean draining;
+        boolean closed;
+        boolean stalled;
+        // The thread blocked in a send, and since when
+        Thread sender;
+        long sendingSince;
+
+        Connection(Long technicianId, double radiusKm, SseEmitter emitter) {
+            this.technicianId = technicianId;
+            this.radiusKm = radiusKm;
+            this.emitter = emitter;
+        }
+    }
+}
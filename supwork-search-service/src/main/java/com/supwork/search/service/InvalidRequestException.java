@@ -0,0 +1,16 @@
+package com.supwork.search.service;
+
+/**
+ * Thrown when a cursor or request parameter cannot be used as given; answered
+ * with 400. Other {@link IllegalArgumentException}s are bugs and stay 500s.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,208 @@
+package com.supwork.search.service;
+
+import com.supwork.search.index.HeavyHitters;
+import com.supwork.search.model.MatchMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Warms the {@code matches} cache for the most requested gig matches after a
+ * restart. Each instance counts the requests it serves in a
+ * {@link HeavyHitters} sketch and adds the counts to an hourly Redis sorted
+ * set, shared by all instances and trimmed to its top entries. On startup,
+ * once the technician snapshot, gig replica and calendars are loaded, the
+ * hottest keys of the last {@code search.warmup.window} are computed through
+ * the regular cache path until {@code search.warmup.budget} runs out. The
+ * budget only starts once loading has finished, however long that takes.
+ * <p>
+ * Doubles as a health indicator that stays out of service until the data is
+ * loaded and warm-up has finished or given up. It is part of the readiness group, and with the
+ * Eureka health check enabled it also keeps the instance OUT_OF_SERVICE in
+ * the registry, so neither the gateway nor other shards route to it early.
+ */
+@Service
+@Slf4j
+public class MatchCacheWarmer implements HealthIndicator {
+
+    static final String BUCKET_PREFIX = "search:hot-matches:";
+    private static final long BUCKET_MS = Duration.ofHours(1).toMillis();
+    private static final long POLL_MS = 100;
+
+    private final MatchService matchService;
+    private final TechnicianSnapshotService technicianSnapshotService;
+    private final OpenGigIndex openGigIndex;
+    private final TechnicianCalendarService technicianCalendarService;
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final boolean enabled;
+    private final Duration budget;
+    private final int maxKeys;
+    private final long windowMs;
+
+    // Guarded by itself; the request path holds it only for one O(log n) update
+    private final HeavyHitters<String> requested;
+    private volatile boolean warm;
+
+    private final Counter warmed;
+
+    public MatchCacheWarmer(MatchService matchService, TechnicianSnapshotService technicianSnapshotService,
+                            OpenGigIndex openGigIndex, TechnicianCalendarService technicianCalendarService,
+                            RedisTemplate<String, byte[]> cacheRedisTemplate, MeterRegistry meterRegistry,
+                            @Value("${search.warmup.enabled:false}") boolean enabled,
+                            @Value("${search.warmup.budget:20s}") Duration budget,
+                            @Value("${search.warmup.max-keys:200}") int maxKeys,
+                            @Value("${search.warmup.capacity:1024}") int capacity,
+                            @Value("${search.warmup.window:6h}") Duration window) {
+        this.matchService = matchService;
+        this.technicianSnapshotService = technicianSnapshotService;
+        this.openGigIndex = openGigIndex;
+        this.technicianCalendarService = technicianCalendarService;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.enabled = enabled;
+        this.budget = budget;
+        this.maxKeys = maxKeys;
+        this.windowMs = window.toMillis();
+        this.requested = new HeavyHitters<>(capacity);
+        this.warm = !enabled;
+        this.warmed = meterRegistry.counter("search.warmup.keys");
+    }
+
+    public void record(Long gigId, double radiusKm, int limit, MatchMode mode) {
+        if (!enabled) {
+            return;
+        }
+        String key = gigId + ":" + radiusKm + ":" + limit + ":" + mode;
+        synchronized (requested) {
+            requested.add(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.warmup.flush-interval:60000}")
+    public void flush() {
+        Map<String, Long> counted;
+        synchronized (requested) {
+            if (requested.size() == 0) {
+                return;
+            }
+            counted = requested.drain();
+        }
+        long now = System.currentTimeMillis();
+        byte[] bucket = bytes(BUCKET_PREFIX + now / BUCKET_MS);
+        try {
+            cacheRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                counted.forEach((key, count) -> connection.zSetCommands().zIncrBy(bucket, count, bytes(key)));
+                // Only the top entries can ever be warmed, so the rest is dropped
+                connection.zSetCommands().zRemRange(bucket, 0, -(maxKeys + 1));
+                connection.keyCommands().pExpire(bucket, windowMs + BUCKET_MS);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Losing one interval's counts only makes the ranking a little less accurate
+            log.warn("Could not record hot match keys: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (warm) {
+            return;
+        }
+        // Off the event thread so the other ready listeners, calendars among them, run meanwhile
+        Thread warmer = new Thread(this::warmUp, "match-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    @Override
+    public Health health() {
+        if (warm) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail(loaded() ? "warmingUp" : "loading", true).build();
+    }
+
+    void warmUp() {
+        int done = 0;
+        try {
+            awaitLoaded();
+            long start = System.currentTimeMillis();
+            long deadline = start + budget.toMillis();
+            List<String> keys = hotKeys(start);
+            for (String key : keys) {
+                if (System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                String[] parts = key.split(":");
+                try {
+                    matchService.findMatchesForGig(Long.valueOf(parts[0]), Double.parseDouble(parts[1]),
+                            Integer.parseInt(parts[2]), MatchMode.valueOf(parts[3]));
+                    done++;
+                } catch (RuntimeException e) {
+                    log.debug("Could not warm matches for {}: {}", key, e.getMessage());
+                }
+            }
+            warmed.increment(done);
+            log.info("Warmed matches for {} of {} hot keys in {} ms",
+                    done, keys.size(), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Match cache warm-up failed: {}", e.getMessage());
+        } finally {
+            warm = true;
+        }
+    }
+
+    // Matches computed before these are loaded would be cached from partial or restored data,
+    // and serving before then is no better, so there is no deadline
+    private void awaitLoaded() throws InterruptedException {
+        while (!loaded()) {
+            Thread.sleep(POLL_MS);
+        }
+    }
+
+    private boolean loaded() {
+        return technicianSnapshotService.isBuilt() && openGigIndex.isBootstrapped()
+                && technicianCalendarService.isLoaded();
+    }
+
+    // Sums the hourly buckets in the window, hottest first
+    private List<String> hotKeys(long now) {
+        Map<String, Double> scores = new HashMap<>();
+        for (long bucket = (now - windowMs) / BUCKET_MS; bucket <= now / BUCKET_MS; bucket++) {
+            byte[] key = bytes(BUCKET_PREFIX + bucket);
+            Set<Tuple> top = cacheRedisTemplate.execute((RedisCallback<Set<Tuple>>) connection ->
+                    connection.zSetCommands().zRevRangeWithScores(key, 0, maxKeys - 1));
+            if (top != null) {
+                for (Tuple tuple : top) {
+                    scores.merge(new String(tuple.getValue(), StandardCharsets.UTF_8), tuple.getScore(), Double::sum);
+                }
+            }
+        }
+        List<String> keys = new ArrayList<>(scores.keySet());
+        keys.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return keys.size() > maxKeys ? keys.subList(0, maxKeys) : keys;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.supwork.search.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a ranked match list: the exact score and ID of the last
+ * match returned. Ranking is score descending, then ID ascending, so the next
+ * page is everything strictly after that pair and is found with one bounded
+ * scan however deep it is.
+ */
+final class MatchCursor {
+
+    private static final String VERSION = "1";
+
+    private final double score;
+    private final long id;
+
+    MatchCursor(double score, long id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    String encode() {
+        // The raw bits keep the score exact, so ties on the boundary compare equal
+        String raw = String.join("|", VERSION, Long.toHexString(Double.doubleToLongBits(score)), Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    static MatchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            double score = Double.longBitsToDouble(Long.parseUnsignedLong(parts[1], 16));
+            if (Double.isNaN(score)) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new MatchCursor(score, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor", e);
+        }
+    }
+
+    double score() {
+        return score;
+    }
+
+    long id() {
+        return id;
+    }
+}
@@ -0,0 +1,300 @@
+package com.supwork.search.service;
+
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.index.GeoBox;
+import com.supwork.search.index.GeoMath;
+import com.supwork.search.index.GigMatchKernel;
+import com.supwork.search.index.GigSearchIndex;
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.MatchKernel;
+import com.supwork.search.index.MatchQuery;
+import com.supwork.search.index.SkillBits;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.index.TopMatches;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the top matches of every open gig and of every technician in the
+ * match snapshot precomputed, so the default match requests are a map lookup.
+ * <p>
+ * A changed gig is recomputed on the next pass, along with the technicians
+ * around its old and new location whose gig lists it may enter or leave. A
+ * changed technician waits until the snapshot includes the change, then is
+ * recomputed with the gigs around its old and new location. Ratings and
+ * availability also change without events, so every entry is recomputed on a
+ * longer fixed interval. Entries with a pending change are not served.
+ */
+@Service
+@Slf4j
+public class MatchRecommender {
+
+    private final TechnicianSnapshotService technicianSnapshotService;
+    private final PresenceService presenceService;
+    private final OpenGigIndex openGigIndex;
+    private final ForkJoinPool matchScoringPool;
+    private final int topK;
+    private final double radiusKm;
+    private final long fullRefreshInterval;
+
+    private final Map<Long, TopMatches> gigMatches = new ConcurrentHashMap<>();
+    private final Map<Long, TopMatches> technicianMatches = new ConcurrentHashMap<>();
+    // ID -> time of the first pending change event
+    private final Map<Long, Long> changedGigs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> changedTechnicians = new ConcurrentHashMap<>();
+    // ID -> time it was marked for recomputation on the next pass
+    private final Map<Long, Long> dirtyGigs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> dirtyTechnicians = new ConcurrentHashMap<>();
+
+    // Only touched by the recompute pass
+    private TechnicianSnapshot snapshot;
+    private Map<Long, Integer> rowsByUserId = Map.of();
+    private long lastFullRefresh;
+
+    private final Counter gigRecomputes;
+    private final Counter technicianRecomputes;
+    private final Counter hits;
+    private final Counter misses;
+
+    public MatchRecommender(TechnicianSnapshotService technicianSnapshotService, PresenceService presenceService,
+                            OpenGigIndex openGigIndex, ForkJoinPool matchScoringPool, MeterRegistry meterRegistry,
+                            @Value("${search.recommend.top-k:20}") int topK,
+                            @Value("${search.recommend.radius-km:10}") double radiusKm,
+                            @Value("${search.recommend.full-refresh-interval:600000}") long fullRefreshInterval) {
+        this.technicianSnapshotService = technicianSnapshotService;
+        this.presenceService = presenceService;
+        this.openGigIndex = openGigIndex;
+        this.matchScoringPool = matchScoringPool;
+        this.topK = topK;
+        this.radiusKm = radiusKm;
+        this.fullRefreshInterval = fullRefreshInterval;
+        this.gigRecomputes = meterRegistry.counter("search.recommend.recomputes", "kind", "gig");
+        this.technicianRecomputes = meterRegistry.counter("search.recommend.recomputes", "kind", "technician");
+        this.hits = meterRegistry.counter("search.recommend.reads", "result", "hit");
+        this.misses = meterRegistry.counter("search.recommend.reads", "result", "miss");
+        meterRegistry.gauge("search.recommend.entries", Tags.of("kind", "gig"),
+                gigMatches, Map::size);
+        meterRegistry.gauge("search.recommend.entries", Tags.of("kind", "technician"),
+                technicianMatches, Map::size);
+        meterRegistry.gauge("search.recommend.pending", Tags.of("kind", "gig"),
+                this, recommender -> recommender.changedGigs.size() + recommender.dirtyGigs.size());
+        meterRegistry.gauge("search.recommend.pending", Tags.of("kind", "technician"),
+                this, recommender -> recommender.changedTechnicians.size() + recommender.dirtyTechnicians.size());
+        // Age of the oldest change not yet reflected in the served entries
+        meterRegistry.gauge("search.recommend.staleness.seconds", this, MatchRecommender::stalenessSeconds);
+    }
+
+    /**
+     * @return the precomputed technicians for the gig, or {@code null} when the request
+     * does not fit the precomputed radius and size or the entry is out of date
+     */
+    public TopMatches forGig(Long gigId, double radiusKm, int limit) {
+        return read(gigMatches, gigId, radiusKm, limit, changedGigs, dirtyGigs);
+    }
+
+    /**
+     * @return the precomputed gigs for the technician; see {@link #forGig}
+     */
+    public TopMatches forTechnician(Long userId, double radiusKm, int limit) {
+        return read(technicianMatches, userId, radiusKm, limit, changedTechnicians, dirtyTechnicians);
+    }
+
+    private TopMatches read(Map<Long, TopMatches> entries, Long id, double radiusKm, int limit,
+                            Map<Long, Long> changed, Map<Long, Long> dirty) {
+        // Computed with topK >= limit, so a shorter entry means no more matches exist
+        TopMatches top = radiusKm == this.radiusKm && limit <= topK
+                && !changed.containsKey(id) && !dirty.containsKey(id)
+                ? entries.get(id)
+                : null;
+        (top != null ? hits : misses).increment();
+        return top;
+    }
+
+    @EventListener
+    public void onGigChanged(GigChangedEvent event) {
+        if (event.getGigId() != null) {
+            changedGigs.putIfAbsent(event.getGigId(), System.currentTimeMillis());
+        }
+    }
+
+    @EventListener
+    public void onTechnicianChanged(TechnicianChangedEvent event) {
+        if (event.getUserId() != null) {
+            changedTechnicians.putIfAbsent(event.getUserId(), System.currentTimeMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.recommend.interval:1000}")
+    public void recompute() {
+        TechnicianSnapshot current = technicianSnapshotService.current();
+        if (current == null || !openGigIndex.isBootstrapped()) {
+            return;
+        }
+        if (current != snapshot) {
+            onNewSnapshot(current);
+        }
+        GigSearchIndex gigs = openGigIndex.searchIndex();
+        long now = System.currentTimeMillis();
+
+        // The gig index applies changes synchronously, so gig changes are always ready
+        for (Map.Entry<Long, Long> change : changedGigs.entrySet()) {
+            Long gigId = change.getKey();
+            dirtyGigs.putIfAbsent(gigId, change.getValue());
+            TopMatches previous = gigMatches.get(gigId);
+            if (previous != null) {
+                markTechniciansNear(current, previous.latitude(), previous.longitude(), now);
+            }
+            IndexedGig gig = openGigIndex.get(gigId);
+            if (gig != null) {
+                markTechniciansNear(current, gig.latitude(), gig.longitude(), now);
+            }
+            changedGigs.remove(gigId, change.getValue());
+        }
+        for (Map.Entry<Long, Long> change : changedTechnicians.entrySet()) {
+            if (change.getValue() >= current.builtAt()) {
+                continue; // Not in the snapshot yet
+            }
+            Long userId = change.getKey();
+            dirtyTechnicians.putIfAbsent(userId, change.getValue());
+            TopMatches previous = technicianMatches.get(userId);
+            if (previous != null) {
+                markGigsNear(gigs, previous.latitude(), previous.longitude(), now);
+            }
+            Integer row = rowsByUserId.get(userId);
+            if (row != null) {
+                markGigsNear(gigs, current.latitude(row), current.longitude(row), now);
+            }
+            changedTechnicians.remove(userId, change.getValue());
+        }
+
+        int gigCount = drain(dirtyGigs, gigId -> recomputeGig(current, gigId));
+        int technicianCount = drain(dirtyTechnicians, userId -> recomputeTechnician(current, gigs, userId));
+        gigRecomputes.increment(gigCount);
+        technicianRecomputes.increment(technicianCount);
+        if (gigCount + technicianCount > 0) {
+            log.debug("Recomputed recommendations for {} gigs and {} technicians in {} ms",
+                    gigCount, technicianCount, System.currentTimeMillis() - now);
+        }
+    }
+
+    private void onNewSnapshot(TechnicianSnapshot current) {
+        snapshot = current;
+        Map<Long, Integer> rows = new HashMap<>(current.size() * 2);
+        for (int row = 0; row < current.size(); row++) {
+            if (current.userId(row) >= 0) {
+                rows.putIfAbsent(current.userId(row), row);
+            }
+        }
+        rowsByUserId = rows;
+
+        long now = System.currentTimeMillis();
+        if (now - lastFullRefresh >= fullRefreshInterval) {
+            lastFullRefresh = now;
+            gigMatches.keySet().removeIf(gigId -> openGigIndex.get(gigId) == null);
+            technicianMatches.keySet().retainAll(rows.keySet());
+            for (IndexedGig gig : openGigIndex.values()) {
+                dirtyGigs.putIfAbsent(gig.id(), now);
+            }
+            for (Long userId : rows.keySet()) {
+                dirtyTechnicians.putIfAbsent(userId, now);
+            }
+        }
+    }
+
+    // Recomputes every marked entry across the scoring pool; marks made meanwhile stay for the next pass
+    private int drain(Map<Long, Long> dirty, Consumer<Long> recompute) {
+        List<Map.Entry<Long, Long>> marked = new ArrayList<>(dirty.entrySet().size());
+        for (Map.Entry<Long, Long> entry : dirty.entrySet()) {
+            marked.add(Map.entry(entry.getKey(), entry.getValue()));
+        }
+        if (marked.isEmpty()) {
+            return 0;
+        }
+        matchScoringPool.submit(() -> marked.parallelStream().forEach(entry -> {
+            recompute.accept(entry.getKey());
+            dirty.remove(entry.getKey(), entry.getValue());
+        })).join();
+        return marked.size();
+    }
+
+    private void recomputeGig(TechnicianSnapshot current, Long gigId) {
+        IndexedGig gig = openGigIndex.get(gigId);
+        if (gig == null) {
+            gigMatches.remove(gigId);
+            return;
+        }
+        MatchQuery query = MatchQuery.builder()
+                .latitude(gig.latitude())
+                .longitude(gig.longitude())
+                .skillBits(SkillBits.encode(gig.skillIds(), current.wordsPerRow()))
+                .skillCount(gig.skillCount())
+                .minRating(technicianSnapshotService.minRating())
+                .radiusKm(radiusKm)
+                .limit(topK)
+                .presence(presenceService.mask(current))
+                .build();
+        gigMatches.put(gigId, TopMatches.of(MatchKernel.topK(current, query), current::userId,
+                gig.latitude(), gig.longitude(), topK));
+    }
+
+    private void recomputeTechnician(TechnicianSnapshot current, GigSearchIndex gigs, Long userId) {
+        Integer row = rowsByUserId.get(userId);
+        if (row == null) {
+            technicianMatches.remove(userId);
+            return;
+        }
+        double latitude = current.latitude(row);
+        double longitude = current.longitude(row);
+        technicianMatches.put(userId, TopMatches.of(
+                GigMatchKernel.topK(gigs, latitude, longitude, current.skillIds(row), radiusKm, topK),
+                gigRow -> gigs.gig(gigRow).id(), latitude, longitude, topK));
+    }
+
+    private void markTechniciansNear(TechnicianSnapshot current, double latitude, double longitude, long now) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return;
+        }
+        GeoBox box = GeoBox.around(latitude, longitude, radiusKm);
+        int[] candidates = current.grid().candidates(box);
+        int count = candidates != null ? candidates.length : current.size();
+        for (int i = 0; i < count; i++) {
+            int row = candidates != null ? candidates[i] : i;
+            if (box.contains(current.latitude(row), current.longitude(row))
+                    && GeoMath.haversineKm(latitude, longitude, current.latitude(row), current.longitude(row)) <= radiusKm
+                    && current.userId(row) >= 0) {
+                dirtyTechnicians.putIfAbsent(current.userId(row), now);
+            }
+        }
+    }
+
+    private void markGigsNear(GigSearchIndex gigs, double latitude, double longitude, long now) {
+        for (int row : gigs.near(latitude, longitude, radiusKm)) {
+            dirtyGigs.putIfAbsent(gigs.gig(row).id(), now);
+        }
+    }
+
+    private double stalenessSeconds() {
+        long oldest = Long.MAX_VALUE;
+        for (Map<Long, Long> pending : List.of(changedGigs, changedTechnicians, dirtyGigs, dirtyTechnicians)) {
+            for (long since : pending.values()) {
+                oldest = Math.min(oldest, since);
+            }
+        }
+        return oldest == Long.MAX_VALUE ? 0.0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
@@ -1,17 +1,55 @@
 package com.supwork.search.service;
 
+import com.supwork.search.cache.MatchResultCache;
+import com.supwork.search.cache.UpstreamUnavailableException;
 import com.supwork.search.client.GigClient;
+import com.supwork.search.client.ShardClient;
+import com.supwork.search.index.GeoBox;
+import com.supwork.search.index.GeoMath;
+import com.supwork.search.index.GigMatchKernel;
+import com.supwork.search.index.GigSearchIndex;
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.MatchHits;
+import com.supwork.search.index.MatchKernel;
+import com.supwork.search.index.MatchQuery;
+import com.supwork.search.index.SkillBits;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.SkillSet;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.index.TopMatches;
 import com.supwork.search.model.GigSearchDTO;
+import com.supwork.search.model.MatchMode;
+import com.supwork.search.model.MatchPage;
 import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.ShardMatchRequest;
 import com.supwork.search.model.TechnicianProfile;
 import com.supwork.search.repository.TechnicianProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,142 +58,523 @@ public class MatchService {
     
     private final TechnicianProfileRepository technicianProfileRepository;
     private final GigClient gigClient;
+    private final TechnicianSnapshotService technicianSnapshotService;
+    private final SkillDictionary skillDictionary;
+    private final ForkJoinPool matchScoringPool;
+    private final AggregationMatchService aggregationMatchService;
+    private final MeterRegistry meterRegistry;
+    private final MatchResultCache matchResultCache;
+    private final OpenGigIndex openGigIndex;
+    private final MatchRecommender matchRecommender;
+    private final PresenceService presenceService;
+    private final TechnicianCalendarService technicianCalendarService;
+    private final ShardRouter shardRouter;
+    private final ShardClient shardClient;
+    private final ThreadPoolTaskExecutor shardExecutor;
     
-    @Cacheable(key = "#gigId", cacheNames = "matches")
-    public List<MatchResult> findMatchesForGig(Long gigId) {
-        log.info("Finding matches for gig: {}", gigId);
+    @Value("${search.match.parallel-threshold:20000}")
+    private int parallelThreshold;
+    
+    public static final long MAX_RADIUS_KM = 200;
+    public static final long MAX_LIMIT = 100;
+    // Most technicians fetched by one aggregation match, as a multiple of the limit, when many are busy
+    private static final int MAX_AGGREGATION_FETCH_FACTOR = 16;
+    
+    public List<MatchResult> findMatchesForGig(Long gigId, double radiusKm, int limit, MatchMode mode) {
+        return matchResultCache.get(List.of(gigId, radiusKm, limit, mode),
+                () -> computeMatchesForGig(gigId, radiusKm, limit, mode));
+    }
+    
+    private List<MatchResult> computeMatchesForGig(Long gigId, double radiusKm, int limit, MatchMode mode) {
+        log.info("Finding matches for gig: {} ({})", gigId, mode);
+        
+        // Precomputed entries know neither calendars nor other shards' technicians
+        IndexedGig open = openGigIndex.get(gigId);
+        if (mode == MatchMode.JVM && (open == null || !open.hasWindow()) && !shardRouter.isSharded()) {
+            TopMatches precomputed = matchRecommender.forGig(gigId, radiusKm, limit);
+            List<MatchResult> matches = precomputed != null ? technicianMatches(precomputed, limit) : null;
+            if (matches != null) {
+                return matches;
+            }
+        }
         
         // Get gig details
-        GigSearchDTO gig = gigClient.getGigById(gigId);
-        if (gig == null || gig.getSkills() == null || gig.getSkills().isEmpty()) {
+        IndexedGig gig = findGig(gigId);
+        if (gig == null || gig.skillIds().length == 0) {
             return List.of();
         }
         
-        // Get all available technicians
-        List<TechnicianProfile> technicians = technicianProfileRepository.findByIsAvailableTrue();
+        Set<String> gigSkills = new HashSet<>(gig.gig().getSkills());
+        gigSkills.remove(null);
         
-        // Calculate matches using Java streams
-        return technicians.stream()
-                .filter(tech -> tech.getRating() != null && tech.getRating() >= 4.0)
-                .map(tech -> calculateMatch(gig, tech))
-                .filter(match -> match.getDistanceKm() <= 10.0) // Within 10km
-                .sorted((m1, m2) -> Double.compare(m2.getSimilarityScore(), m1.getSimilarityScore()))
-                .limit(5)
-                .collect(Collectors.toList());
+        // Timed per mode so the in-JVM and aggregation paths can be compared in production
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<MatchResult> matches = mode == MatchMode.AGGREGATION
+                ? aggregationMatches(gig, gigSkills, radiusKm, limit)
+                : scoreSnapshot(gig, radiusKm, limit);
+        sample.stop(meterRegistry.timer("search.match.duration", "mode", mode.name()));
+        return matches;
     }
     
-    public List<MatchResult> findMatchesForTechnician(Long technicianId) {
-        log.info("Finding matches for technician: {}", technicianId);
-        
-        // Get technician profile
-        TechnicianProfile technician = technicianProfileRepository.findByUserId(technicianId);
-        if (technician == null || technician.getSkills() == null || technician.getSkills().isEmpty()) {
+    // Open gigs come from the local replica; closed or not yet indexed ones from gig-service
+    private IndexedGig findGig(Long gigId) {
+        IndexedGig indexed = openGigIndex.get(gigId);
+        if (indexed != null) {
+            return indexed;
+        }
+        GigSearchDTO gig = gigClient.getGigById(gigId);
+        if (gig != null && gig.isPlaceholder()) {
+            // Matching against the fallback's 0,0 placeholder would cache a wrong empty answer
+            throw new UpstreamUnavailableException("gig-service unavailable for gig " + gigId);
+        }
+        return gig != null ? IndexedGig.of(gig, skillDictionary) : null;
+    }
+    
+    private List<MatchResult> scoreSnapshot(IndexedGig gig, double radiusKm, int limit) {
+        return shardRouter.isSharded()
+                ? scatterMatches(gig, radiusKm, limit, null)
+                : localMatches(gig, radiusKm, limit, null);
+    }
+    
+    private List<MatchResult> localMatches(IndexedGig gig, double radiusKm, int limit, MatchCursor after) {
+        if (gig.skillIds().length == 0) {
             return List.of();
         }
+        // Score the columnar snapshot of available technicians; before the first
+        // full build, load only this gig's candidates with the filters pushed to Mongo
+        TechnicianSnapshot snapshot = technicianSnapshotService.current();
+        if (snapshot == null) {
+            Set<String> gigSkills = new HashSet<>(gig.gig().getSkills());
+            gigSkills.remove(null);
+            snapshot = technicianSnapshotService.buildFor(gigSkills);
+        }
+        MatchHits hits = MatchKernel.topK(snapshot, matchQuery(snapshot, gig, radiusKm, limit, after),
+                matchScoringPool, parallelThreshold);
         
-        // Get open gigs
-        List<GigSearchDTO> gigs = gigClient.getOpenGigs();
+        return toMatchResults(snapshot, hits, loadProfiles(snapshot, List.of(hits)));
+    }
+    
+    /**
+     * This instance's part of a scatter-gather match: the best {@code limit}
+     * technicians in its own shards, ranked after the request's cursor if it has one.
+     */
+    public List<MatchResult> findLocalMatches(ShardMatchRequest request) {
+        MatchCursor after = request.getAfterScore() != null && request.getAfterUserId() != null
+                ? new MatchCursor(request.getAfterScore(), request.getAfterUserId())
+                : null;
+        // Looked up, not interned: the gig comes from the request, and its skills must not grow the dictionary
+        return localMatches(IndexedGig.lookup(request.getGig(), skillDictionary), request.getRadiusKm(),
+                request.getLimit(), after);
+    }
+    
+    /**
+     * Fans a match out to every shard the radius reaches and merges their
+     * local top lists. Each shard ranks the same way and returns its own best
+     * {@code limit}, so the global best {@code limit} are among them. The
+     * local shard is scored on the caller while the remote ones are awaited.
+     */
+    private List<MatchResult> scatterMatches(IndexedGig gig, double radiusKm, int limit, MatchCursor after) {
+        if (gig.skillIds().length == 0 || Double.isNaN(gig.latitude()) || Double.isNaN(gig.longitude())) {
+            return List.of();
+        }
+        ShardRouter.Route route = shardRouter.route(GeoBox.around(gig.latitude(), gig.longitude(), radiusKm));
+        ShardMatchRequest request = ShardMatchRequest.builder()
+                .gig(gig.gig())
+                .radiusKm(radiusKm)
+                .limit(limit)
+                .afterScore(after != null ? after.score() : null)
+                .afterUserId(after != null ? after.id() : null)
+                .build();
+        List<CompletableFuture<List<MatchResult>>> remote = new ArrayList<>(route.remote().size());
+        for (URI instance : route.remote()) {
+            remote.add(CompletableFuture.supplyAsync(
+                    () -> shardClient.match(instance, request), shardExecutor));
+        }
         
-        // Calculate matches
-        return gigs.stream()
-                .map(gig -> calculateMatchForTechnician(gig, technician))
-                .filter(match -> match.getDistanceKm() <= 10.0)
-                .sorted((m1, m2) -> Double.compare(m2.getSimilarityScore(), m1.getSimilarityScore()))
-                .limit(5)
-                .collect(Collectors.toList());
+        List<MatchResult> merged = new ArrayList<>();
+        if (route.local()) {
+            merged.addAll(localMatches(gig, radiusKm, limit, after));
+        }
+        for (int i = 0; i < remote.size(); i++) {
+            try {
+                merged.addAll(remote.get(i).join());
+            } catch (CompletionException | CancellationException e) {
+                remote.forEach(future -> future.cancel(true));
+                // A partial answer would be cached as if it were complete
+                log.warn("Search shard {} failed: {}", route.remote().get(i), e.getMessage());
+                throw new UpstreamUnavailableException("search shard " + route.remote().get(i) + " unavailable");
+            }
+        }
+        return topMatches(merged, limit);
     }
     
-    private MatchResult calculateMatch(GigSearchDTO gig, TechnicianProfile technician) {
-        // Calculate cosine similarity for skills
-        double similarityScore = calculateCosineSimilarity(gig.getSkills(), technician.getSkills());
+    // Same order as the kernel: score descending, then user ID; overlapping shards may return a technician twice
+    private static List<MatchResult> topMatches(List<MatchResult> matches, int limit) {
+        Set<Long> seen = new HashSet<>();
+        return matches.stream()
+                .sorted(Comparator.comparing(MatchResult::getSimilarityScore, Comparator.reverseOrder())
+                        .thenComparing(match -> match.getTechnician().getUserId(),
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                .filter(match -> match.getTechnician().getUserId() == null
+                        || seen.add(match.getTechnician().getUserId()))
+                .limit(limit)
+                .toList();
+    }
+    
+    /**
+     * Matches many gigs against one technician snapshot: each gig is scored on
+     * its own worker in the scoring pool, and the profiles behind every gig's
+     * top hits are loaded in a single query. Always scored in the JVM and not
+     * cached, so a dashboard refresh sees current data.
+     *
+     * @return matches per requested gig ID, in request order; unknown gigs map to an empty list
+     */
+    public Map<Long, List<MatchResult>> findMatchesForGigs(List<Long> gigIds, double radiusKm, int limit) {
+        List<Long> ids = gigIds.stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Finding matches for {} gigs", ids.size());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        
+        List<IndexedGig> gigs = new ArrayList<>(ids.size());
+        Set<String> allSkills = new HashSet<>();
+        for (Long gigId : ids) {
+            IndexedGig gig;
+            try {
+                gig = findGig(gigId);
+            } catch (UpstreamUnavailableException e) {
+                gig = null; // One missing gig should not fail the whole board
+            }
+            gigs.add(gig != null && gig.skillIds().length > 0 ? gig : null);
+            if (gig != null && gig.gig().getSkills() != null) {
+                allSkills.addAll(gig.gig().getSkills());
+            }
+        }
+        allSkills.remove(null);
         
-        // Calculate distance using Haversine formula
-        double distance = calculateDistance(
-            gig.getLatitude(), gig.getLongitude(),
-            technician.getLatitude(), technician.getLongitude()
-        );
+        if (shardRouter.isSharded()) {
+            Map<Long, List<MatchResult>> matches = new LinkedHashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                IndexedGig gig = gigs.get(i);
+                matches.put(ids.get(i), gig != null ? scatterMatches(gig, radiusKm, limit, null) : List.of());
+            }
+            sample.stop(meterRegistry.timer("search.match.batch.duration"));
+            return matches;
+        }
         
-        // Count matching skills
-        int skillsMatchCount = (int) technician.getSkills().stream()
-                .filter(skill -> gig.getSkills().contains(skill))
-                .count();
+        TechnicianSnapshot current = technicianSnapshotService.current();
+        TechnicianSnapshot snapshot = current != null ? current : technicianSnapshotService.buildFor(allSkills);
         
-        return MatchResult.builder()
-                .technician(technician)
-                .similarityScore(similarityScore)
-                .distanceKm(distance)
-                .rating(technician.getRating())
-                .skillsMatchCount(skillsMatchCount)
-                .build();
+        // Parallel across gigs, so each gig's scan stays on one worker
+        MatchHits[] hits = new MatchHits[gigs.size()];
+        matchScoringPool.submit(() -> IntStream.range(0, gigs.size()).parallel().forEach(i -> {
+            IndexedGig gig = gigs.get(i);
+            hits[i] = gig != null
+                    ? MatchKernel.topK(snapshot, matchQuery(snapshot, gig, radiusKm, limit))
+                    : new MatchHits(0).finish();
+        })).join();
+        
+        Map<Long, TechnicianProfile> profiles = loadProfiles(snapshot, Arrays.asList(hits));
+        Map<Long, List<MatchResult>> matches = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            matches.put(ids.get(i), toMatchResults(snapshot, hits[i], profiles));
+        }
+        sample.stop(meterRegistry.timer("search.match.batch.duration"));
+        return matches;
     }
     
-    private MatchResult calculateMatchForTechnician(GigSearchDTO gig, TechnicianProfile technician) {
-        // Similar calculation but from technician perspective
-        double similarityScore = calculateCosineSimilarity(technician.getSkills(), gig.getSkills());
-        
-        double distance = calculateDistance(
-            gig.getLatitude(), gig.getLongitude(),
-            technician.getLatitude(), technician.getLongitude()
-        );
+    /**
+     * One page of the full ranked technician list for a gig, best first. Each
+     * page is a single bounded scan of the snapshot for the {@code size + 1}
+     * best technicians ranked after the cursor, so a deep page costs the same
+     * as the first and nothing beyond it is ever sorted or loaded.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first
+     */
+    public MatchPage findRankedMatchesForGig(Long gigId, double radiusKm, int size, String cursor) {
+        MatchCursor after = cursor != null ? MatchCursor.decode(cursor) : null;
+        IndexedGig gig = findGig(gigId);
+        if (gig == null || gig.skillIds().length == 0) {
+            return matchPage(List.of(), size, null);
+        }
+        if (shardRouter.isSharded()) {
+            List<MatchResult> merged = scatterMatches(gig, radiusKm, size + 1, after);
+            int count = Math.min(size, merged.size());
+            MatchCursor next = merged.size() > size
+                    ? new MatchCursor(merged.get(count - 1).getSimilarityScore(),
+                            merged.get(count - 1).getTechnician().getUserId())
+                    : null;
+            return matchPage(merged.subList(0, count), size, next);
+        }
         
-        int skillsMatchCount = (int) gig.getSkills().stream()
-                .filter(skill -> technician.getSkills().contains(skill))
-                .count();
+        TechnicianSnapshot snapshot = technicianSnapshotService.current();
+        if (snapshot == null) {
+            Set<String> gigSkills = new HashSet<>(gig.gig().getSkills());
+            gigSkills.remove(null);
+            snapshot = technicianSnapshotService.buildFor(gigSkills);
+        }
+        // One extra hit tells whether another page follows
+        MatchHits hits = MatchKernel.topK(snapshot, matchQuery(snapshot, gig, radiusKm, size + 1, after),
+                matchScoringPool, parallelThreshold);
         
-        return MatchResult.builder()
-                .technician(technician)
-                .similarityScore(similarityScore)
-                .distanceKm(distance)
-                .rating(technician.getRating())
-                .skillsMatchCount(skillsMatchCount)
-                .build();
+        int count = Math.min(size, hits.size());
+        List<MatchResult> matches = toMatchResults(snapshot, hits, count, loadProfiles(snapshot, List.of(hits)));
+        MatchCursor next = hits.size() > size
+                ? new MatchCursor(hits.score(count - 1), snapshot.userId(hits.row(count - 1)))
+                : null;
+        return matchPage(matches, size, next);
+    }
+    
+    private MatchQuery matchQuery(TechnicianSnapshot snapshot, IndexedGig gig, double radiusKm, int limit) {
+        return matchQuery(snapshot, gig, radiusKm, limit, null);
     }
     
-    private double calculateCosineSimilarity(List<String> skills1, List<String> skills2) {
-        if (skills1 == null || skills2 == null || skills1.isEmpty() || skills2.isEmpty()) {
-            return 0.0;
+    private MatchQuery matchQuery(TechnicianSnapshot snapshot, IndexedGig gig, double radiusKm, int limit,
+                                  MatchCursor after) {
+        MatchQuery.MatchQueryBuilder query = MatchQuery.builder()
+                .latitude(gig.latitude())
+                .longitude(gig.longitude())
+                .skillBits(SkillBits.encode(gig.skillIds(), snapshot.wordsPerRow()))
+                .skillCount(gig.skillCount())
+                .minRating(technicianSnapshotService.minRating())
+                .radiusKm(radiusKm)
+                .limit(limit)
+                .presence(presenceService.mask(snapshot));
+        if (after != null) {
+            query.afterScore(after.score()).afterUserId(after.id());
         }
+        if (gig.hasWindow()) {
+            long start = gig.windowStart();
+            long end = gig.windowEnd();
+            query.rowFilter(row -> technicianCalendarService.isFree(snapshot.userId(row), start, end));
+        }
+        return query.build();
+    }
+    
+    /**
+     * The pipeline cannot see calendars, so for a gig with a window it
+     * over-fetches, drops busy technicians and doubles the fetch until
+     * {@code limit} free ones are found, the candidates run out or the fetch
+     * reaches its cap.
+     */
+    private List<MatchResult> aggregationMatches(IndexedGig gig, Set<String> gigSkills, double radiusKm, int limit) {
+        int fetch = gig.hasWindow() ? limit * 2 : limit;
+        while (true) {
+            List<MatchResult> fetched = aggregationMatchService.findMatches(gig.latitude(), gig.longitude(),
+                    gigSkills, technicianSnapshotService.minRating(), radiusKm, fetch);
+            List<MatchResult> free = freeDuring(gig, fetched);
+            if (free.size() >= limit || fetched.size() < fetch || fetch >= limit * MAX_AGGREGATION_FETCH_FACTOR) {
+                return free.size() > limit ? free.subList(0, limit) : free;
+            }
+            fetch = Math.min(fetch * 2, limit * MAX_AGGREGATION_FETCH_FACTOR);
+        }
+    }
+    
+    private List<MatchResult> freeDuring(IndexedGig gig, List<MatchResult> matches) {
+        if (!gig.hasWindow()) {
+            return matches;
+        }
+        return matches.stream()
+                .filter(match -> match.getTechnician().getUserId() == null
+                        || technicianCalendarService.isFree(match.getTechnician().getUserId(),
+                                gig.windowStart(), gig.windowEnd()))
+                .toList();
+    }
+    
+    // Technician-side results skip gigs whose window the technician is already booked in
+    private boolean freeFor(TechnicianProfile technician, IndexedGig gig) {
+        return !gig.hasWindow() || technician.getUserId() == null
+                || technicianCalendarService.isFree(technician.getUserId(), gig.windowStart(), gig.windowEnd());
+    }
+    
+    private IntPredicate freeFor(TechnicianProfile technician, GigSearchIndex gigs) {
+        return row -> freeFor(technician, gigs.gig(row));
+    }
+    
+    // Only the top hits become result objects; their full profiles are loaded in one query
+    private Map<Long, TechnicianProfile> loadProfiles(TechnicianSnapshot snapshot, List<MatchHits> hitLists) {
+        Set<Long> userIds = new HashSet<>();
+        for (MatchHits hits : hitLists) {
+            for (int i = 0; i < hits.size(); i++) {
+                userIds.add(snapshot.userId(hits.row(i)));
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return technicianProfileRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(TechnicianProfile::getUserId, Function.identity(), (a, b) -> a));
+    }
+    
+    private List<MatchResult> toMatchResults(TechnicianSnapshot snapshot, MatchHits hits,
+                                             Map<Long, TechnicianProfile> profiles) {
+        return toMatchResults(snapshot, hits, hits.size(), profiles);
+    }
+    
+    private List<MatchResult> toMatchResults(TechnicianSnapshot snapshot, MatchHits hits, int count,
+                                             Map<Long, TechnicianProfile> profiles) {
+        if (count == 0) {
+            return List.of();
+        }
+        List<MatchResult> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TechnicianProfile technician = profiles.get(snapshot.userId(hits.row(i)));
+            if (technician == null) {
+                continue; // Removed since the snapshot was built
+            }
+            matches.add(MatchResult.builder()
+                    .technician(technician)
+                    .similarityScore(hits.score(i))
+                    .distanceKm(hits.distanceKm(i))
+                    .rating(technician.getRating())
+                    .skillsMatchCount(hits.overlap(i))
+                    .build());
+        }
+        return matches;
+    }
+    
+    // Precomputed entries only hold user IDs; the profiles are loaded in one query and
+    // rechecked, since an entry may predate its technician going offline or being rerated
+    // Walks the whole entry, since technicians who went offline or fell below the bars since it
+    // was computed leave gaps. Null when too few survive and the entry may have cut off more.
+    private List<MatchResult> technicianMatches(TopMatches top, int limit) {
+        List<Long> userIds = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            userIds.add(top.id(i));
+        }
+        userIds.removeIf(userId -> !presenceService.isOnline(userId));
+        if (userIds.size() < limit && !top.isComplete()) {
+            return null;
+        }
+        Map<Long, TechnicianProfile> profiles = userIds.isEmpty() ? Map.of()
+                : technicianProfileRepository.findByUserIdIn(userIds).stream()
+                        .collect(Collectors.toMap(TechnicianProfile::getUserId, Function.identity(), (a, b) -> a));
         
-        // Create vectors for skills
-        List<String> allSkills = skills1.stream()
-                .distinct()
-                .collect(Collectors.toList());
-        allSkills.addAll(skills2.stream().distinct().collect(Collectors.toList()));
-        allSkills = allSkills.stream().distinct().collect(Collectors.toList());
+        List<MatchResult> matches = new ArrayList<>(Math.min(limit, userIds.size()));
+        for (int i = 0; i < top.size() && matches.size() < limit; i++) {
+            TechnicianProfile technician = profiles.get(top.id(i));
+            if (technician == null || !stillMatches(technician)) {
+                continue;
+            }
+            matches.add(MatchResult.builder()
+                    .technician(technician)
+                    .similarityScore(top.score(i))
+                    .distanceKm(top.distanceKm(i))
+                    .rating(technician.getRating())
+                    .skillsMatchCount(top.overlap(i))
+                    .build());
+        }
+        return matches.size() < limit && !top.isComplete() ? null : matches;
+    }
+    
+    // The same availability and rating bars the snapshot applies when matching live
+    private boolean stillMatches(TechnicianProfile technician) {
+        boolean available = presenceService.isEnabled()
+                ? presenceService.isOnline(technician.getUserId())
+                : Boolean.TRUE.equals(technician.getIsAvailable());
+        return available && technician.getRating() != null
+                && technician.getRating() >= technicianSnapshotService.minRating();
+    }
+    
+    public List<MatchResult> findMatchesForTechnician(Long technicianId, double radiusKm, int limit) {
+        log.info("Finding matches for technician: {}", technicianId);
         
-        double dotProduct = 0.0;
-        double norm1 = 0.0;
-        double norm2 = 0.0;
+        // Get technician profile
+        TechnicianProfile technician = technicianProfileRepository.findByUserId(technicianId);
+        if (technician == null || technician.getSkills() == null || technician.getSkills().isEmpty()) {
+            return List.of();
+        }
         
-        for (String skill : allSkills) {
-            int count1 = (int) skills1.stream().filter(s -> s.equals(skill)).count();
-            int count2 = (int) skills2.stream().filter(s -> s.equals(skill)).count();
-            
-            dotProduct += count1 * count2;
-            norm1 += count1 * count1;
-            norm2 += count2 * count2;
+        double[] origin = GeoMath.parseLocation(technician.getLocation());
+        if (Double.isNaN(origin[0])) {
+            return List.of();
         }
         
-        if (norm1 == 0.0 || norm2 == 0.0) {
-            return 0.0;
+        TopMatches precomputed = matchRecommender.forTechnician(technicianId, radiusKm, limit);
+        if (precomputed != null) {
+            // Gigs taken or clashing since the entry was computed leave gaps, so walk all of it
+            List<MatchResult> matches = new ArrayList<>(Math.min(limit, precomputed.size()));
+            for (int i = 0; i < precomputed.size() && matches.size() < limit; i++) {
+                IndexedGig gig = openGigIndex.get(precomputed.id(i));
+                if (gig != null && freeFor(technician, gig)) {
+                    matches.add(gigMatch(technician, gig, precomputed.score(i), precomputed.distanceKm(i),
+                            precomputed.overlap(i)));
+                }
+            }
+            if (matches.size() == limit || precomputed.isComplete()) {
+                return matches;
+            }
         }
         
-        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+        int[] technicianSkills = technician.getSkillIds() != null
+                ? technician.getSkillIds()
+                : SkillSet.of(technician.getSkills(), skillDictionary);
+        
+        // Open gigs around the technician from the local replica, best kept in a bounded heap
+        GigSearchIndex gigs = openGigIndex.searchIndex();
+        MatchHits hits = GigMatchKernel.topK(gigs, origin[0], origin[1], technicianSkills, radiusKm, limit,
+                Double.POSITIVE_INFINITY, Long.MIN_VALUE, freeFor(technician, gigs));
+        
+        List<MatchResult> matches = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            matches.add(gigMatch(technician, gigs.gig(hits.row(i)), hits.score(i), hits.distanceKm(i),
+                    hits.overlap(i)));
+        }
+        return matches;
     }
     
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        if (lat1 == 0.0 && lon1 == 0.0) return Double.MAX_VALUE;
-        if (lat2 == 0.0 && lon2 == 0.0) return Double.MAX_VALUE;
-        
-        final int R = 6371; // Radius of the earth in km
+    /**
+     * One page of the full ranked open-gig list for a technician, paged the
+     * same way as {@link #findRankedMatchesForGig}.
+     */
+    public MatchPage findRankedMatchesForTechnician(Long technicianId, double radiusKm, int size, String cursor) {
+        MatchCursor after = cursor != null ? MatchCursor.decode(cursor) : null;
+        TechnicianProfile technician = technicianProfileRepository.findByUserId(technicianId);
+        if (technician == null || technician.getSkills() == null || technician.getSkills().isEmpty()) {
+            return matchPage(List.of(), size, null);
+        }
+        double[] origin = GeoMath.parseLocation(technician.getLocation());
+        if (Double.isNaN(origin[0])) {
+            return matchPage(List.of(), size, null);
+        }
+        int[] technicianSkills = technician.getSkillIds() != null
+                ? technician.getSkillIds()
+                : SkillSet.of(technician.getSkills(), skillDictionary);
         
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        GigSearchIndex gigs = openGigIndex.searchIndex();
+        // Busy gigs are skipped inside the scan, so a page is only short when it is the last one
+        MatchHits hits = GigMatchKernel.topK(gigs, origin[0], origin[1], technicianSkills, radiusKm, size + 1,
+                after != null ? after.score() : Double.POSITIVE_INFINITY, after != null ? after.id() : Long.MIN_VALUE,
+                freeFor(technician, gigs));
         
-        return R * c; // Distance in km
+        int count = Math.min(size, hits.size());
+        List<MatchResult> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            matches.add(gigMatch(technician, gigs.gig(hits.row(i)), hits.score(i), hits.distanceKm(i),
+                    hits.overlap(i)));
+        }
+        MatchCursor next = hits.size() > size
+                ? new MatchCursor(hits.score(count - 1), GigMatchKernel.gigId(gigs.gig(hits.row(count - 1))))
+                : null;
+        return matchPage(matches, size, next);
+    }
+    
+    private static MatchPage matchPage(List<MatchResult> matches, int size, MatchCursor next) {
+        return MatchPage.builder()
+                .content(matches)
+                .size(size)
+                .hasNext(next != null)
+                .nextCursor(next != null ? next.encode() : null)
+                .build();
+    }
+    
+    private static MatchResult gigMatch(TechnicianProfile technician, IndexedGig gig, double score,
+                                        double distanceKm, int overlap) {
+        return MatchResult.builder()
+                .technician(technician)
+                .gig(gig.gig())
+                .similarityScore(score)
+                .distanceKm(distanceKm)
+                .rating(technician.getRating())
+                .skillsMatchCount(overlap)
+                .build();
     }
 }
@@ -0,0 +1,209 @@
+package com.supwork.search.service;
+
+import com.supwork.search.client.GigClient;
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.index.GigSearchIndex;
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.model.GigSearchDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local replica of gig-service's open gigs, so matching never pulls the gig
+ * list over the wire. Bootstrapped by the first reconcile at startup, kept
+ * current by {@link GigChangedEvent}s, which gig-service posts to every
+ * instance once a create, assignment or delete commits, and fully reconciled
+ * on a fixed delay to repair any missed event. Differences a reconcile finds
+ * are published as events in turn, so caches, recommendations and gig
+ * streams follow changes made without a notification as well, at most one
+ * reconcile interval late.
+ */
+@Service
+@Slf4j
+public class OpenGigIndex {
+
+    private static final String STATUS_OPEN = "OPEN";
+
+    private final GigClient gigClient;
+    private final SkillDictionary skillDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, IndexedGig> gigs = new ConcurrentHashMap<>();
+    // Gigs changed by events since the running reconcile started fetching
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile long lastReconciledAt;
+    private volatile GigSearchIndex searchIndex;
+
+    private final Counter upserts;
+    private final Counter removals;
+    private final Counter skipped;
+
+    public OpenGigIndex(GigClient gigClient, SkillDictionary skillDictionary,
+                        ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.gigClient = gigClient;
+        this.skillDictionary = skillDictionary;
+        this.eventPublisher = eventPublisher;
+        this.upserts = meterRegistry.counter("search.gig.index.events", "result", "upsert");
+        this.removals = meterRegistry.counter("search.gig.index.events", "result", "remove");
+        this.skipped = meterRegistry.counter("search.gig.index.events", "result", "skipped");
+        meterRegistry.gauge("search.gig.index.size", gigs, Map::size);
+        // Seconds since the replica last agreed with gig-service; NaN until bootstrapped
+        meterRegistry.gauge("search.gig.index.lag.seconds", this, index -> index.lastReconciledAt == 0
+                ? Double.NaN
+                : (System.currentTimeMillis() - index.lastReconciledAt) / 1000.0);
+    }
+
+    /**
+     * @return the indexed open gig, or {@code null} if it is unknown or no longer open
+     */
+    public IndexedGig get(Long gigId) {
+        return gigId != null ? gigs.get(gigId) : null;
+    }
+
+    public Collection<IndexedGig> values() {
+        return Collections.unmodifiableCollection(gigs.values());
+    }
+
+    public int size() {
+        return gigs.size();
+    }
+
+    /**
+     * Filter index over the current open gigs, rebuilt on first use after a change.
+     */
+    public GigSearchIndex searchIndex() {
+        GigSearchIndex index = searchIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (writeLock) {
+            if (searchIndex == null) {
+                searchIndex = GigSearchIndex.build(gigs.values());
+            }
+            return searchIndex;
+        }
+    }
+
+    public boolean isBootstrapped() {
+        return lastReconciledAt != 0;
+    }
+
+    // Runs before MatchCacheInvalidator so recomputed matches already see the new gig
+    @EventListener
+    @Order(1)
+    public void onGigChanged(GigChangedEvent event) {
+        if (event.getGigId() == null) {
+            return;
+        }
+        GigSearchDTO gig = event.isRemoved() ? null
+                : event.getGig() != null ? event.getGig() : gigClient.getGigById(event.getGigId());
+        if (gig != null && gig.isPlaceholder()) {
+            // gig-service is down; the next reconcile picks the change up
+            skipped.increment();
+            return;
+        }
+
+        synchronized (writeLock) {
+            changedAt.put(event.getGigId(), System.currentTimeMillis());
+            if (gig != null && STATUS_OPEN.equals(gig.getStatus())) {
+                gig.setId(event.getGigId());
+                gigs.put(event.getGigId(), IndexedGig.of(gig, skillDictionary));
+                upserts.increment();
+            } else {
+                gigs.remove(event.getGigId());
+                removals.increment();
+            }
+            searchIndex = null;
+        }
+    }
+
+    /**
+     * Seeds the replica with gigs saved to disk, to serve until the first
+     * reconcile corrects it. Gigs already updated by events are kept.
+     */
+    public void restore(Collection<GigSearchDTO> saved) {
+        synchronized (writeLock) {
+            for (GigSearchDTO gig : saved) {
+                if (gig.getId() != null && STATUS_OPEN.equals(gig.getStatus())) {
+                    gigs.putIfAbsent(gig.getId(), IndexedGig.of(gig, skillDictionary));
+                }
+            }
+            searchIndex = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.gig-index.reconcile-interval:300000}")
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+        List<GigSearchDTO> openGigs = gigClient.getOpenGigs();
+        if (openGigs == null) {
+            // The fallback answered: keep serving the replica, not bootstrapped if it never was,
+            // and let the lag gauge show it is getting old
+            log.warn("gig-service is unavailable; keeping {} indexed gigs", gigs.size());
+            return;
+        }
+
+        Map<Long, IndexedGig> fetched = new ConcurrentHashMap<>();
+        for (GigSearchDTO gig : openGigs) {
+            if (gig.getId() != null) {
+                fetched.put(gig.getId(), IndexedGig.of(gig, skillDictionary));
+            }
+        }
+
+        // Changes nobody sent an event for; the bootstrap itself announces nothing
+        List<GigChangedEvent> changes = new ArrayList<>();
+        synchronized (writeLock) {
+            // Events applied while the list was in flight are newer than the list
+            for (Map.Entry<Long, Long> change : changedAt.entrySet()) {
+                if (change.getValue() >= startedAt) {
+                    IndexedGig current = gigs.get(change.getKey());
+                    if (current != null) {
+                        fetched.put(change.getKey(), current);
+                    } else {
+                        fetched.remove(change.getKey());
+                    }
+                }
+            }
+            changedAt.values().removeIf(time -> time < startedAt);
+            if (isBootstrapped()) {
+                diff(fetched, changes);
+            }
+            gigs.keySet().retainAll(fetched.keySet());
+            gigs.putAll(fetched);
+            searchIndex = null;
+        }
+        lastReconciledAt = startedAt;
+        // After the swap, so listeners see the reconciled replica
+        changes.forEach(eventPublisher::publishEvent);
+        log.debug("Reconciled open gig index: {} gigs in {} ms", gigs.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void diff(Map<Long, IndexedGig> fetched, List<GigChangedEvent> changes) {
+        for (Map.Entry<Long, IndexedGig> entry : fetched.entrySet()) {
+            IndexedGig current = gigs.get(entry.getKey());
+            if (current == null || !current.gig().equals(entry.getValue().gig())) {
+                changes.add(new GigChangedEvent(entry.getKey(), entry.getValue().gig(), false));
+            }
+        }
+        for (Long gigId : gigs.keySet()) {
+            if (!fetched.containsKey(gigId)) {
+                changes.add(new GigChangedEvent(gigId, null, true));
+            }
+        }
+    }
+}
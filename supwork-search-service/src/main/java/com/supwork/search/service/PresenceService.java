@@ -0,0 +1,344 @@
+package com.supwork.search.service;
+
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.index.PresenceMask;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.model.TechnicianProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live technician availability from heartbeats, shared by every instance.
+ * Deadlines live in one Redis sorted set scored by expiry time, so a
+ * heartbeat on any instance keeps the technician online everywhere and
+ * expiry only reads the entries that are due. The instance whose heartbeat
+ * added a technician, or whose removal took them out, owns the transition.
+ * <p>
+ * Every instance mirrors the online set in memory, since matching reads
+ * presence as a {@link PresenceMask} over the current snapshot. Transitions
+ * are coalesced per technician and written to Mongo as two multi-updates on a
+ * fixed delay. They are then broadcast to all instances, each of which
+ * applies them and publishes the usual {@link TechnicianChangedEvent}. A
+ * periodic read of the whole set repairs broadcasts missed while
+ * disconnected.
+ */
+@Service
+@Slf4j
+public class PresenceService {
+
+    static final String PRESENCE_KEY = "search:presence";
+    static final String CHANGES_CHANNEL = "search:presence:changes";
+    private static final int EXPIRE_BATCH = 1000;
+
+    // Atomic, so a heartbeat landing between the read and the removal is never dropped
+    private static final byte[] EXPIRE_SCRIPT = """
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #ids > 0 then redis.call('ZREM', KEYS[1], unpack(ids)) end
+            return ids""".getBytes(StandardCharsets.UTF_8);
+
+    private final MongoTemplate mongoTemplate;
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long ttlMs;
+    private final long tickMs;
+
+    private final Set<Long> online = ConcurrentHashMap.newKeySet();
+    // userId -> state to write; a technician flapping between flushes is written once
+    private final Map<Long, Boolean> pendingWrites = new ConcurrentHashMap<>();
+    private final Object maskLock = new Object();
+    private volatile PresenceMask mask;
+    private ScheduledExecutorService expiry;
+
+    private final Counter wentOnline;
+    private final Counter wentOffline;
+    private final Counter written;
+
+    public PresenceService(MongoTemplate mongoTemplate, RedisTemplate<String, byte[]> cacheRedisTemplate,
+                           RedisMessageListenerContainer cacheEvictionListener,
+                           ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                           @Value("${search.presence.enabled:false}") boolean enabled,
+                           @Value("${search.presence.ttl:90000}") long ttlMs,
+                           @Value("${search.presence.tick:1000}") long tickMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.tickMs = tickMs;
+        this.wentOnline = meterRegistry.counter("search.presence.transitions", "state", "online");
+        this.wentOffline = meterRegistry.counter("search.presence.transitions", "state", "offline");
+        this.written = meterRegistry.counter("search.presence.writes");
+        meterRegistry.gauge("search.presence.online", online, Set::size);
+        if (enabled) {
+            cacheEvictionListener.addMessageListener(
+                    (message, pattern) -> onChangeMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(CHANGES_CHANNEL));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gives technicians stored as available one TTL to send a heartbeat, unless
+     * they are already tracked, then starts expiry on a thread of its own so
+     * the shared scheduler's jobs never delay it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Query query = new Query(Criteria.where("isAvailable").is(true));
+        query.fields().include("userId");
+        long deadline = System.currentTimeMillis() + ttlMs;
+        List<TechnicianProfile> available = mongoTemplate.find(query, TechnicianProfile.class);
+        cacheRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (TechnicianProfile technician : available) {
+                if (technician.getUserId() != null) {
+                    connection.zSetCommands().zAdd(bytes(PRESENCE_KEY), deadline, bytes(technician.getUserId()),
+                            RedisZSetCommands.ZAddArgs.ifNotExists());
+                }
+            }
+            return null;
+        });
+        sync();
+        log.info("Seeded presence with {} available technicians, {} online", available.size(), online.size());
+
+        expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiry.scheduleAtFixedRate(() -> {
+            try {
+                expire();
+            } catch (RuntimeException e) {
+                log.warn("Presence expiry failed: {}", e.getMessage());
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (expiry != null) {
+            expiry.shutdownNow();
+        }
+    }
+
+    /**
+     * @return {@code false} if presence tracking is disabled
+     */
+    public boolean heartbeat(Long userId) {
+        if (!enabled) {
+            return false;
+        }
+        long deadline = System.currentTimeMillis() + ttlMs;
+        Boolean added = cacheRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.zSetCommands().zAdd(bytes(PRESENCE_KEY), deadline, bytes(userId)));
+        if (Boolean.TRUE.equals(added)) {
+            transition(userId, true);
+        }
+        return true;
+    }
+
+    /**
+     * Takes a technician offline without waiting for the TTL, when they end their shift.
+     *
+     * @return {@code false} if presence tracking is disabled
+     */
+    public boolean goOffline(Long userId) {
+        if (!enabled) {
+            return false;
+        }
+        Long removed = cacheRedisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zRem(bytes(PRESENCE_KEY), bytes(userId)));
+        if (removed != null && removed > 0) {
+            transition(userId, false);
+        }
+        return true;
+    }
+
+    public boolean isOnline(Long userId) {
+        return !enabled || online.contains(userId);
+    }
+
+    /**
+     * @return the online mask for {@code snapshot}, or {@code null} when presence is disabled
+     */
+    public PresenceMask mask(TechnicianSnapshot snapshot) {
+        if (!enabled) {
+            return null;
+        }
+        PresenceMask current = mask;
+        if (current != null && current.snapshot() == snapshot) {
+            return current;
+        }
+        // Built under the lock that transitions take, so none is lost between the copy and the swap
+        synchronized (maskLock) {
+            if (mask == null || mask.snapshot() != snapshot) {
+                PresenceMask built = new PresenceMask(snapshot);
+                for (Long userId : online) {
+                    built.set(userId, true);
+                }
+                mask = built;
+            }
+            return mask;
+        }
+    }
+
+    // Whichever instance removes a due entry owns its offline transition
+    public void expire() {
+        byte[] now = bytes(System.currentTimeMillis());
+        byte[] batch = bytes(EXPIRE_BATCH);
+        List<byte[]> expired;
+        do {
+            expired = cacheRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.scriptingCommands().eval(EXPIRE_SCRIPT, ReturnType.MULTI, 1,
+                            bytes(PRESENCE_KEY), now, batch));
+            if (expired == null) {
+                return;
+            }
+            for (byte[] userId : expired) {
+                transition(Long.valueOf(new String(userId, StandardCharsets.UTF_8)), false);
+            }
+        } while (expired.size() == EXPIRE_BATCH);
+    }
+
+    // Repairs the local copy from the shared set, for broadcasts missed while disconnected
+    @Scheduled(initialDelayString = "${search.presence.sync-interval:30000}",
+            fixedDelayString = "${search.presence.sync-interval:30000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        Set<byte[]> members = cacheRedisTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.zSetCommands().zRangeByScore(bytes(PRESENCE_KEY),
+                        Range.rightUnbounded(Range.Bound.inclusive(System.currentTimeMillis()))));
+        if (members == null) {
+            return;
+        }
+        Set<Long> shared = new HashSet<>(members.size() * 2);
+        for (byte[] member : members) {
+            shared.add(Long.valueOf(new String(member, StandardCharsets.UTF_8)));
+        }
+        for (Long userId : online) {
+            if (!shared.contains(userId)) {
+                apply(userId, false);
+            }
+        }
+        for (Long userId : shared) {
+            if (!online.contains(userId)) {
+                apply(userId, true);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.presence.flush-interval:5000}")
+    public void flush() {
+        List<Long> wentOn = new ArrayList<>();
+        List<Long> wentOff = new ArrayList<>();
+        for (Long userId : pendingWrites.keySet()) {
+            Boolean state = pendingWrites.remove(userId);
+            if (state != null) {
+                (state ? wentOn : wentOff).add(userId);
+            }
+        }
+        if (wentOn.isEmpty() && wentOff.isEmpty()) {
+            return;
+        }
+        try {
+            write(wentOn, true);
+            write(wentOff, false);
+        } catch (RuntimeException e) {
+            // Requeue unless a newer transition has arrived meanwhile
+            wentOn.forEach(userId -> pendingWrites.putIfAbsent(userId, true));
+            wentOff.forEach(userId -> pendingWrites.putIfAbsent(userId, false));
+            throw e;
+        }
+        written.increment(wentOn.size() + wentOff.size());
+        // Broadcast after the write, so listeners reloading the profile read the new state
+        cacheRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            wentOn.forEach(userId -> connection.publish(bytes(CHANGES_CHANNEL), bytes("+" + userId)));
+            wentOff.forEach(userId -> connection.publish(bytes(CHANGES_CHANNEL), bytes("-" + userId)));
+            return null;
+        });
+        log.debug("Wrote presence for {} online and {} offline technicians", wentOn.size(), wentOff.size());
+    }
+
+    /**
+     * Applies a transition broadcast by any instance, this one included.
+     */
+    void onChangeMessage(String body) {
+        boolean nowOnline = body.charAt(0) == '+';
+        Long userId = Long.valueOf(body.substring(1));
+        // A transition of our own still waiting to be written is newer than the message
+        if (!pendingWrites.containsKey(userId)) {
+            apply(userId, nowOnline);
+        }
+        eventPublisher.publishEvent(new TechnicianChangedEvent(userId));
+    }
+
+    private void write(List<Long> userIds, boolean available) {
+        if (!userIds.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("userId").in(userIds)),
+                    Update.update("isAvailable", available), TechnicianProfile.class);
+        }
+    }
+
+    private void transition(Long userId, boolean nowOnline) {
+        apply(userId, nowOnline);
+        pendingWrites.put(userId, nowOnline);
+        (nowOnline ? wentOnline : wentOffline).increment();
+    }
+
+    private void apply(Long userId, boolean nowOnline) {
+        synchronized (maskLock) {
+            if (nowOnline) {
+                online.add(userId);
+            } else {
+                online.remove(userId);
+            }
+            PresenceMask current = mask;
+            if (current != null) {
+                current.set(userId, nowOnline);
+            }
+        }
+    }
+
+    private static byte[] bytes(Object value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
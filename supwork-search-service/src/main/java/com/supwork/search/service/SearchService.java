@@ -1,20 +1,37 @@
 package com.supwork.search.service;
 
+import com.supwork.search.index.GeoMath;
+import com.supwork.search.index.GigQuery;
+import com.supwork.search.index.GigSearchIndex;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.SkillSet;
 import com.supwork.search.model.GigSearchDTO;
 import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.model.TechnicianSlice;
 import com.supwork.search.repository.TechnicianProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -23,20 +40,30 @@ public class SearchService {
     
     private final TechnicianProfileRepository technicianProfileRepository;
     private final MongoTemplate mongoTemplate;
+    private final OpenGigIndex openGigIndex;
+    private final SkillDictionary skillDictionary;
+    private final ThreadPoolTaskExecutor searchCountExecutor;
+    private final TechnicianTextIndex technicianTextIndex;
+    
+    private static final Set<String> SLICE_SORT_FIELDS = Set.of("id", "rating", "userId");
+    
+    @Value("${search.technicians.count-limit:0}")
+    private int countLimit;
     
     public Page<TechnicianProfile> searchTechnicians(List<String> skills, String location, 
                                                    Double minRating, Double maxDistance, Pageable pageable) {
         
         Query query = new Query();
+        Query countQuery = new Query();
         
         // Skills filter
         if (skills != null && !skills.isEmpty()) {
-            query.addCriteria(Criteria.where("skills").in(skills));
+            addCriteria(query, countQuery, Criteria.where("skills").in(skills));
         }
         
         // Rating filter
         if (minRating != null) {
-            query.addCriteria(Criteria.where("rating").gte(minRating));
+            addCriteria(query, countQuery, Criteria.where("rating").gte(minRating));
         }
         
         // Location filter (if maxDistance is specified)
@@ -47,8 +74,17 @@ public class SearchService {
                     double lat = Double.parseDouble(coords[0]);
                     double lng = Double.parseDouble(coords[1]);
                     
-                    // Add location-based criteria (simplified - in real app would use geo queries)
-                    query.addCriteria(Criteria.where("location").exists(true));
+                    GeoJsonPoint origin = new GeoJsonPoint(lng, lat);
+                    Criteria within = Criteria.where("position")
+                            .withinSphere(new Circle(new Point(lng, lat), maxDistance / GeoMath.EARTH_RADIUS_KM));
+                    
+                    // $nearSphere returns nearest first but is not allowed in count; an explicit sort wins over distance order
+                    if (pageable.getSort().isSorted()) {
+                        query.addCriteria(within);
+                    } else {
+                        query.addCriteria(Criteria.where("position").nearSphere(origin).maxDistance(maxDistance * 1000));
+                    }
+                    countQuery.addCriteria(within);
                 } catch (NumberFormatException e) {
                     log.warn("Invalid location format: {}", location);
                 }
@@ -56,22 +92,186 @@ public class SearchService {
         }
         
         // Availability filter
-        query.addCriteria(Criteria.where("isAvailable").is(true));
+        addCriteria(query, countQuery, Criteria.where("isAvailable").is(true));
         
-        long total = mongoTemplate.count(query, TechnicianProfile.class);
+        // Count alongside the page query; past count-limit matches it stops early and the total is a lower bound
+        if (countLimit > 0) {
+            countQuery.limit(countLimit);
+        }
+        CompletableFuture<Long> total = CompletableFuture.supplyAsync(
+                () -> mongoTemplate.count(countQuery, TechnicianProfile.class), searchCountExecutor);
         
         query.with(pageable);
         List<TechnicianProfile> results = mongoTemplate.find(query, TechnicianProfile.class);
         
-        return new org.springframework.data.domain.PageImpl<>(results, pageable, total);
+        return new org.springframework.data.domain.PageImpl<>(results, pageable, total.join());
+    }
+    
+    /**
+     * Full-text variant of {@link #searchTechnicians}: {@code text} is matched
+     * against name, bio and skills in the Lucene index and ranked by relevance
+     * and rating unless the pageable sorts by rating or distance.
+     */
+    public Page<TechnicianProfile> searchTechniciansByText(String text, List<String> skills, String location,
+                                                           Double minRating, Double maxDistance, Pageable pageable) {
+        double[] origin = location != null ? GeoMath.parseLocation(location) : null;
+        if (origin != null && Double.isNaN(origin[0])) {
+            log.warn("Invalid location format: {}", location);
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        Page<String> ids = technicianTextIndex.search(text, skills, minRating, origin, maxDistance,
+                order != null ? order.getProperty() : null, order != null && order.isDescending(), pageable);
+        
+        Map<String, TechnicianProfile> profiles = new HashMap<>();
+        for (TechnicianProfile profile : technicianProfileRepository.findAllById(ids.getContent())) {
+            profiles.put(profile.getId(), profile);
+        }
+        // Keep the index's order; a profile deleted since the last refresh is dropped
+        List<TechnicianProfile> results = new ArrayList<>(ids.getNumberOfElements());
+        for (String id : ids) {
+            TechnicianProfile profile = profiles.get(id);
+            if (profile != null) {
+                results.add(profile);
+            }
+        }
+        return new org.springframework.data.domain.PageImpl<>(results, pageable, ids.getTotalElements());
     }
     
-    public Page<GigSearchDTO> searchGigs(String title, List<String> skills, String location, 
+    /**
+     * Keyset-paginated variant of {@link #searchTechnicians}: no count, and each
+     * slice continues after the previous one's last row instead of skipping, so
+     * deep slices are as cheap as the first. Only rating and userId (or no sort,
+     * meaning insertion order) can be sorted on.
+     */
+    public TechnicianSlice searchTechniciansSlice(List<String> skills, String location, Double minRating,
+                                                  Double maxDistance, int size, String sortBy, String sortDir,
+                                                  String cursor) {
+        String sortField = sortBy == null || sortBy.isEmpty() ? "id" : sortBy;
+        if (!SLICE_SORT_FIELDS.contains(sortField)) {
+            throw new InvalidRequestException("Slices can only be sorted by rating or userId");
+        }
+        boolean descending = "desc".equalsIgnoreCase(sortDir) && !"id".equals(sortField);
+        
+        Query query = new Query();
+        if (skills != null && !skills.isEmpty()) {
+            query.addCriteria(Criteria.where("skills").in(skills));
+        }
+        if (minRating != null) {
+            query.addCriteria(Criteria.where("rating").gte(minRating));
+        }
+        if (location != null && maxDistance != null) {
+            double[] origin = GeoMath.parseLocation(location);
+            if (Double.isNaN(origin[0])) {
+                log.warn("Invalid location format: {}", location);
+            } else {
+                query.addCriteria(Criteria.where("position").withinSphere(
+                        new Circle(new Point(origin[1], origin[0]), maxDistance / GeoMath.EARTH_RADIUS_KM)));
+            }
+        }
+        query.addCriteria(Criteria.where("isAvailable").is(true));
+        
+        if (cursor != null && !cursor.isEmpty()) {
+            TechnicianCursor position = TechnicianCursor.decode(cursor);
+            if (!position.sortField().equals(sortField) || position.descending() != descending) {
+                throw new InvalidRequestException("Cursor was issued for a different sort");
+            }
+            query.addCriteria(after(position));
+        }
+        
+        // _id breaks ties so the continuation point is unique
+        Sort sort = "id".equals(sortField)
+                ? Sort.by(Sort.Direction.ASC, "id")
+                : Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, sortField).and(Sort.by("id"));
+        query.with(sort).limit(size + 1);
+        
+        List<TechnicianProfile> results = mongoTemplate.find(query, TechnicianProfile.class);
+        boolean hasNext = results.size() > size;
+        if (hasNext) {
+            results = results.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            TechnicianProfile last = results.get(results.size() - 1);
+            Object lastValue = switch (sortField) {
+                case "rating" -> last.getRating();
+                case "userId" -> last.getUserId();
+                default -> null;
+            };
+            nextCursor = new TechnicianCursor(sortField, descending, lastValue, last.getId()).encode();
+        }
+        
+        return TechnicianSlice.builder()
+                .content(results)
+                .size(results.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    // Rows strictly after the cursor in (sortField, _id) order; Mongo sorts missing values lowest
+    private static Criteria after(TechnicianCursor cursor) {
+        Criteria afterId = Criteria.where("id").gt(new ObjectId(cursor.lastId()));
+        if ("id".equals(cursor.sortField())) {
+            return afterId;
+        }
+        String field = cursor.sortField();
+        Object value = cursor.lastValue();
+        if (value == null) {
+            Criteria sameNullPastId = new Criteria().andOperator(Criteria.where(field).is(null), afterId);
+            return cursor.descending()
+                    ? sameNullPastId
+                    : new Criteria().orOperator(sameNullPastId, Criteria.where(field).ne(null));
+        }
+        Criteria sameValuePastId = new Criteria().andOperator(Criteria.where(field).is(value), afterId);
+        return cursor.descending()
+                ? new Criteria().orOperator(Criteria.where(field).lt(value), sameValuePastId, Criteria.where(field).is(null))
+                : new Criteria().orOperator(Criteria.where(field).gt(value), sameValuePastId);
+    }
+    
+    private void addCriteria(Query query, Query countQuery, Criteria criteria) {
+        query.addCriteria(criteria);
+        countQuery.addCriteria(criteria);
+    }
+    
+    public Page<GigSearchDTO> searchGigs(String title, List<String> skills, String location, Double maxDistance,
                                         Double minBudget, Double maxBudget, Pageable pageable) {
         
-        // This would typically query the gig service via Feign client
-        // For now, return empty page as gigs are stored in gig-service
-        return new org.springframework.data.domain.PageImpl<>(List.of(), pageable, 0);
+        // Served from the local open-gig replica; gig-service is not called
+        GigQuery.GigQueryBuilder query = GigQuery.builder()
+                .titleTokens(GigSearchIndex.tokenize(title))
+                .minBudget(minBudget)
+                .maxBudget(maxBudget);
+        
+        // Skills filter; skills no gig has ever used cannot match
+        if (skills != null && !skills.isEmpty()) {
+            query.skillIds(SkillSet.lookup(skills, skillDictionary));
+        }
+        
+        // Location orders by distance; maxDistance also filters
+        if (location != null) {
+            double[] origin = GeoMath.parseLocation(location);
+            if (Double.isNaN(origin[0])) {
+                log.warn("Invalid location format: {}", location);
+            } else {
+                query.latitude(origin[0]).longitude(origin[1]).radiusKm(maxDistance);
+            }
+        }
+        
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        if (order != null) {
+            query.sortBy(order.getProperty()).descending(order.isDescending());
+        }
+        
+        GigSearchIndex index = openGigIndex.searchIndex();
+        int[] rows = index.search(query.build());
+        
+        int from = (int) Math.min(pageable.getOffset(), rows.length);
+        int to = Math.min(from + pageable.getPageSize(), rows.length);
+        List<GigSearchDTO> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            results.add(index.gig(rows[i]).gig());
+        }
+        return new org.springframework.data.domain.PageImpl<>(results, pageable, rows.length);
     }
     
     public Pageable createPageable(int page, int size, String sortBy, String sortDir) {
@@ -0,0 +1,134 @@
+package com.supwork.search.service;
+
+import com.supwork.search.index.GeoBox;
+import com.supwork.search.index.ShardMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Geographic sharding of the technician snapshot. Each instance owns the
+ * geohash prefixes in {@code search.shard.prefixes} and publishes them as
+ * the {@code shards} Eureka metadata entry; with none configured it owns
+ * everything and nothing is routed. Routing reads the other instances'
+ * prefixes from the discovery client, refreshed on a fixed delay.
+ */
+@Service
+@Slf4j
+public class ShardRouter {
+
+    static final String METADATA_KEY = "shards";
+
+    private final DiscoveryClient discoveryClient;
+    private final String serviceId;
+    private final ShardMap local;
+
+    private volatile Map<String, List<ServiceInstance>> owners = Map.of();
+    private volatile ShardMap known;
+
+    private final Counter uncovered;
+
+    public ShardRouter(DiscoveryClient discoveryClient, MeterRegistry meterRegistry,
+                       @Value("${spring.application.name}") String serviceId,
+                       @Value("${search.shard.prefixes:}") List<String> prefixes) {
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.local = ShardMap.of(prefixes);
+        this.known = local;
+        this.uncovered = meterRegistry.counter("search.shard.uncovered");
+    }
+
+    public boolean isSharded() {
+        return !local.isEmpty();
+    }
+
+    /**
+     * @return whether a technician at this position belongs in the local snapshot
+     */
+    public boolean owns(double latitude, double longitude) {
+        return local.isEmpty() || local.covers(latitude, longitude);
+    }
+
+    @Scheduled(fixedDelayString = "${search.shard.refresh-interval:30000}")
+    public void refresh() {
+        if (!isSharded()) {
+            return;
+        }
+        Map<String, List<ServiceInstance>> discovered = new HashMap<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            String shards = instance.getMetadata().get(METADATA_KEY);
+            if (shards == null) {
+                continue;
+            }
+            for (String prefix : ShardMap.of(List.of(shards.split(","))).prefixes()) {
+                discovered.computeIfAbsent(prefix, key -> new ArrayList<>()).add(instance);
+            }
+        }
+        Set<String> prefixes = new LinkedHashSet<>(local.prefixes());
+        prefixes.addAll(discovered.keySet());
+        owners = discovered;
+        known = ShardMap.of(prefixes);
+    }
+
+    /**
+     * Shards whose area intersects {@code box}: the local one if it is among
+     * them, and one instance per other shard, picked at random among its
+     * replicas. An instance owning several of the shards is called once.
+     */
+    public Route route(GeoBox box) {
+        Map<String, List<ServiceInstance>> current = owners;
+        boolean includesLocal = false;
+        Set<URI> remote = new LinkedHashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String prefix : known.overlapping(box)) {
+            if (local.contains(prefix)) {
+                includesLocal = true;
+                continue;
+            }
+            List<ServiceInstance> instances = current.get(prefix);
+            if (instances == null || instances.isEmpty()) {
+                missing.add(prefix);
+            } else {
+                remote.add(instances.get(ThreadLocalRandom.current().nextInt(instances.size())).getUri());
+            }
+        }
+        if (!missing.isEmpty()) {
+            uncovered.increment();
+            log.warn("No search-service instance owns shards {}; their technicians are left out", missing);
+        }
+        return new Route(includesLocal, List.copyOf(remote));
+    }
+
+    public static final class Route {
+
+        private final boolean local;
+        private final List<URI> remote;
+
+        Route(boolean local, List<URI> remote) {
+            this.local = local;
+            this.remote = remote;
+        }
+
+        public boolean local() {
+            return local;
+        }
+
+        public List<URI> remote() {
+            return remote;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.supwork.search.service;
+
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.SkillSuggester;
+import com.supwork.search.model.SkillSuggestion;
+import com.supwork.search.model.TechnicianProfile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves skill autocompletion from a {@link SkillSuggester} weighted by how
+ * many technicians list each skill and how many open gigs require it. The
+ * suggester is rebuilt off the request path on a fixed delay. Every interval
+ * rebuilds it, since profiles are also written by other services and raise
+ * no local event, and the build costs one grouped aggregation plus a pass
+ * over the open-gig replica.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SkillSuggestService {
+
+    private final MongoTemplate mongoTemplate;
+    private final OpenGigIndex openGigIndex;
+
+    private volatile SkillSuggester suggester = SkillSuggester.EMPTY;
+
+    public List<SkillSuggestion> suggest(String prefix, int limit) {
+        return suggester.suggest(prefix, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${search.skills.suggest-refresh-interval:60000}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        suggester = SkillSuggester.build(countUsage());
+        log.debug("Built skill suggester with {} skills in {} ms", suggester.size(), System.currentTimeMillis() - start);
+    }
+
+    private Map<String, Long> countUsage() {
+        // Counted in Mongo so only one row per distinct skill comes back
+        Map<String, Long> usage = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.unwind("skills"),
+                Aggregation.group("skills").count().as("count"));
+        for (Document row : mongoTemplate.aggregate(aggregation, TechnicianProfile.class, Document.class)) {
+            if (row.get("_id") instanceof String skill) {
+                usage.merge(skill, ((Number) row.get("count")).longValue(), Long::sum);
+            }
+        }
+        for (IndexedGig gig : openGigIndex.values()) {
+            if (gig.gig().getSkills() != null) {
+                for (String skill : gig.gig().getSkills()) {
+                    if (skill != null) {
+                        usage.merge(skill, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+        return usage;
+    }
+}
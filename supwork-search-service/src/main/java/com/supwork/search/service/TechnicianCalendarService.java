@@ -0,0 +1,166 @@
+package com.supwork.search.service;
+
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.index.IntervalSet;
+import com.supwork.search.model.CalendarSlot;
+import com.supwork.search.model.TechnicianCalendar;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Technician availability calendars. Mongo holds each technician's busy
+ * slots; matching reads an in-memory {@link IntervalSet} of each technician's
+ * future busy time, so checking a candidate against a gig's window is one
+ * binary search. Technicians without a calendar are always free.
+ * <p>
+ * A reservation is a single conditional upsert that only matches when no
+ * stored slot overlaps the new one, so two instances racing for the same
+ * technician cannot both win. The in-memory sets are refreshed for the
+ * technician after every change made here and reloaded in full on a fixed
+ * delay to pick up changes made by other instances.
+ */
+@Service
+@Slf4j
+public class TechnicianCalendarService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Map<Long, IntervalSet> busy = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private final Counter reserved;
+    private final Counter conflicts;
+
+    public TechnicianCalendarService(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.reserved = meterRegistry.counter("search.calendar.reservations", "result", "reserved");
+        this.conflicts = meterRegistry.counter("search.calendar.reservations", "result", "conflict");
+        meterRegistry.gauge("search.calendar.technicians", this, service -> service.busy.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.calendar.reload-interval:60000}",
+            fixedDelayString = "${search.calendar.reload-interval:60000}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        // Calendars with only past slots cannot block anything
+        Query query = new Query(Criteria.where("slots.end").gt(Instant.ofEpochMilli(start)));
+        Map<Long, IntervalSet> loaded = new ConcurrentHashMap<>();
+        for (TechnicianCalendar calendar : mongoTemplate.find(query, TechnicianCalendar.class)) {
+            IntervalSet intervals = futureIntervals(calendar, start);
+            if (intervals.size() > 0) {
+                loaded.put(calendar.getUserId(), intervals);
+            }
+        }
+        busy = loaded;
+        this.loaded = true;
+        log.debug("Loaded {} technician calendars in {} ms", loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return whether the technician has nothing booked in {@code [start, end)}, in epoch milliseconds
+     */
+    public boolean isFree(long userId, long start, long end) {
+        IntervalSet intervals = busy.get(userId);
+        return intervals == null || !intervals.overlaps(start, end);
+    }
+
+    public TechnicianCalendar get(Long userId) {
+        TechnicianCalendar calendar = mongoTemplate.findById(userId, TechnicianCalendar.class);
+        return calendar != null ? calendar : TechnicianCalendar.builder().userId(userId).build();
+    }
+
+    /**
+     * Adds the slot unless it overlaps one already in the technician's calendar.
+     *
+     * @return {@code false} on overlap
+     */
+    public boolean reserve(Long userId, CalendarSlot slot) {
+        if (!slot.getEnd().isAfter(slot.getStart())) {
+            throw new InvalidRequestException("Slot end must be after its start");
+        }
+        try {
+            // Without a match the upsert inserts a second document with the same _id, which fails
+            mongoTemplate.upsert(reserveQuery(userId, slot.getStart(), slot.getEnd()),
+                    new Update().push("slots", slot), TechnicianCalendar.class);
+        } catch (DuplicateKeyException e) {
+            conflicts.increment();
+            return false;
+        }
+        reserved.increment();
+        changed(userId);
+        return true;
+    }
+
+    /**
+     * Frees the slot reserved for a gig.
+     *
+     * @return {@code false} if the technician had no slot for it
+     */
+    public boolean release(Long userId, Long gigId) {
+        boolean removed = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                new Update().pull("slots", new Document("gigId", gigId)),
+                TechnicianCalendar.class).getModifiedCount() > 0;
+        if (removed) {
+            changed(userId);
+        }
+        return removed;
+    }
+
+    static Query reserveQuery(Long userId, Instant start, Instant end) {
+        return new Query(Criteria.where("_id").is(userId)
+                .and("slots").not().elemMatch(Criteria.where("start").lt(end).and("end").gt(start)));
+    }
+
+    // Cached matches and precomputed recommendations that include the technician are recomputed
+    private void changed(Long userId) {
+        TechnicianCalendar calendar = mongoTemplate.findById(userId, TechnicianCalendar.class);
+        IntervalSet intervals = calendar != null ? futureIntervals(calendar, System.currentTimeMillis()) : IntervalSet.EMPTY;
+        if (intervals.size() > 0) {
+            busy.put(userId, intervals);
+        } else {
+            busy.remove(userId);
+        }
+        eventPublisher.publishEvent(new TechnicianChangedEvent(userId));
+    }
+
+    private static IntervalSet futureIntervals(TechnicianCalendar calendar, long now) {
+        List<CalendarSlot> slots = calendar.getSlots() != null ? calendar.getSlots() : List.of();
+        long[] starts = new long[slots.size()];
+        long[] ends = new long[slots.size()];
+        int count = 0;
+        for (CalendarSlot slot : slots) {
+            if (slot.getStart() != null && slot.getEnd() != null && slot.getEnd().toEpochMilli() > now) {
+                starts[count] = slot.getStart().toEpochMilli();
+                ends[count] = slot.getEnd().toEpochMilli();
+                count++;
+            }
+        }
+        return IntervalSet.of(starts, ends, count);
+    }
+}
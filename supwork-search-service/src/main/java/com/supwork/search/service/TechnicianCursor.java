@@ -0,0 +1,76 @@
+package com.supwork.search.service;
+
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for technician slices: the sort field and direction
+ * it was issued for, plus the sort value and {@code _id} of the last row
+ * returned. The next slice starts strictly after that row, so it costs the
+ * same however deep it is.
+ */
+final class TechnicianCursor {
+
+    private static final String VERSION = "1";
+
+    private final String sortField;
+    private final boolean descending;
+    private final Object lastValue; // null when the last row had no value
+    private final String lastId;
+
+    TechnicianCursor(String sortField, boolean descending, Object lastValue, String lastId) {
+        this.sortField = sortField;
+        this.descending = descending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    String encode() {
+        String value = lastValue == null ? "n:"
+                : lastValue instanceof Long ? "l:" + lastValue
+                : "d:" + lastValue;
+        String raw = String.join("|", VERSION, sortField, descending ? "desc" : "asc", value, lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    static TechnicianCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !ObjectId.isValid(parts[4])) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            String value = parts[3];
+            Object lastValue = switch (value.substring(0, 2)) {
+                case "n:" -> null;
+                case "l:" -> Long.parseLong(value.substring(2));
+                case "d:" -> Double.parseDouble(value.substring(2));
+                default -> throw new InvalidRequestException("Invalid cursor");
+            };
+            return new TechnicianCursor(parts[1], "desc".equals(parts[2]), lastValue, parts[4]);
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor", e);
+        }
+    }
+
+    String sortField() {
+        return sortField;
+    }
+
+    boolean descending() {
+        return descending;
+    }
+
+    Object lastValue() {
+        return lastValue;
+    }
+
+    String lastId() {
+        return lastId;
+    }
+}
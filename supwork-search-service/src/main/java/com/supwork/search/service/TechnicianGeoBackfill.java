@@ -0,0 +1,95 @@
+package com.supwork.search.service;
+
+import com.supwork.search.model.TechnicianProfile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Ensures the 2dsphere index on {@code technician_profiles.position} and fills
+ * {@code position} from the legacy "lat,lng" {@code location} string for
+ * documents written before the field existed. Saves through this service keep
+ * the field in sync themselves; the fill repeats on a fixed delay for
+ * profiles written by other services, and also clears positions at 0,0.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "search.geo.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+public class TechnicianGeoBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        mongoTemplate.indexOps(TechnicianProfile.class)
+                .ensureIndex(new GeospatialIndex("position").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+        backfill();
+    }
+
+    @Scheduled(initialDelayString = "${search.geo.backfill-interval:600000}",
+            fixedDelayString = "${search.geo.backfill-interval:600000}")
+    public void backfill() {
+        Query query = new Query(Criteria.where("location").exists(true).orOperator(
+                Criteria.where("position").exists(false),
+                Criteria.where("position.coordinates").is(List.of(0.0, 0.0))));
+        query.fields().include("location").include("position");
+        query.cursorBatchSize(BATCH_SIZE);
+
+        int updated = 0;
+        int skipped = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TechnicianProfile.class);
+        int pending = 0;
+
+        try (Stream<TechnicianProfile> stream = mongoTemplate.stream(query, TechnicianProfile.class)) {
+            Iterator<TechnicianProfile> profiles = stream.iterator();
+            while (profiles.hasNext()) {
+                TechnicianProfile profile = profiles.next();
+                GeoJsonPoint position = TechnicianProfile.toPosition(profile.getLocation());
+                Update update;
+                if (position != null) {
+                    update = new Update().set("position", position);
+                } else if (profile.getPosition() != null) {
+                    update = new Update().unset("position");
+                } else {
+                    skipped++;
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(profile.getId())), update);
+                if (++pending == BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TechnicianProfile.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+
+        if (updated > 0) {
+            log.info("Backfilled position for {} technician profiles, skipped {} with unusable locations",
+                    updated, skipped);
+        } else if (skipped > 0) {
+            log.debug("Skipped {} technician profiles with unusable locations", skipped);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.supwork.search.service;
+
+import com.supwork.search.model.ReindexCheckpoint;
+import com.supwork.search.model.TechnicianProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes the derived fields of every technician profile: the GeoJSON
+ * {@code position} from {@code location}, and trimmed, de-duplicated
+ * {@code skills}. Pages are read in {@code _id} order by a single coordinator
+ * and rewritten on the reindex pool with unordered bulk updates. The
+ * checkpoint only advances past a page once it and every page before it are
+ * written, so a run interrupted at any point resumes without gaps.
+ */
+@Service
+@Slf4j
+public class TechnicianReindexJob {
+
+    static final String JOB_ID = "technician_profiles";
+
+    private final MongoTemplate mongoTemplate;
+    private final ThreadPoolTaskExecutor reindexExecutor;
+    private final TechnicianTextIndex technicianTextIndex;
+    private final int pageSize;
+    private final int maxInFlight;
+    private final double maxDocsPerSecond;
+
+    private final Counter processedCounter;
+    private final Counter modifiedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ReindexCheckpoint checkpoint;
+    private volatile long runStartedNanos;
+    private volatile long runProcessed;
+
+    public TechnicianReindexJob(MongoTemplate mongoTemplate, ThreadPoolTaskExecutor reindexExecutor,
+                                TechnicianTextIndex technicianTextIndex, MeterRegistry meterRegistry,
+                                @Value("${search.reindex.page-size:500}") int pageSize,
+                                @Value("${search.reindex.threads:4}") int threads,
+                                @Value("${search.reindex.max-docs-per-second:2000}") double maxDocsPerSecond) {
+        this.mongoTemplate = mongoTemplate;
+        this.reindexExecutor = reindexExecutor;
+        this.technicianTextIndex = technicianTextIndex;
+        this.pageSize = pageSize;
+        this.maxInFlight = threads * 2;
+        this.maxDocsPerSecond = maxDocsPerSecond;
+        this.processedCounter = meterRegistry.counter("search.reindex.documents", "result", "processed");
+        this.modifiedCounter = meterRegistry.counter("search.reindex.documents", "result", "modified");
+        meterRegistry.gauge("search.reindex.running", running, flag -> flag.get() ? 1 : 0);
+    }
+
+    // A run that was RUNNING when the process died picks up where it stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        ReindexCheckpoint saved = mongoTemplate.findById(JOB_ID, ReindexCheckpoint.class);
+        if (saved != null && saved.getStatus() == ReindexCheckpoint.Status.RUNNING) {
+            log.info("Resuming interrupted technician reindex after {}", saved.getLastId());
+            start(false);
+        }
+    }
+
+    /**
+     * Starts a run in the background, resuming an interrupted or failed one
+     * unless {@code restart} is set.
+     *
+     * @return {@code false} if a run is already in progress
+     */
+    public boolean start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread coordinator = new Thread(() -> {
+            try {
+                run(restart);
+            } finally {
+                running.set(false);
+            }
+        }, "technician-reindex");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        ReindexCheckpoint current = checkpoint != null ? checkpoint : mongoTemplate.findById(JOB_ID, ReindexCheckpoint.class);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        if (current == null) {
+            return status;
+        }
+        long total = mongoTemplate.estimatedCount(TechnicianProfile.class);
+        status.put("status", current.getStatus());
+        status.put("processed", current.getProcessed());
+        status.put("modified", current.getModified());
+        status.put("total", total);
+        status.put("progress", total > 0 ? Math.min(1.0, (double) current.getProcessed() / total) : 1.0);
+        if (running.get()) {
+            double seconds = (System.nanoTime() - runStartedNanos) / 1e9;
+            status.put("docsPerSecond", seconds > 0 ? runProcessed / seconds : 0.0);
+        }
+        status.put("lastId", current.getLastId());
+        status.put("startedAt", current.getStartedAt());
+        status.put("updatedAt", current.getUpdatedAt());
+        return status;
+    }
+
+    private void run(boolean restart) {
+        ReindexCheckpoint saved = restart ? null : mongoTemplate.findById(JOB_ID, ReindexCheckpoint.class);
+        if (saved == null || saved.getStatus() == ReindexCheckpoint.Status.COMPLETED) {
+            saved = ReindexCheckpoint.builder().id(JOB_ID).startedAt(Instant.now()).build();
+        }
+        saved.setStatus(ReindexCheckpoint.Status.RUNNING);
+        checkpoint = mongoTemplate.save(saved);
+        runStartedNanos = System.nanoTime();
+        runProcessed = 0;
+        long modifiedBefore = checkpoint.getModified();
+
+        Deque<PageWrite> inFlight = new ArrayDeque<>();
+        long submitted = 0;
+        try {
+            String lastId = checkpoint.getLastId();
+            while (true) {
+                Query query = new Query();
+                if (lastId != null) {
+                    query.addCriteria(Criteria.where("_id").gt(new ObjectId(lastId)));
+                }
+                query.with(Sort.by("_id")).limit(pageSize);
+                List<TechnicianProfile> page = mongoTemplate.find(query, TechnicianProfile.class);
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).getId();
+                inFlight.add(new PageWrite(lastId, page.size(),
+                        CompletableFuture.supplyAsync(() -> write(page), reindexExecutor)));
+
+                while (inFlight.size() >= maxInFlight || (!inFlight.isEmpty() && inFlight.peek().result.isDone())) {
+                    complete(inFlight.poll());
+                }
+                submitted += page.size();
+                throttle(submitted);
+            }
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.poll());
+            }
+            finish(ReindexCheckpoint.Status.COMPLETED);
+            log.info("Reindexed {} technician profiles, {} modified", checkpoint.getProcessed(), checkpoint.getModified());
+        } catch (RuntimeException e) {
+            // Later pages may have landed too; they are simply rewritten on resume
+            inFlight.forEach(write -> write.result.cancel(false));
+            finish(ReindexCheckpoint.Status.FAILED);
+            log.error("Technician reindex failed after {}", checkpoint.getLastId(), e);
+            return;
+        }
+
+        if (checkpoint.getModified() > modifiedBefore) {
+            technicianTextIndex.rebuild();
+        }
+    }
+
+    private void complete(PageWrite write) {
+        long modified = write.result.join();
+        checkpoint.setLastId(write.lastId);
+        checkpoint.setProcessed(checkpoint.getProcessed() + write.size);
+        checkpoint.setModified(checkpoint.getModified() + modified);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint = mongoTemplate.save(checkpoint);
+        runProcessed += write.size;
+        processedCounter.increment(write.size);
+        modifiedCounter.increment(modified);
+    }
+
+    private void finish(ReindexCheckpoint.Status status) {
+        checkpoint.setStatus(status);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint = mongoTemplate.save(checkpoint);
+    }
+
+    // Holds the read side back so that submitted documents never exceed the configured rate
+    private void throttle(long submitted) {
+        if (maxDocsPerSecond <= 0) {
+            return;
+        }
+        long dueNanos = (long) (submitted / maxDocsPerSecond * 1e9);
+        long aheadNanos = dueNanos - (System.nanoTime() - runStartedNanos);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reindex interrupted", e);
+            }
+        }
+    }
+
+    private long write(List<TechnicianProfile> page) {
+        // updateOne rather than upsert: a profile deleted mid-run must stay deleted
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TechnicianProfile.class);
+        int updates = 0;
+        for (TechnicianProfile profile : page) {
+            Update update = derive(profile);
+            if (update != null) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(profile.getId())), update);
+                updates++;
+            }
+        }
+        return updates > 0 ? bulk.execute().getModifiedCount() : 0;
+    }
+
+    /**
+     * @return the derived fields that differ from what is stored, or {@code null} if the profile is current
+     */
+    static Update derive(TechnicianProfile profile) {
+        Update update = new Update();
+        boolean changed = false;
+
+        GeoJsonPoint position = TechnicianProfile.toPosition(profile.getLocation());
+        if (!Objects.equals(position, profile.getPosition())) {
+            if (position != null) {
+                update.set("position", position);
+            } else {
+                update.unset("position");
+            }
+            changed = true;
+        }
+
+        if (profile.getSkills() != null) {
+            LinkedHashSet<String> skills = new LinkedHashSet<>();
+            for (String skill : profile.getSkills()) {
+                if (skill != null && !skill.isBlank()) {
+                    skills.add(skill.trim());
+                }
+            }
+            if (!new ArrayList<>(skills).equals(profile.getSkills())) {
+                update.set("skills", new ArrayList<>(skills));
+                changed = true;
+            }
+        }
+        return changed ? update : null;
+    }
+
+    private static final class PageWrite {
+
+        final String lastId;
+        final int size;
+        final CompletableFuture<Long> result;
+
+        PageWrite(String lastId, int size, CompletableFuture<Long> result) {
+            this.lastId = lastId;
+            this.size = size;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.supwork.search.service;
+
+import com.supwork.search.index.GeoMath;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.repository.TechnicianProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Holds the current {@link TechnicianSnapshot} of available technicians and
+ * swaps in a freshly built one on a fixed delay. The snapshot is loaded through
+ * a projected, batched cursor so neither the whole documents nor a full list
+ * are ever materialized. A sharded instance keeps only the technicians
+ * located in its own shards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TechnicianSnapshotService {
+
+    private final TechnicianProfileRepository technicianProfileRepository;
+    private final SkillDictionary skillDictionary;
+    private final ShardRouter shardRouter;
+
+    @Value("${search.match.min-rating:4.0}")
+    private double minRating;
+
+    // With live presence, offline technicians stay in the snapshot and are masked out per query
+    @Value("${search.presence.enabled:false}")
+    private boolean presenceEnabled;
+
+    private volatile TechnicianSnapshot snapshot;
+    private volatile boolean built;
+
+    /**
+     * @return the current snapshot, or {@code null} until the first build has finished
+     */
+    public TechnicianSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * @return whether the current snapshot comes from a full build rather than from disk
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    @Scheduled(fixedDelayString = "${search.snapshot.refresh-interval:30000}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        try (Stream<TechnicianProfile> technicians =
+                     technicianProfileRepository.streamMatchCandidates(!presenceEnabled, minRating, null)) {
+            snapshot = TechnicianSnapshot.build(local(technicians).iterator(), skillDictionary);
+        }
+        built = true;
+        log.debug("Built technician snapshot with {} rows in {} ms",
+                snapshot.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Installs a snapshot loaded from disk until the first full build replaces it.
+     */
+    public void restore(TechnicianSnapshot saved) {
+        if (snapshot == null) {
+            snapshot = saved;
+        }
+    }
+    
+    /**
+     * Builds a throwaway snapshot of just the technicians that could match the
+     * given skills, for requests that arrive before the first full build.
+     */
+    public TechnicianSnapshot buildFor(Collection<String> skills) {
+        try (Stream<TechnicianProfile> technicians =
+                     technicianProfileRepository.streamMatchCandidates(!presenceEnabled, minRating, skills)) {
+            return TechnicianSnapshot.build(local(technicians).iterator(), skillDictionary);
+        }
+    }
+    
+    private Stream<TechnicianProfile> local(Stream<TechnicianProfile> technicians) {
+        if (!shardRouter.isSharded()) {
+            return technicians;
+        }
+        return technicians.filter(technician -> {
+            double[] position = GeoMath.parseLocation(technician.getLocation());
+            return shardRouter.owns(position[0], position[1]);
+        });
+    }
+
+    public double minRating() {
+        return minRating;
+    }
+}
@@ -0,0 +1,350 @@
+package com.supwork.search.service;
+
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.index.TechnicianDocuments;
+import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.repository.TechnicianProfileRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over technician profiles for full-text search on name,
+ * bio and skills. The index lives on local disk behind a memory-mapped
+ * directory, follows profile changes through {@link TechnicianChangedEvent}s
+ * and is reopened near-real-time on a short fixed delay. Mongo stays the
+ * source of truth: hits are loaded from it by ID.
+ * <p>
+ * Profiles are also written by other services, which raise no events here,
+ * so the index is rebuilt in full on a fixed delay, and at startup when the
+ * one on disk is older than {@code search.text-index.max-age}. Each rebuild
+ * writes a fresh generation directory and is swapped in only once complete,
+ * so searches never see a partial index; a failed one is thrown away.
+ */
+@Service
+@Slf4j
+public class TechnicianTextIndex implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String GENERATION_PREFIX = "gen-";
+    private static final String BUILT_AT = "builtAt";
+
+    private final TechnicianProfileRepository technicianProfileRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Path path;
+    private final double ratingWeight;
+    private final int maxWindow;
+    private final Duration maxAge;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    // Guards the swap against change events, so none is applied to the outgoing generation only
+    private final Object generationLock = new Object();
+    private volatile Generation current;
+    private volatile Generation building;
+
+    public TechnicianTextIndex(TechnicianProfileRepository technicianProfileRepository, MongoTemplate mongoTemplate,
+                               @Value("${search.text-index.path:${java.io.tmpdir}/supwork-search/technicians}") Path path,
+                               @Value("${search.text-index.rating-weight:0.5}") double ratingWeight,
+                               @Value("${search.text-index.max-window:10000}") int maxWindow,
+                               @Value("${search.text-index.max-age:1h}") Duration maxAge) throws IOException {
+        this.technicianProfileRepository = technicianProfileRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.path = Files.createDirectories(path);
+        this.ratingWeight = ratingWeight;
+        this.maxWindow = maxWindow;
+        this.maxAge = maxAge;
+        this.current = open(latestGeneration());
+        deleteOtherGenerations();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long builtAt = current.builtAt();
+        if (System.currentTimeMillis() - builtAt > maxAge.toMillis()) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Could not build the technician text index; it fills in from profile changes", e);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.text-index.rebuild-interval:3600000}",
+            fixedDelayString = "${search.text-index.rebuild-interval:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Technician text index rebuild failed; keeping the current one", e);
+        }
+    }
+
+    /**
+     * Builds a new index from the current technician profiles and swaps it in.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long indexed = 0;
+        Generation next;
+        try {
+            next = open(path.resolve(GENERATION_PREFIX + start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        building = next;
+        try {
+            org.springframework.data.mongodb.core.query.Query query =
+                    new org.springframework.data.mongodb.core.query.Query().cursorBatchSize(BATCH_SIZE);
+            try (Stream<TechnicianProfile> stream = mongoTemplate.stream(query, TechnicianProfile.class)) {
+                Iterator<TechnicianProfile> profiles = stream.iterator();
+                while (profiles.hasNext()) {
+                    // Update rather than add: a change event may already have indexed this profile
+                    TechnicianProfile profile = profiles.next();
+                    next.writer.updateDocument(new Term(TechnicianDocuments.ID, profile.getId()),
+                            TechnicianDocuments.toDocument(profile));
+                    indexed++;
+                }
+            }
+            next.writer.setLiveCommitData(Map.of(BUILT_AT, String.valueOf(start)).entrySet());
+            next.writer.commit();
+            next.searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            building = null;
+            next.closeQuietly();
+            delete(next.path);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+
+        Generation previous;
+        synchronized (generationLock) {
+            previous = current;
+            current = next;
+            building = null;
+        }
+        previous.closeQuietly();
+        delete(previous.path);
+        log.info("Indexed {} technician profiles for text search in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onTechnicianChanged(TechnicianChangedEvent event) {
+        TechnicianProfile profile = technicianProfileRepository.findByUserId(event.getUserId());
+        synchronized (generationLock) {
+            apply(current, event.getUserId(), profile);
+            Generation next = building;
+            if (next != null) {
+                apply(next, event.getUserId(), profile);
+            }
+        }
+    }
+
+    private static void apply(Generation generation, Long userId, TechnicianProfile profile) {
+        try {
+            if (profile != null) {
+                generation.writer.updateDocument(new Term(TechnicianDocuments.ID, profile.getId()),
+                        TechnicianDocuments.toDocument(profile));
+            } else {
+                generation.writer.deleteDocuments(new Term(TechnicianDocuments.USER_ID, userId.toString()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes recent writes searchable without a commit.
+     */
+    @Scheduled(fixedDelayString = "${search.text-index.refresh-interval:1000}")
+    public void refresh() {
+        try {
+            current.searcherManager.maybeRefresh();
+        } catch (AlreadyClosedException e) {
+            // Swapped out meanwhile; the new generation is refreshed next time
+        } catch (IOException e) {
+            log.warn("Could not reopen the technician text index", e);
+        }
+    }
+
+    // Durability only; searches never wait for a commit
+    @Scheduled(fixedDelayString = "${search.text-index.commit-interval:60000}")
+    public void commit() {
+        Generation generation = current;
+        if (!generation.writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            generation.writer.commit();
+        } catch (AlreadyClosedException e) {
+            // Swapped out meanwhile; rebuilt generations are committed when built
+        } catch (IOException e) {
+            log.warn("Could not commit the technician text index", e);
+        }
+    }
+
+    /**
+     * @return Mongo IDs of the matching technicians for the requested page, best first
+     * @see TechnicianDocuments#query
+     */
+    public Page<String> search(String text, List<String> skills, Double minRating, double[] origin,
+                               Double maxDistanceKm, String sortBy, boolean descending, Pageable pageable) {
+        int window = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), maxWindow);
+        if (pageable.getOffset() >= window) {
+            throw new InvalidRequestException("Text search results are limited to the first " + maxWindow);
+        }
+        Query query = TechnicianDocuments.query(analyzer, text, skills, minRating, origin, maxDistanceKm, ratingWeight);
+        Sort sort = TechnicianDocuments.sort(sortBy, descending, origin);
+
+        SearcherManager searcherManager = null;
+        IndexSearcher searcher = null;
+        while (searcher == null) {
+            searcherManager = current.searcherManager;
+            try {
+                searcher = searcherManager.acquire();
+            } catch (AlreadyClosedException e) {
+                // Swapped for a rebuilt generation since it was read; retry on that one
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        try {
+            TopDocs top = searcher.search(query, window, sort, true);
+            long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? top.totalHits.value
+                    : searcher.count(query);
+            List<String> ids = new ArrayList<>(pageable.getPageSize());
+            ScoreDoc[] hits = top.scoreDocs;
+            for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                ids.add(searcher.storedFields().document(hits[i].doc).get(TechnicianDocuments.ID));
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Could not release a technician text searcher", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        current.closeQuietly();
+    }
+
+    // Newest generation holding a complete build, or a fresh one to start empty
+    private Path latestGeneration() throws IOException {
+        try (Stream<Path> children = Files.list(path)) {
+            for (Path candidate : children
+                    .filter(child -> child.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .sorted(Comparator.comparing((Path child) -> child.getFileName().toString()).reversed())
+                    .toList()) {
+                try (MMapDirectory directory = new MMapDirectory(candidate)) {
+                    if (DirectoryReader.indexExists(directory)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        return path.resolve(GENERATION_PREFIX + "0");
+    }
+
+    private void deleteOtherGenerations() throws IOException {
+        try (Stream<Path> children = Files.list(path)) {
+            children.filter(child -> child.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .filter(child -> !child.equals(current.path))
+                    .forEach(TechnicianTextIndex::delete);
+        }
+    }
+
+    private Generation open(Path directoryPath) throws IOException {
+        MMapDirectory directory = new MMapDirectory(Files.createDirectories(directoryPath));
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        return new Generation(directoryPath, directory, writer, new SearcherManager(writer, null));
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete old technician text index {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static final class Generation {
+
+        private final Path path;
+        private final MMapDirectory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+
+        private Generation(Path path, MMapDirectory directory, IndexWriter writer, SearcherManager searcherManager) {
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+        }
+
+        // 0 when it was never fully built
+        long builtAt() {
+            try {
+                String builtAt = SegmentInfos.readLatestCommit(directory).getUserData().get(BUILT_AT);
+                return builtAt != null ? Long.parseLong(builtAt) : 0;
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        // Searches still holding a searcher finish on it; the reader outlives the writer
+        void closeQuietly() {
+            try {
+                searcherManager.close();
+                writer.close();
+                directory.close();
+            } catch (IOException e) {
+                log.warn("Could not close technician text index {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
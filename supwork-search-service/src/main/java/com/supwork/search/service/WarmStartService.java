@@ -0,0 +1,111 @@
+package com.supwork.search.service;
+
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.SnapshotFile;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.model.GigSearchDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Warm start from a {@link SnapshotFile} on local disk. The technician
+ * snapshot and the open gigs are written there on a fixed delay; at startup,
+ * before the scheduled loads begin, the file is mapped and installed so the
+ * instance serves matches straight away. The first full technician build and
+ * gig reconcile still run right after, since profiles and gigs are written by
+ * other services and nothing here records what changed while the instance
+ * was down; until they finish, results may be as old as the file.
+ * A missing, unreadable or too old file just means a cold start.
+ * <p>
+ * This does not make an instance ready sooner. {@link MatchCacheWarmer}
+ * keeps it out of service until those full loads finish, so the restored
+ * data only answers requests that reach the instance directly before then.
+ * Readiness would only come earlier with a replay of the changes made since
+ * the file's checkpoints, which needs a last-modified stamp from every
+ * service writing profiles and gigs. None of them records one yet.
+ * <p>
+ * The file only helps an instance restarted with the same disk: a new or
+ * recreated container starts cold unless {@code search.warm-start.path} is
+ * on a persistent volume.
+ */
+@Service
+@Slf4j
+public class WarmStartService {
+
+    private final TechnicianSnapshotService technicianSnapshotService;
+    private final OpenGigIndex openGigIndex;
+    private final SkillDictionary skillDictionary;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration maxAge;
+
+    public WarmStartService(TechnicianSnapshotService technicianSnapshotService, OpenGigIndex openGigIndex,
+                            SkillDictionary skillDictionary,
+                            @Value("${search.warm-start.enabled:false}") boolean enabled,
+                            @Value("${search.warm-start.path:data/search-snapshot.bin}") Path path,
+                            @Value("${search.warm-start.max-age:1h}") Duration maxAge) {
+        this.technicianSnapshotService = technicianSnapshotService;
+        this.openGigIndex = openGigIndex;
+        this.skillDictionary = skillDictionary;
+        this.enabled = enabled;
+        this.path = path;
+        this.maxAge = maxAge;
+    }
+
+    // Runs while the context is starting, before any @Scheduled load can begin
+    @PostConstruct
+    public void restore() {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        SnapshotFile saved;
+        try {
+            saved = SnapshotFile.read(path, skillDictionary);
+        } catch (IOException e) {
+            log.warn("Ignoring search snapshot {}: {}", path, e.getMessage());
+            return;
+        }
+        long oldest = Math.min(saved.technicianCheckpoint(), saved.gigCheckpoint());
+        if (start - oldest > maxAge.toMillis()) {
+            log.info("Search snapshot {} is older than {}; starting cold", path, maxAge);
+            return;
+        }
+
+        technicianSnapshotService.restore(saved.technicians());
+        openGigIndex.restore(saved.gigs());
+        log.info("Restored {} technicians and {} open gigs from {} in {} ms; full loads follow",
+                saved.technicians().size(), saved.gigs().size(), path, System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(initialDelayString = "${search.warm-start.write-interval:300000}",
+            fixedDelayString = "${search.warm-start.write-interval:300000}")
+    public void write() {
+        TechnicianSnapshot snapshot = technicianSnapshotService.current();
+        if (!enabled || !technicianSnapshotService.isBuilt() || !openGigIndex.isBootstrapped()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Taken before copying, so every gig change applied earlier is in the copy
+        long gigCheckpoint = start;
+        List<GigSearchDTO> gigs = openGigIndex.values().stream().map(IndexedGig::gig).toList();
+        try {
+            SnapshotFile.write(path, snapshot, skillDictionary, gigs, gigCheckpoint);
+        } catch (IOException e) {
+            log.warn("Could not write search snapshot {}: {}", path, e.getMessage());
+            return;
+        }
+        log.debug("Wrote search snapshot with {} technicians and {} gigs in {} ms",
+                snapshot.size(), gigs.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,155 @@
+package com.supwork.search.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.supwork.search.index.MatchHits;
+import com.supwork.search.index.MatchKernel;
+import com.supwork.search.index.MatchQuery;
+import com.supwork.search.index.SkillBits;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.service.AggregationMatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end comparison of the two match modes against a real MongoDB: the
+ * in-JVM snapshot scan plus profile hydration versus the single aggregation
+ * pipeline. Seeds a throwaway database with synthetic technicians.
+ *
+ * Run with: mvn -pl supwork-search-service test-compile exec:java
+ *   -Dexec.classpathScope=test -Dexec.mainClass=com.supwork.search.benchmark.MatchModeBenchmark
+ *   -Dbenchmark.mongo.uri=mongodb://localhost:27017
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchModeBenchmark {
+
+    private static final String DATABASE = "supwork_match_benchmark";
+    private static final double LAT = 43.2389;
+    private static final double LON = 76.8897;
+    private static final int VOCABULARY = 200;
+    private static final double MIN_RATING = 4.0;
+
+    @Param({"100000"})
+    private int technicians;
+
+    @Param({"10", "50"})
+    private double radiusKm;
+
+    @Param({"10"})
+    private int limit;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private AggregationMatchService aggregationMatchService;
+    private TechnicianSnapshot snapshot;
+    private Set<String> gigSkills;
+    private MatchQuery query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.dropCollection(TechnicianProfile.class);
+        mongoTemplate.indexOps(TechnicianProfile.class)
+                .ensureIndex(new GeospatialIndex("position").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+
+        Random random = new Random(42);
+        List<TechnicianProfile> batch = new ArrayList<>(1000);
+        for (long id = 0; id < technicians; id++) {
+            List<String> skills = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                skills.add("skill-" + random.nextInt(VOCABULARY));
+            }
+            TechnicianProfile technician = TechnicianProfile.builder()
+                    .userId(id)
+                    .rating(3.0 + random.nextInt(21) / 10.0)
+                    .skills(skills)
+                    .isAvailable(true)
+                    .build();
+            technician.setLocation(LAT + random.nextGaussian() * 0.5, LON + random.nextGaussian() * 0.5);
+            batch.add(technician);
+            if (batch.size() == 1000) {
+                mongoTemplate.insertAll(batch);
+                batch.clear();
+            }
+        }
+        mongoTemplate.insertAll(batch);
+
+        aggregationMatchService = new AggregationMatchService(mongoTemplate);
+        SkillDictionary dictionary = new SkillDictionary();
+        snapshot = TechnicianSnapshot.build(
+                mongoTemplate.find(new Query(Criteria.where("rating").gte(MIN_RATING)), TechnicianProfile.class),
+                dictionary);
+        gigSkills = Set.of("skill-1", "skill-2", "skill-3", "skill-4");
+        query = MatchQuery.builder()
+                .latitude(LAT)
+                .longitude(LON)
+                .skillBits(SkillBits.encodeQuery(gigSkills, dictionary, snapshot.wordsPerRow()))
+                .skillCount(gigSkills.size())
+                .minRating(MIN_RATING)
+                .radiusKm(radiusKm)
+                .limit(limit)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Benchmark
+    public List<TechnicianProfile> jvmSnapshot() {
+        MatchHits hits = MatchKernel.topK(snapshot, query);
+        List<Long> userIds = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            userIds.add(snapshot.userId(hits.row(i)));
+        }
+        return mongoTemplate.find(new Query(Criteria.where("userId").in(userIds)), TechnicianProfile.class);
+    }
+
+    @Benchmark
+    public List<MatchResult> aggregationPipeline() {
+        return aggregationMatchService.findMatches(LAT, LON, gigSkills, MIN_RATING, radiusKm, limit);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MatchModeBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbenchmark.mongo.uri=" + System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"))
+                .build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.supwork.search.benchmark;
+
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.SkillSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Scores one gig against a pool of technicians with the old string-list cosine,
+ * the sorted {@code int[]} merge and the bitset popcount.
+ *
+ * Run with: mvn -pl supwork-search-service test-compile exec:java
+ *   -Dexec.classpathScope=test -Dexec.mainClass=com.supwork.search.benchmark.SkillSimilarityBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillSimilarityBenchmark {
+
+    private static final int VOCABULARY = 400;
+
+    @Param({"1000"})
+    private int technicians;
+
+    @Param({"8"})
+    private int skillsPerTechnician;
+
+    private List<List<String>> technicianSkills;
+    private List<String> gigSkills;
+    private int[][] technicianIds;
+    private int[] gigIds;
+    private long[] technicianBits;
+    private long[] gigBits;
+    private int[] technicianCounts;
+    private int words;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SkillDictionary dictionary = new SkillDictionary();
+        technicianSkills = new ArrayList<>();
+        for (int i = 0; i < technicians; i++) {
+            technicianSkills.add(randomSkills(random, 1 + random.nextInt(2 * skillsPerTechnician)));
+        }
+        gigSkills = randomSkills(random, 3);
+
+        technicianIds = new int[technicians][];
+        for (int i = 0; i < technicians; i++) {
+            technicianIds[i] = SkillSet.of(technicianSkills.get(i), dictionary);
+        }
+        gigIds = SkillSet.of(gigSkills, dictionary);
+
+        words = (dictionary.size() + 63) >>> 6;
+        technicianBits = new long[technicians * words];
+        technicianCounts = new int[technicians];
+        for (int i = 0; i < technicians; i++) {
+            for (int id : technicianIds[i]) {
+                technicianBits[i * words + (id >>> 6)] |= 1L << id;
+            }
+            technicianCounts[i] = technicianIds[i].length;
+        }
+        gigBits = new long[words];
+        for (int id : gigIds) {
+            gigBits[id >>> 6] |= 1L << id;
+        }
+    }
+
+    private static List<String> randomSkills(Random random, int count) {
+        List<String> skills = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            skills.add("skill-" + random.nextInt(VOCABULARY));
+        }
+        return skills;
+    }
+
+    @Benchmark
+    public double stringLists() {
+        double sum = 0;
+        for (List<String> skills : technicianSkills) {
+            sum += legacyCosine(skills, gigSkills);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double sortedIdMerge() {
+        double sum = 0;
+        for (int[] ids : technicianIds) {
+            sum += SkillSet.cosine(ids, gigIds);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double bitsetPopcount() {
+        double sum = 0;
+        for (int i = 0; i < technicians; i++) {
+            int overlap = 0;
+            for (int w = 0; w < words; w++) {
+                overlap += Long.bitCount(technicianBits[i * words + w] & gigBits[w]);
+            }
+            sum += overlap / Math.sqrt((double) technicianCounts[i] * gigIds.length);
+        }
+        return sum;
+    }
+
+    // The implementation MatchService used before skills were interned
+    private static double legacyCosine(List<String> skills1, List<String> skills2) {
+        List<String> allSkills = skills1.stream().distinct().collect(Collectors.toList());
+        allSkills.addAll(skills2.stream().distinct().collect(Collectors.toList()));
+        allSkills = allSkills.stream().distinct().collect(Collectors.toList());
+
+        double dotProduct = 0.0;
+        double norm1 = 0.0;
+        double norm2 = 0.0;
+        for (String skill : allSkills) {
+            int count1 = (int) skills1.stream().filter(s -> s.equals(skill)).count();
+            int count2 = (int) skills2.stream().filter(s -> s.equals(skill)).count();
+            dotProduct += count1 * count2;
+            norm1 += count1 * count1;
+            norm2 += count2 * count2;
+        }
+        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SkillSimilarityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
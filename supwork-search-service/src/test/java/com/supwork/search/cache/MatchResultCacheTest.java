@@ -0,0 +1,69 @@
+package com.supwork.search.cache;
+
+import com.supwork.search.model.MatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchResultCacheTest {
+
+    private static final List<Object> KEY = List.of(1L, 10.0, 5, "JVM");
+
+    @Test
+    void get_ShouldNotCacheResultsFromUnavailableUpstream() {
+        // Given
+        MatchResultCache cache = cache(Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        List<MatchResult> unavailable = cache.get(KEY, () -> {
+            calls.incrementAndGet();
+            throw new UpstreamUnavailableException("down");
+        });
+        List<MatchResult> recovered = cache.get(KEY, () -> {
+            calls.incrementAndGet();
+            return List.of(match(0.9));
+        });
+
+        // Then
+        assertTrue(unavailable.isEmpty());
+        assertEquals(1, recovered.size());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void get_ShouldServeStaleResultAndKeepItWhenRefreshHitsFallback() {
+        // Given
+        MatchResultCache cache = cache(Duration.ZERO);
+        cache.get(KEY, () -> List.of(match(0.9)));
+        AtomicInteger refreshes = new AtomicInteger();
+
+        // When
+        List<MatchResult> stale = cache.get(KEY, () -> {
+            refreshes.incrementAndGet();
+            throw new UpstreamUnavailableException("down");
+        });
+        List<MatchResult> again = cache.get(KEY, () -> List.of(match(0.5)));
+
+        // Then
+        assertEquals(0.9, stale.get(0).getSimilarityScore());
+        assertEquals(1, refreshes.get());
+        assertEquals(0.9, again.get(0).getSimilarityScore());
+    }
+
+    // Refreshes run on the calling thread so the outcome is visible immediately
+    private static MatchResultCache cache(Duration freshFor) {
+        return new MatchResultCache(new ConcurrentMapCacheManager(MatchCacheInvalidator.CACHE_NAME),
+                Runnable::run, freshFor, new SimpleMeterRegistry());
+    }
+
+    private static MatchResult match(double score) {
+        return MatchResult.builder().similarityScore(score).build();
+    }
+}
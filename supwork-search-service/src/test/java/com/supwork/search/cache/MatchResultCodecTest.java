@@ -0,0 +1,69 @@
+package com.supwork.search.cache;
+
+import com.supwork.search.model.GigSearchDTO;
+import com.supwork.search.model.MatchResult;
+import com.supwork.search.model.TechnicianProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchResultCodecTest {
+
+    private final MatchResultCodec codec = new MatchResultCodec();
+
+    @Test
+    void decode_ShouldRestoreEncodedResults() {
+        // Given
+        TechnicianProfile technician = TechnicianProfile.builder()
+                .id("abc")
+                .userId(42L)
+                .skills(Arrays.asList("Plumbing", "Электрика"))
+                .location("43.2389,76.8897")
+                .rating(4.7)
+                .name("Aidos")
+                .bio("x".repeat(70_000))
+                .isAvailable(true)
+                .build();
+        List<MatchResult> results = List.of(
+                MatchResult.builder().technician(technician).similarityScore(0.8).distanceKm(1.5)
+                        .rating(4.7).skillsMatchCount(2).build(),
+                MatchResult.builder().similarityScore(0.1)
+                        .gig(GigSearchDTO.builder().id(7L).title("Fix sink").skills(List.of("Plumbing")).build())
+                        .build());
+        CachedMatches cached = new CachedMatches(results, 1_700_000_000_000L);
+
+        // When
+        CachedMatches restoredMatches = codec.decode(codec.encode(cached));
+        List<MatchResult> decoded = restoredMatches.getResults();
+
+        // Then
+        assertEquals(cached.getComputedAt(), restoredMatches.getComputedAt());
+        assertEquals(2, decoded.size());
+        TechnicianProfile restored = decoded.get(0).getTechnician();
+        assertEquals(technician.getUserId(), restored.getUserId());
+        assertEquals(technician.getSkills(), restored.getSkills());
+        assertEquals(technician.getBio(), restored.getBio());
+        assertNull(restored.getEmail());
+        assertNotNull(restored.getPosition());
+        assertEquals(results.get(0).getSimilarityScore(), decoded.get(0).getSimilarityScore());
+        assertEquals(2, decoded.get(0).getSkillsMatchCount());
+        assertNull(decoded.get(1).getTechnician());
+        assertNull(decoded.get(1).getDistanceKm());
+        assertEquals(7L, decoded.get(1).getGig().getId());
+        assertEquals(List.of("Plumbing"), decoded.get(1).getGig().getSkills());
+        assertNull(decoded.get(0).getGig());
+    }
+
+    @Test
+    void decode_ShouldRejectUnknownVersion() {
+        // Given
+        byte[] bytes = codec.encode(new CachedMatches(List.of(), 0L));
+        bytes[0] = 99;
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+}
@@ -2,6 +2,7 @@ package com.supwork.search.controller;
 
 import com.supwork.search.model.TechnicianProfile;
 import com.supwork.search.service.SearchService;
+import com.supwork.search.service.SkillSuggestService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -28,6 +29,9 @@ class SearchControllerTest {
     @MockBean
     private SearchService searchService;
     
+    @MockBean
+    private SkillSuggestService skillSuggestService;
+    
     @Test
     void searchTechnicians_ShouldReturnPageOfTechnicians() throws Exception {
         // Given
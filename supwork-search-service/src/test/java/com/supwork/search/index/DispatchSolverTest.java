@@ -0,0 +1,38 @@
+package com.supwork.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchSolverTest {
+
+    @Test
+    void greedy_ShouldGiveContestedTechnicianToBestGigAndRespectCapacity() {
+        // Given: technician 0 is everyone's favourite but can take one gig
+        int[] edgeGigs = {0, 0, 1, 1, 2};
+        int[] edgeTechs = {0, 1, 0, 2, 0};
+        float[] edgeScores = {0.9f, 0.5f, 0.95f, 0.4f, 0.7f};
+        int[] capacities = {1, 1, 1};
+
+        // When
+        int[] assigned = DispatchSolver.greedy(3, capacities, edgeGigs, edgeTechs, edgeScores, edgeGigs.length);
+
+        // Then
+        assertArrayEquals(new int[]{1, 0, -1}, assigned);
+        assertArrayEquals(new int[]{0, 0, 1}, capacities);
+    }
+
+    @Test
+    void greedy_ShouldLetATechnicianTakeSeveralGigsUpToCapacity() {
+        // Given
+        int[] edgeGigs = {0, 1, 2};
+        int[] edgeTechs = {0, 0, 0};
+        float[] edgeScores = {0.5f, 0.5f, 0.5f};
+
+        // When
+        int[] assigned = DispatchSolver.greedy(3, new int[]{2}, edgeGigs, edgeTechs, edgeScores, edgeGigs.length);
+
+        // Then: equal scores go to the earlier edges
+        assertArrayEquals(new int[]{0, 0, -1}, assigned);
+    }
+}
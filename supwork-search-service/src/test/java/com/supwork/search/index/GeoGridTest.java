@@ -0,0 +1,48 @@
+package com.supwork.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridTest {
+
+    @Test
+    void candidates_ShouldReturnOnlyRowsInCoveringCells() {
+        // Given
+        double[] lats = {43.2400, 43.2900, 43.2389, 51.1694, Double.NaN};
+        double[] lons = {76.8900, 76.9500, 76.8897, 71.4491, 76.8900};
+        GeoGrid grid = GeoGrid.build(lats, lons, GeoGrid.DEFAULT_PRECISION);
+
+        // When
+        int[] candidates = grid.candidates(GeoBox.around(43.2389, 76.8897, 10.0));
+
+        // Then
+        assertArrayEquals(new int[]{0, 1, 2}, candidates);
+        assertEquals(5, grid.pointCount());
+    }
+
+    @Test
+    void candidates_ShouldWrapAroundAntimeridian() {
+        // Given
+        double[] lats = {-16.50, -16.52, -16.50};
+        double[] lons = {179.99, -179.99, 170.00};
+        GeoGrid grid = GeoGrid.build(lats, lons, GeoGrid.DEFAULT_PRECISION);
+
+        // When
+        GeoBox box = GeoBox.around(-16.51, 179.999, 20.0);
+        int[] candidates = grid.candidates(box);
+
+        // Then
+        assertArrayEquals(new int[]{0, 1}, candidates);
+        assertTrue(box.contains(-16.52, -179.99));
+        assertFalse(box.contains(-16.50, 170.00));
+    }
+
+    @Test
+    void encode_ShouldMatchBase32GeohashBits() {
+        // "u4pruydqqvj" is the reference geohash for 57.64911, 10.40744; "u4pru" as bits
+        long expected = (26L << 20) | (4L << 15) | (21L << 10) | (23L << 5) | 26L;
+
+        assertEquals(expected, GeoHash.encode(57.64911, 10.40744, 5));
+    }
+}
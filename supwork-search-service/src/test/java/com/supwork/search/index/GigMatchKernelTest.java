@@ -0,0 +1,42 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.GigSearchDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GigMatchKernelTest {
+
+    private final SkillDictionary dictionary = new SkillDictionary();
+
+    @Test
+    void topK_ShouldFillEverySlotWithGigsPassingTheRowFilter() {
+        // Given
+        GigSearchIndex gigs = GigSearchIndex.build(List.of(gig(1L), gig(2L), gig(3L), gig(4L)));
+        int[] skills = SkillSet.of(List.of("Plumbing"), dictionary);
+
+        // When - the two best-ranked gigs are busy
+        MatchHits hits = GigMatchKernel.topK(gigs, 43.2389, 76.8897, skills, 10.0, 2,
+                Double.POSITIVE_INFINITY, Long.MIN_VALUE, row -> gigs.gig(row).id() > 2);
+
+        // Then
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < hits.size(); i++) {
+            ids.add(gigs.gig(hits.row(i)).id());
+        }
+        assertEquals(List.of(3L, 4L), ids);
+    }
+
+    private IndexedGig gig(Long id) {
+        return IndexedGig.of(GigSearchDTO.builder()
+                .id(id)
+                .title("Fix sink")
+                .location("43.2400,76.8900")
+                .skills(List.of("Plumbing"))
+                .status("OPEN")
+                .build(), dictionary);
+    }
+}
@@ -0,0 +1,94 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.GigSearchDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GigSearchIndexTest {
+
+    private final SkillDictionary dictionary = new SkillDictionary();
+
+    @Test
+    void search_ShouldApplyEveryFilter() {
+        // Given
+        GigSearchIndex index = GigSearchIndex.build(List.of(
+                gig(1L, "Fix kitchen sink", 50.0, "43.2400,76.8900", "Plumbing"),
+                gig(2L, "Fix bathroom sink", 500.0, "43.2400,76.8900", "Plumbing"),
+                gig(3L, "Fix kitchen sink", 60.0, "44.5000,78.0000", "Plumbing"),
+                gig(4L, "Fix kitchen sink", 70.0, "43.2410,76.8910", "Electrical"),
+                gig(5L, "Paint kitchen", 80.0, "43.2420,76.8920", "Plumbing"),
+                gig(6L, "Kitchen SINK fix", 90.0, "43.2430,76.8930", "Plumbing", "Electrical")));
+
+        // When
+        int[] rows = index.search(GigQuery.builder()
+                .titleTokens(GigSearchIndex.tokenize("sink, kitchen"))
+                .skillIds(SkillSet.lookup(List.of("Plumbing", "Welding"), dictionary))
+                .minBudget(10.0)
+                .maxBudget(100.0)
+                .latitude(43.2389)
+                .longitude(76.8897)
+                .radiusKm(10.0)
+                .sortBy("budget")
+                .descending(true)
+                .build());
+
+        // Then
+        assertEquals(List.of(6L, 1L), ids(index, rows));
+    }
+
+    @Test
+    void search_ShouldReturnNothingForUnknownTitleToken() {
+        // Given
+        GigSearchIndex index = GigSearchIndex.build(List.of(gig(1L, "Fix sink", 50.0, "43.24,76.89", "Plumbing")));
+
+        // When
+        int[] rows = index.search(GigQuery.builder().titleTokens(List.of("roof")).build());
+
+        // Then
+        assertEquals(0, rows.length);
+    }
+
+    @Test
+    void search_ShouldBreakSortTiesByIdSoPagesAreStable() {
+        // Given
+        List<IndexedGig> gigs = new ArrayList<>();
+        for (long id = 20; id >= 1; id--) {
+            gigs.add(gig(id, "Gig " + id, id % 2 == 0 ? 100.0 : 200.0, "43.24,76.89", "Plumbing"));
+        }
+        GigSearchIndex index = GigSearchIndex.build(gigs);
+
+        // When
+        int[] rows = index.search(GigQuery.builder().sortBy("budget").build());
+        int[] noOrder = index.search(GigQuery.builder().build());
+
+        // Then
+        List<Long> ids = ids(index, rows);
+        assertEquals(List.of(2L, 4L, 6L), ids.subList(0, 3));
+        assertEquals(List.of(1L, 3L, 5L), ids.subList(10, 13));
+        assertEquals(20L, index.gig(noOrder[0]).id());
+    }
+
+    private IndexedGig gig(Long id, String title, Double budget, String location, String... skills) {
+        return IndexedGig.of(GigSearchDTO.builder()
+                .id(id)
+                .title(title)
+                .budget(budget)
+                .location(location)
+                .skills(Arrays.asList(skills))
+                .status("OPEN")
+                .build(), dictionary);
+    }
+
+    private static List<Long> ids(GigSearchIndex index, int[] rows) {
+        List<Long> ids = new ArrayList<>();
+        for (int row : rows) {
+            ids.add(index.gig(row).id());
+        }
+        return ids;
+    }
+}
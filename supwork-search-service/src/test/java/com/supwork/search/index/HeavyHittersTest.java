@@ -0,0 +1,35 @@
+package com.supwork.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void drain_ShouldKeepFrequentKeysAmongManyRareOnes() {
+        // Given
+        HeavyHitters<String> hitters = new HeavyHitters<>(16);
+        for (int i = 0; i < 10_000; i++) {
+            hitters.add("rare-" + i);
+            if (i % 4 == 0) {
+                hitters.add("hot");
+            }
+            if (i % 10 == 0) {
+                hitters.add("warm");
+            }
+        }
+
+        // When
+        Map<String, Long> top = hitters.drain();
+
+        // Then
+        assertEquals(16, top.size());
+        assertEquals(List.of("hot", "warm"), top.keySet().stream().limit(2).toList());
+        assertTrue(top.get("hot") >= 2_500); // counts may only over-estimate
+        assertEquals(0, hitters.size());
+    }
+}
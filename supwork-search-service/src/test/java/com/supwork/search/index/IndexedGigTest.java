@@ -0,0 +1,31 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.GigSearchDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedGigTest {
+
+    @Test
+    void lookup_ShouldLeaveUnknownSkillsOutWithoutGrowingTheDictionary() {
+        // Given
+        SkillDictionary dictionary = new SkillDictionary();
+        int plumbing = dictionary.intern("Plumbing");
+        GigSearchDTO gig = GigSearchDTO.builder()
+                .id(1L)
+                .location("43.2389,76.8897")
+                .skills(List.of("Plumbing", "Invented skill", "Plumbing"))
+                .build();
+
+        // When
+        IndexedGig indexed = IndexedGig.lookup(gig, dictionary);
+
+        // Then
+        assertArrayEquals(new int[]{plumbing}, indexed.skillIds());
+        assertEquals(2, indexed.skillCount());
+        assertEquals(1, dictionary.size());
+    }
+}
@@ -0,0 +1,24 @@
+package com.supwork.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalSetTest {
+
+    @Test
+    void overlaps_ShouldMergeIntervalsAndTreatThemAsHalfOpen() {
+        // Given
+        IntervalSet busy = IntervalSet.of(new long[]{300, 100, 150, 500}, new long[]{400, 200, 250, 500}, 4);
+
+        // When / Then
+        assertEquals(2, busy.size()); // [100, 250) and [300, 400); the empty one is dropped
+        assertEquals(250, busy.end(0));
+        assertTrue(busy.overlaps(240, 260));
+        assertTrue(busy.overlaps(50, 1000));
+        assertFalse(busy.overlaps(250, 300));
+        assertFalse(busy.overlaps(0, 100));
+        assertFalse(busy.overlaps(400, 900));
+        assertFalse(IntervalSet.EMPTY.overlaps(0, Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,169 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.TechnicianProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchKernelTest {
+
+    private static final double LAT = 43.2389;
+    private static final double LON = 76.8897;
+
+    @Test
+    void topK_ShouldRankBySimilarityAndDropNonMatches() {
+        // Given
+        SkillDictionary dictionary = new SkillDictionary();
+        List<TechnicianProfile> technicians = Arrays.asList(
+                technician(1L, "43.2400,76.8900", 4.5, "Plumbing"),
+                technician(2L, "43.2410,76.8910", 4.8, "Plumbing", "Electrical"),
+                technician(3L, "43.2420,76.8920", 3.5, "Plumbing", "Electrical"),
+                technician(4L, "44.5000,78.0000", 5.0, "Plumbing", "Electrical"),
+                technician(5L, "0.0,0.0", 5.0, "Plumbing", "Electrical"),
+                technician(6L, "43.2430,76.8930", 4.1, "Painting"));
+        TechnicianSnapshot snapshot = TechnicianSnapshot.build(technicians, dictionary);
+        Set<String> gigSkills = Set.of("Plumbing", "Electrical");
+        long[] query = SkillBits.encodeQuery(gigSkills, dictionary, snapshot.wordsPerRow());
+
+        // When
+        MatchHits hits = MatchKernel.topK(snapshot, query(query, gigSkills.size(), 10.0, 5));
+
+        // Then
+        assertEquals(2, hits.size());
+        assertEquals(2L, snapshot.userId(hits.row(0)));
+        assertEquals(1.0, hits.score(0), 1e-9);
+        assertEquals(2, hits.overlap(0));
+        assertEquals(1L, snapshot.userId(hits.row(1)));
+        assertEquals(1 / Math.sqrt(2), hits.score(1), 1e-9);
+        assertTrue(hits.distanceKm(0) < 1.0);
+    }
+
+    @Test
+    void topK_ShouldKeepOnlyBestKInScanOrderForTies() {
+        // Given
+        SkillDictionary dictionary = new SkillDictionary();
+        List<TechnicianProfile> technicians = Arrays.asList(
+                technician(1L, "43.2400,76.8900", 4.5, "Plumbing"),
+                technician(2L, "43.2400,76.8900", 4.5, "Plumbing"),
+                technician(3L, "43.2400,76.8900", 4.5, "Plumbing"));
+        TechnicianSnapshot snapshot = TechnicianSnapshot.build(technicians, dictionary);
+        long[] query = SkillBits.encodeQuery(Set.of("Plumbing"), dictionary, snapshot.wordsPerRow());
+
+        // When
+        MatchHits hits = MatchKernel.topK(snapshot, query(query, 1, 10.0, 2));
+
+        // Then
+        assertEquals(2, hits.size());
+        assertEquals(1L, snapshot.userId(hits.row(0)));
+        assertEquals(2L, snapshot.userId(hits.row(1)));
+    }
+
+    @Test
+    void topK_ParallelScanShouldMatchSequentialScan() {
+        // Given
+        SkillDictionary dictionary = new SkillDictionary();
+        Random random = new Random(7);
+        List<TechnicianProfile> technicians = new ArrayList<>();
+        for (long id = 0; id < 50_000; id++) {
+            String location = (LAT + random.nextGaussian() * 0.5) + "," + (LON + random.nextGaussian() * 0.5);
+            technicians.add(technician(id, location, 3.0 + random.nextInt(21) / 10.0,
+                    "skill-" + random.nextInt(30), "skill-" + random.nextInt(30), "skill-" + random.nextInt(30)));
+        }
+        TechnicianSnapshot snapshot = TechnicianSnapshot.build(technicians, dictionary);
+        Set<String> gigSkills = Set.of("skill-1", "skill-2", "skill-3");
+        MatchQuery query = query(SkillBits.encodeQuery(gigSkills, dictionary, snapshot.wordsPerRow()),
+                gigSkills.size(), 150.0, 25);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // When
+        MatchHits sequential = MatchKernel.topK(snapshot, query);
+        MatchHits parallel = MatchKernel.topK(snapshot, query, pool, 0);
+        pool.shutdown();
+
+        // Then
+        assertEquals(25, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.row(i), parallel.row(i));
+            assertEquals(sequential.score(i), parallel.score(i));
+            if (i > 0) {
+                assertTrue(sequential.score(i - 1) >= sequential.score(i));
+            }
+        }
+    }
+
+    @Test
+    void topK_PagingAfterLastHitShouldWalkTheFullRanking() {
+        // Given
+        SkillDictionary dictionary = new SkillDictionary();
+        Random random = new Random(11);
+        List<TechnicianProfile> technicians = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            String location = (LAT + random.nextGaussian() * 0.02) + "," + (LON + random.nextGaussian() * 0.02);
+            technicians.add(technician(id, location, 4.5,
+                    "skill-" + random.nextInt(4), "skill-" + random.nextInt(4)));
+        }
+        TechnicianSnapshot snapshot = TechnicianSnapshot.build(technicians, dictionary);
+        Set<String> gigSkills = Set.of("skill-0", "skill-1");
+        long[] skillBits = SkillBits.encodeQuery(gigSkills, dictionary, snapshot.wordsPerRow());
+        MatchHits all = MatchKernel.topK(snapshot, query(skillBits, gigSkills.size(), 50.0, 500));
+
+        // When
+        List<Integer> paged = new ArrayList<>();
+        double afterScore = Double.POSITIVE_INFINITY;
+        long afterUserId = Long.MIN_VALUE;
+        while (true) {
+            MatchQuery page = MatchQuery.builder()
+                    .latitude(LAT).longitude(LON)
+                    .skillBits(skillBits).skillCount(gigSkills.size())
+                    .minRating(4.0).radiusKm(50.0).limit(7)
+                    .afterScore(afterScore).afterUserId(afterUserId)
+                    .build();
+            MatchHits hits = MatchKernel.topK(snapshot, page);
+            for (int i = 0; i < hits.size(); i++) {
+                paged.add(hits.row(i));
+            }
+            if (hits.size() < 7) {
+                break;
+            }
+            afterScore = hits.score(hits.size() - 1);
+            afterUserId = snapshot.userId(hits.row(hits.size() - 1));
+        }
+
+        // Then
+        assertTrue(all.size() > 7);
+        assertEquals(all.size(), paged.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(all.row(i), paged.get(i));
+        }
+    }
+
+    private static MatchQuery query(long[] skillBits, int skillCount, double radiusKm, int limit) {
+        return MatchQuery.builder()
+                .latitude(LAT)
+                .longitude(LON)
+                .skillBits(skillBits)
+                .skillCount(skillCount)
+                .minRating(4.0)
+                .radiusKm(radiusKm)
+                .limit(limit)
+                .build();
+    }
+
+    private static TechnicianProfile technician(Long userId, String location, Double rating, String... skills) {
+        return TechnicianProfile.builder()
+                .userId(userId)
+                .location(location)
+                .rating(rating)
+                .skills(Arrays.asList(skills))
+                .isAvailable(true)
+                .build();
+    }
+}
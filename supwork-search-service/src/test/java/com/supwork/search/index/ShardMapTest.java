@@ -0,0 +1,40 @@
+package com.supwork.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMapTest {
+
+    @Test
+    void covers_ShouldMatchPointsByGeohashPrefixOfAnyLength() {
+        // Given
+        ShardMap shards = ShardMap.of(List.of("9Q", " 9r ", "u09", ""));
+
+        // When / Then
+        assertEquals(GeoHash.parse("9q8yy"), GeoHash.encode(37.7749, -122.4194, 5));
+        assertTrue(shards.covers(37.7749, -122.4194)); // San Francisco, 9q8yy
+        assertTrue(shards.covers(48.8566, 2.3522));    // Paris, u09tv
+        assertFalse(shards.covers(51.5074, -0.1278));  // London, gcpvj
+        assertFalse(shards.covers(Double.NaN, Double.NaN));
+        assertEquals(Set.of("9q", "9r", "u09"), shards.prefixes());
+    }
+
+    @Test
+    void overlapping_ShouldReturnOnlyShardsTheSearchBoxReaches() {
+        // Given
+        ShardMap shards = ShardMap.of(List.of("9q", "9r", "u09"));
+
+        // When
+        Set<String> nearSanFrancisco = shards.overlapping(GeoBox.around(37.7749, -122.4194, 10));
+        // 9q and 9r meet at 39.375 N
+        Set<String> acrossBoundary = shards.overlapping(GeoBox.around(39.3, -120.0, 20));
+
+        // Then
+        assertEquals(Set.of("9q"), nearSanFrancisco);
+        assertEquals(Set.of("9q", "9r"), acrossBoundary);
+    }
+}
@@ -0,0 +1,42 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.SkillSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillSuggesterTest {
+
+    @Test
+    void suggest_ShouldReturnMostUsedSkillsForPrefix() {
+        // Given
+        SkillSuggester suggester = SkillSuggester.build(Map.of(
+                "Plumbing", 40L,
+                "Plastering", 75L,
+                "plumbing", 50L,
+                "Painting", 500L,
+                "Electrical", 90L));
+
+        // When
+        List<SkillSuggestion> suggestions = suggester.suggest("PL", 5);
+
+        // Then
+        assertEquals(List.of(new SkillSuggestion("plumbing", 90L), new SkillSuggestion("Plastering", 75L)),
+                suggestions);
+    }
+
+    @Test
+    void suggest_ShouldRespectLimitAndIgnoreEmptyPrefix() {
+        // Given
+        SkillSuggester suggester = SkillSuggester.build(Map.of("Painting", 3L, "Paving", 2L, "Parquet", 1L));
+
+        // When / Then
+        assertEquals(List.of("Painting", "Paving"),
+                suggester.suggest("pa", 2).stream().map(SkillSuggestion::getSkill).toList());
+        assertTrue(suggester.suggest(" ", 2).isEmpty());
+        assertTrue(SkillSuggester.EMPTY.suggest("pa", 2).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.GigSearchDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_ShouldRestoreWhatWasWrittenUnderAnotherProcessesSkillIds() throws IOException {
+        // Given
+        SkillDictionary writer = new SkillDictionary();
+        int plumbing = writer.intern("Plumbing");
+        int electrical = writer.intern("Electrical");
+        TechnicianSnapshot snapshot = new TechnicianSnapshot.Builder(writer, 1_000L)
+                .add(1L, 43.24, 76.89, 4.5f, new int[]{plumbing, electrical})
+                .add(2L, 43.25, 76.90, 3.0f, new int[]{electrical})
+                .build();
+        GigSearchDTO gig = GigSearchDTO.builder().id(7L).title("Fix sink").skills(List.of("Plumbing"))
+                .budget(50.0).status("OPEN").clientId(3L)
+                .scheduledStart(LocalDateTime.of(2026, 10, 20, 9, 0))
+                .scheduledEnd(LocalDateTime.of(2026, 10, 20, 11, 0))
+                .build();
+        Path path = dir.resolve("snapshot.bin");
+        SnapshotFile.write(path, snapshot, writer, List.of(gig), 2_000L);
+
+        // When
+        SkillDictionary reader = new SkillDictionary();
+        reader.intern("Electrical");
+        SnapshotFile saved = SnapshotFile.read(path, reader);
+
+        // Then
+        TechnicianSnapshot technicians = saved.technicians();
+        assertEquals(1_000L, saved.technicianCheckpoint());
+        assertEquals(2_000L, saved.gigCheckpoint());
+        assertEquals(2, technicians.size());
+        assertEquals(1L, technicians.userId(0));
+        assertEquals(43.24, technicians.latitude(0), 1e-9);
+        assertEquals(76.90, technicians.longitude(1), 1e-9);
+        assertEquals(4.5f, technicians.rating(0));
+        int[] skills = technicians.skillIds(0);
+        assertEquals(2, skills.length);
+        assertEquals("Electrical", reader.name(skills[0]));
+        assertEquals("Plumbing", reader.name(skills[1]));
+        assertEquals(List.of(gig), saved.gigs());
+    }
+
+    @Test
+    void read_ShouldRejectACorruptFile() throws IOException {
+        // Given
+        SkillDictionary dictionary = new SkillDictionary();
+        TechnicianSnapshot snapshot = new TechnicianSnapshot.Builder(dictionary, 1_000L)
+                .add(1L, 43.24, 76.89, 4.5f, new int[]{dictionary.intern("Plumbing")})
+                .build();
+        Path path = dir.resolve("snapshot.bin");
+        SnapshotFile.write(path, snapshot, dictionary, List.of(), 2_000L);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[30] ^= 1;
+        Files.write(path, bytes);
+
+        // When / Then
+        assertThrows(IOException.class, () -> SnapshotFile.read(path, new SkillDictionary()));
+    }
+}
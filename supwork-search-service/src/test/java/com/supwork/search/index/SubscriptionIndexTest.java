@@ -0,0 +1,47 @@
+package com.supwork.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionIndexTest {
+
+    private static final double LAT = 43.2389;
+    private static final double LON = 76.8897;
+
+    @Test
+    void match_ShouldReturnQueriesCoveringTheGigWithASharedSkill() {
+        // Given
+        SubscriptionIndex index = new SubscriptionIndex();
+        StandingQuery near = new StandingQuery(1L, LAT, LON, 10.0, new int[]{1, 2});
+        StandingQuery otherSkill = new StandingQuery(2L, LAT, LON, 10.0, new int[]{3});
+        StandingQuery tooFar = new StandingQuery(3L, 44.5, 78.0, 10.0, new int[]{1});
+        StandingQuery wide = new StandingQuery(4L, 44.5, 78.0, 200.0, new int[]{2});
+        List.of(near, otherSkill, tooFar, wide).forEach(index::add);
+
+        // When
+        List<StandingQuery> matches = index.match(LAT + 0.05, LON + 0.05, new int[]{1, 2});
+
+        // Then
+        assertEquals(2, matches.size());
+        assertTrue(matches.contains(near));
+        assertTrue(matches.contains(wide));
+    }
+
+    @Test
+    void remove_ShouldDropTheQueryFromEveryPosting() {
+        // Given
+        SubscriptionIndex index = new SubscriptionIndex();
+        StandingQuery query = new StandingQuery(1L, LAT, LON, 50.0, new int[]{1, 2});
+        index.add(query);
+
+        // When
+        index.remove(query);
+
+        // Then
+        assertTrue(index.match(LAT, LON, new int[]{1, 2}).isEmpty());
+        assertEquals(0, index.postingCount());
+    }
+}
@@ -0,0 +1,93 @@
+package com.supwork.search.index;
+
+import com.supwork.search.model.TechnicianProfile;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechnicianDocumentsTest {
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    @Test
+    void query_ShouldRankTextMatchesByRelevanceAndRating() throws IOException {
+        // Given
+        List<TechnicianProfile> profiles = List.of(
+                profile("a", "Aigerim", "Gas boiler repair and installation", 3.0, "43.2389,76.8897", "Plumbing"),
+                profile("b", "Boiler Bob", "Boilers, radiators", 5.0, "43.2400,76.8900", "Heating"),
+                profile("c", "Dana", "Wiring and lighting", 5.0, "43.2400,76.8900", "Electrical"));
+
+        // When
+        List<String> ids = search(profiles, TechnicianDocuments.query(
+                analyzer, "boiler", null, null, null, null, 0.5), Sort.RELEVANCE);
+
+        // Then
+        assertEquals(List.of("b", "a"), ids);
+    }
+
+    @Test
+    void query_ShouldApplySkillRatingGeoAndAvailabilityFilters() throws IOException {
+        // Given
+        TechnicianProfile unavailable = profile("d", "Erlan", "Boiler repair", 5.0, "43.2389,76.8897", "Plumbing");
+        unavailable.setIsAvailable(false);
+        List<TechnicianProfile> profiles = List.of(
+                profile("a", "Aigerim", "Boiler repair", 4.5, "43.2389,76.8897", "Plumbing"),
+                profile("b", "Bolat", "Boiler repair", 3.0, "43.2389,76.8897", "Plumbing"),
+                profile("c", "Dana", "Boiler repair", 4.8, "51.1694,71.4491", "Plumbing"),
+                unavailable);
+        double[] almaty = GeoMath.parseLocation("43.2400,76.8900");
+
+        // When
+        List<String> ids = search(profiles, TechnicianDocuments.query(
+                analyzer, "boiler", List.of("Plumbing"), 4.0, almaty, 10.0, 0.5), Sort.RELEVANCE);
+
+        // Then
+        assertEquals(List.of("a"), ids);
+    }
+
+    private List<String> search(List<TechnicianProfile> profiles, Query query, Sort sort) throws IOException {
+        try (ByteBuffersDirectory directory = new ByteBuffersDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer))) {
+                for (TechnicianProfile profile : profiles) {
+                    writer.addDocument(TechnicianDocuments.toDocument(profile));
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                List<String> ids = new ArrayList<>();
+                for (ScoreDoc hit : searcher.search(query, 10, sort).scoreDocs) {
+                    ids.add(searcher.storedFields().document(hit.doc).get(TechnicianDocuments.ID));
+                }
+                return ids;
+            }
+        }
+    }
+
+    private static TechnicianProfile profile(String id, String name, String bio, Double rating, String location,
+                                             String... skills) {
+        return TechnicianProfile.builder()
+                .id(id)
+                .userId((long) id.charAt(0))
+                .name(name)
+                .bio(bio)
+                .rating(rating)
+                .location(location)
+                .skills(List.of(skills))
+                .isAvailable(true)
+                .build();
+    }
+}
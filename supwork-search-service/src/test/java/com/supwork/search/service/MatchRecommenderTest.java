@@ -0,0 +1,101 @@
+package com.supwork.search.service;
+
+import com.supwork.search.client.GigClient;
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.index.TopMatches;
+import com.supwork.search.model.GigSearchDTO;
+import com.supwork.search.model.TechnicianProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MatchRecommenderTest {
+
+    private final SkillDictionary dictionary = new SkillDictionary();
+    private final GigClient gigClient = mock(GigClient.class);
+    private final TechnicianSnapshotService snapshotService = mock(TechnicianSnapshotService.class);
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private OpenGigIndex gigIndex;
+    private MatchRecommender recommender;
+
+    @BeforeEach
+    void setUp() {
+        gigIndex = new OpenGigIndex(gigClient, dictionary, mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+        recommender = new MatchRecommender(snapshotService, mock(PresenceService.class), gigIndex, pool,
+                new SimpleMeterRegistry(), 5, 10, 600000);
+        when(gigClient.getOpenGigs()).thenReturn(List.of(gig(1L, "43.2389,76.8897", "Plumbing")));
+        gigIndex.reconcile();
+        when(snapshotService.minRating()).thenReturn(4.0);
+        when(snapshotService.current()).thenReturn(TechnicianSnapshot.build(List.of(
+                technician(10L, "43.2400,76.8900", 4.5, "Plumbing"),
+                technician(11L, "43.2450,76.8950", 4.9, "Plumbing", "Electrical"),
+                technician(12L, "43.2400,76.8900", 3.0, "Plumbing")), dictionary));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void recompute_ShouldPrecomputeBothDirections() {
+        // When
+        recommender.recompute();
+
+        // Then
+        TopMatches technicians = recommender.forGig(1L, 10, 5);
+        assertEquals(2, technicians.size());
+        assertEquals(10L, technicians.id(0));
+        assertEquals(11L, technicians.id(1));
+        assertTrue(technicians.isComplete()); // Fewer than topK, so nothing was cut off
+        assertEquals(1L, recommender.forTechnician(11L, 10, 5).id(0));
+        assertNull(recommender.forGig(1L, 25, 5)); // Other radius is computed on demand
+    }
+
+    @Test
+    void onGigChanged_ShouldHideEntryUntilRecomputed() {
+        // Given
+        recommender.recompute();
+
+        // When
+        gigIndex.onGigChanged(new GigChangedEvent(2L, gig(2L, "43.2400,76.8900", "Electrical"), false));
+        recommender.onGigChanged(new GigChangedEvent(2L, gig(2L, "43.2400,76.8900", "Electrical"), false));
+
+        // Then
+        assertNull(recommender.forGig(2L, 10, 5));
+        recommender.recompute();
+        assertEquals(11L, recommender.forGig(2L, 10, 5).id(0));
+        assertEquals(2, recommender.forTechnician(11L, 10, 5).size());
+    }
+
+    private static GigSearchDTO gig(Long id, String location, String... skills) {
+        return GigSearchDTO.builder()
+                .id(id)
+                .title("Gig " + id)
+                .skills(List.of(skills))
+                .location(location)
+                .status("OPEN")
+                .build();
+    }
+
+    private static TechnicianProfile technician(Long userId, String location, double rating, String... skills) {
+        return TechnicianProfile.builder()
+                .userId(userId)
+                .location(location)
+                .rating(rating)
+                .skills(List.of(skills))
+                .isAvailable(true)
+                .build();
+    }
+}
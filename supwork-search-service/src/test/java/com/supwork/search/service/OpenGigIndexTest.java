@@ -0,0 +1,115 @@
+package com.supwork.search.service;
+
+import com.supwork.search.client.GigClient;
+import com.supwork.search.event.GigChangedEvent;
+import com.supwork.search.index.IndexedGig;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.model.GigSearchDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpenGigIndexTest {
+
+    private final GigClient gigClient = mock(GigClient.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final OpenGigIndex index =
+            new OpenGigIndex(gigClient, new SkillDictionary(), eventPublisher, new SimpleMeterRegistry());
+
+    @Test
+    void reconcile_ShouldBootstrapWithParsedGigs() {
+        // Given
+        when(gigClient.getOpenGigs()).thenReturn(List.of(gig(1L, "OPEN"), gig(2L, "OPEN")));
+
+        // When
+        index.reconcile();
+
+        // Then
+        assertTrue(index.isBootstrapped());
+        assertEquals(2, index.size());
+        IndexedGig gig = index.get(1L);
+        assertEquals(43.2389, gig.latitude(), 1e-9);
+        assertEquals(2, gig.skillIds().length);
+    }
+
+    @Test
+    void onGigChanged_ShouldApplyIncrementalChanges() {
+        // Given
+        when(gigClient.getOpenGigs()).thenReturn(List.of(gig(1L, "OPEN"), gig(2L, "OPEN")));
+        index.reconcile();
+
+        // When
+        index.onGigChanged(new GigChangedEvent(3L, gig(3L, "OPEN"), false));
+        index.onGigChanged(new GigChangedEvent(1L, gig(1L, "ASSIGNED"), false));
+        index.onGigChanged(new GigChangedEvent(2L, null, true));
+
+        // Then
+        assertEquals(1, index.size());
+        assertNotNull(index.get(3L));
+    }
+
+    @Test
+    void reconcile_ShouldKeepReplicaWhenGigServiceIsUnavailable() {
+        // Given
+        when(gigClient.getOpenGigs()).thenReturn(List.of(gig(1L, "OPEN")), null);
+        index.reconcile();
+
+        // When
+        index.reconcile();
+
+        // Then
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void reconcile_ShouldNotBootstrapFromTheFallback() {
+        // Given
+        when(gigClient.getOpenGigs()).thenReturn(null, List.of());
+
+        // When
+        index.reconcile();
+
+        // Then
+        assertFalse(index.isBootstrapped());
+        index.reconcile();
+        assertTrue(index.isBootstrapped());
+    }
+
+    @Test
+    void reconcile_ShouldPublishWhatChangedSinceTheLastOne() {
+        // Given
+        GigSearchDTO retitled = gig(2L, "OPEN");
+        retitled.setTitle("Renamed");
+        when(gigClient.getOpenGigs()).thenReturn(List.of(gig(1L, "OPEN"), gig(2L, "OPEN")),
+                List.of(retitled, gig(3L, "OPEN")));
+        index.reconcile();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        // When
+        index.reconcile();
+
+        // Then
+        verify(eventPublisher).publishEvent(new GigChangedEvent(1L, null, true));
+        verify(eventPublisher).publishEvent(new GigChangedEvent(2L, retitled, false));
+        verify(eventPublisher).publishEvent(new GigChangedEvent(3L, gig(3L, "OPEN"), false));
+    }
+
+    private static GigSearchDTO gig(Long id, String status) {
+        return GigSearchDTO.builder()
+                .id(id)
+                .title("Gig " + id)
+                .skills(List.of("Plumbing", "Electrical"))
+                .location("43.2389,76.8897")
+                .status(status)
+                .build();
+    }
+}
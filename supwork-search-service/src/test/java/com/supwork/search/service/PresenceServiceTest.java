@@ -0,0 +1,86 @@
+package com.supwork.search.service;
+
+import com.supwork.search.event.TechnicianChangedEvent;
+import com.supwork.search.index.PresenceMask;
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.index.TechnicianSnapshot;
+import com.supwork.search.model.TechnicianProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PresenceServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final RedisConnection connection = mock(RedisConnection.class, RETURNS_DEEP_STUBS);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void heartbeat_ShouldWriteOnlyTransitionsAndApplyThoseOfOtherInstances() {
+        // Given
+        RedisTemplate<String, byte[]> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        PresenceService presence = new PresenceService(mongoTemplate, redisTemplate,
+                mock(RedisMessageListenerContainer.class), eventPublisher, new SimpleMeterRegistry(), true, 50, 10);
+        TechnicianSnapshot snapshot = TechnicianSnapshot.build(List.of(technician(1L), technician(2L)),
+                new SkillDictionary());
+        PresenceMask mask = presence.mask(snapshot);
+        // Only the first heartbeat adds the technician to the shared set
+        when(connection.zSetCommands().zAdd(any(byte[].class), anyDouble(), any(byte[].class)))
+                .thenReturn(true, false);
+
+        // When
+        presence.heartbeat(1L);
+        presence.heartbeat(1L);
+
+        // Then
+        assertTrue(mask.contains(0));
+        assertFalse(mask.contains(1));
+        presence.flush();
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(TechnicianProfile.class));
+
+        // When the entry falls due and another instance reports technician 2 online
+        when(connection.scriptingCommands().eval(any(byte[].class), eq(ReturnType.MULTI), anyInt(),
+                any(byte[][].class))).thenReturn(List.of("1".getBytes(StandardCharsets.UTF_8)));
+        presence.expire();
+        presence.onChangeMessage("+2");
+
+        // Then
+        assertFalse(presence.isOnline(1L));
+        assertFalse(mask.contains(0));
+        assertTrue(mask.contains(1));
+        verify(eventPublisher).publishEvent(new TechnicianChangedEvent(2L));
+        presence.flush();
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), any(Update.class), eq(TechnicianProfile.class));
+    }
+
+    private static TechnicianProfile technician(Long userId) {
+        return TechnicianProfile.builder()
+                .userId(userId)
+                .location("43.2400,76.8900")
+                .rating(4.5)
+                .skills(List.of("Plumbing"))
+                .isAvailable(true)
+                .build();
+    }
+}
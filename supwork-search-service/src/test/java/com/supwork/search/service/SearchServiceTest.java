@@ -0,0 +1,153 @@
+package com.supwork.search.service;
+
+import com.supwork.search.index.SkillDictionary;
+import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.model.TechnicianSlice;
+import com.supwork.search.repository.TechnicianProfileRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchServiceTest {
+
+    // Ties on 4.5 and on missing ratings, with IDs out of insertion order
+    private static final List<TechnicianProfile> TECHNICIANS = List.of(
+            technician("65f1c0ffee00000000000004", 4.5),
+            technician("65f1c0ffee00000000000001", null),
+            technician("65f1c0ffee00000000000007", 5.0),
+            technician("65f1c0ffee00000000000002", 4.5),
+            technician("65f1c0ffee00000000000006", null),
+            technician("65f1c0ffee00000000000003", 3.0),
+            technician("65f1c0ffee00000000000005", 4.5));
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SearchService searchService = new SearchService(mock(TechnicianProfileRepository.class),
+            mongoTemplate, mock(OpenGigIndex.class), new SkillDictionary(), mock(ThreadPoolTaskExecutor.class),
+            mock(TechnicianTextIndex.class));
+
+    @Test
+    void searchTechniciansSlice_ShouldPageThroughTiesAndNullsWithoutGapsOrRepeats() {
+        // Given
+        when(mongoTemplate.find(any(Query.class), eq(TechnicianProfile.class)))
+                .thenAnswer(invocation -> find(invocation.getArgument(0)));
+
+        // When
+        List<String> descending = pageThrough("desc");
+        List<String> ascending = pageThrough("asc");
+
+        // Then - Mongo sorts missing ratings lowest
+        assertEquals(List.of("7", "2", "4", "5", "3", "1", "6"), descending);
+        assertEquals(List.of("1", "6", "3", "2", "4", "5", "7"), ascending);
+    }
+
+    @Test
+    void searchTechniciansSlice_ShouldRejectCursorIssuedForAnotherSort() {
+        // Given
+        String cursor = new TechnicianCursor("userId", false, 1L, "65f1c0ffee00000000000001").encode();
+
+        // When / Then
+        assertThrows(InvalidRequestException.class, () ->
+                searchService.searchTechniciansSlice(null, null, null, null, 2, "rating", "desc", cursor));
+    }
+
+    // Last digit of each ID, in the order the slices return them
+    private List<String> pageThrough(String sortDir) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TechnicianSlice slice = searchService.searchTechniciansSlice(null, null, null, null, 2,
+                    "rating", sortDir, cursor);
+            slice.getContent().forEach(technician -> seen.add(technician.getId().substring(23)));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    // Evaluates the operators the slice query uses the way Mongo would
+    private static List<TechnicianProfile> find(Query query) {
+        Comparator<TechnicianProfile> order = null;
+        for (Map.Entry<String, Object> sort : query.getSortObject().entrySet()) {
+            Comparator<TechnicianProfile> byField = Comparator.comparing(technician -> value(technician, sort.getKey()),
+                    Comparator.nullsFirst(SearchServiceTest::compare));
+            byField = ((Number) sort.getValue()).intValue() < 0 ? byField.reversed() : byField;
+            order = order == null ? byField : order.thenComparing(byField);
+        }
+        return TECHNICIANS.stream()
+                .filter(technician -> matches(technician, query.getQueryObject()))
+                .sorted(order)
+                .limit(query.getLimit())
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean matches(TechnicianProfile technician, Document criteria) {
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            boolean matched = switch (entry.getKey()) {
+                case "$and" -> ((List<Document>) entry.getValue()).stream().allMatch(c -> matches(technician, c));
+                case "$or" -> ((List<Document>) entry.getValue()).stream().anyMatch(c -> matches(technician, c));
+                default -> matches(value(technician, entry.getKey()), entry.getValue());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Object actual, Object condition) {
+        if (!(condition instanceof Document operators)) {
+            return Objects.equals(actual, condition);
+        }
+        for (Map.Entry<String, Object> operator : operators.entrySet()) {
+            Object operand = operator.getValue();
+            boolean matched = switch (operator.getKey()) {
+                case "$ne" -> !Objects.equals(actual, operand);
+                // Comparisons never match across types, null included
+                case "$gt" -> actual != null && compare(actual, operand) > 0;
+                case "$lt" -> actual != null && compare(actual, operand) < 0;
+                default -> throw new IllegalStateException("Unexpected operator " + operator.getKey());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object value(TechnicianProfile technician, String field) {
+        return switch (field) {
+            case "id" -> new ObjectId(technician.getId());
+            case "rating" -> technician.getRating();
+            case "isAvailable" -> technician.getIsAvailable();
+            default -> throw new IllegalStateException("Unexpected field " + field);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private static TechnicianProfile technician(String id, Double rating) {
+        return TechnicianProfile.builder()
+                .id(id)
+                .rating(rating)
+                .isAvailable(true)
+                .build();
+    }
+}
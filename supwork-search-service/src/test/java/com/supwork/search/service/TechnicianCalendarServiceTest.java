@@ -0,0 +1,66 @@
+package com.supwork.search.service;
+
+import com.supwork.search.model.CalendarSlot;
+import com.supwork.search.model.TechnicianCalendar;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TechnicianCalendarServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final TechnicianCalendarService calendars = new TechnicianCalendarService(mongoTemplate,
+            mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+
+    @Test
+    void reserve_ShouldOnlyMatchCalendarsWithoutAnOverlappingSlot() {
+        // Given
+        Instant start = Instant.now().plusSeconds(3600);
+        Instant end = start.plusSeconds(7200);
+
+        // When
+        Document query = TechnicianCalendarService.reserveQuery(7L, start, end).getQueryObject();
+
+        // Then
+        assertEquals(7L, query.get("_id"));
+        Document overlap = (Document) ((Document) ((Document) query.get("slots")).get("$not")).get("$elemMatch");
+        assertEquals(new Document("$lt", end), overlap.get("start"));
+        assertEquals(new Document("$gt", start), overlap.get("end"));
+    }
+
+    @Test
+    void reserve_ShouldReportConflictAndKeepServingTheStoredSlots() {
+        // Given
+        Instant start = Instant.now().plusSeconds(3600);
+        Instant end = start.plusSeconds(7200);
+        CalendarSlot slot = CalendarSlot.builder().start(start).end(end).gigId(1L).build();
+        when(mongoTemplate.findById(7L, TechnicianCalendar.class))
+                .thenReturn(TechnicianCalendar.builder().userId(7L).slots(List.of(slot)).build());
+        assertTrue(calendars.reserve(7L, slot));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(TechnicianCalendar.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        // When
+        boolean second = calendars.reserve(7L, CalendarSlot.builder()
+                .start(start.plusSeconds(60)).end(end.plusSeconds(60)).gigId(2L).build());
+
+        // Then
+        assertFalse(second);
+        assertFalse(calendars.isFree(7L, start.toEpochMilli(), end.toEpochMilli()));
+        assertTrue(calendars.isFree(7L, end.toEpochMilli(), end.toEpochMilli() + 1000));
+        assertTrue(calendars.isFree(8L, start.toEpochMilli(), end.toEpochMilli()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.supwork.search.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechnicianCursorTest {
+
+    @Test
+    void decode_ShouldRestoreEncodedPosition() {
+        // Given
+        String encoded = new TechnicianCursor("rating", true, 4.5, "65f1c0ffee0000000000abcd").encode();
+
+        // When
+        TechnicianCursor cursor = TechnicianCursor.decode(encoded);
+
+        // Then
+        assertEquals("rating", cursor.sortField());
+        assertTrue(cursor.descending());
+        assertEquals(4.5, cursor.lastValue());
+        assertEquals("65f1c0ffee0000000000abcd", cursor.lastId());
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedCursor() {
+        // When / Then
+        assertThrows(InvalidRequestException.class, () -> TechnicianCursor.decode("not-a-cursor"));
+    }
+}
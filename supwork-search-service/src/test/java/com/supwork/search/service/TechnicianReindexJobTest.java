@@ -0,0 +1,50 @@
+package com.supwork.search.service;
+
+import com.supwork.search.model.TechnicianProfile;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechnicianReindexJobTest {
+
+    @Test
+    void derive_ShouldRecomputePositionAndNormalizeSkills() {
+        // Given
+        TechnicianProfile profile = TechnicianProfile.builder()
+                .location("43.2389,76.8897")
+                .skills(Arrays.asList(" Plumbing", "Plumbing", "", null, "Electrical "))
+                .build();
+
+        // When
+        Update update = TechnicianReindexJob.derive(profile);
+
+        // Then
+        Document set = (Document) update.getUpdateObject().get("$set");
+        assertEquals(new GeoJsonPoint(76.8897, 43.2389), set.get("position"));
+        assertEquals(List.of("Plumbing", "Electrical"), set.get("skills"));
+    }
+
+    @Test
+    void derive_ShouldSkipCurrentProfilesAndUnsetBrokenPositions() {
+        // Given
+        TechnicianProfile current = TechnicianProfile.builder()
+                .location("43.2389,76.8897")
+                .position(new GeoJsonPoint(76.8897, 43.2389))
+                .skills(List.of("Plumbing"))
+                .build();
+        TechnicianProfile broken = TechnicianProfile.builder()
+                .location("unknown")
+                .position(new GeoJsonPoint(76.8897, 43.2389))
+                .build();
+
+        // When / Then
+        assertNull(TechnicianReindexJob.derive(current));
+        assertTrue(((Document) TechnicianReindexJob.derive(broken).getUpdateObject().get("$unset")).containsKey("position"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.supwork.search.service;
+
+import com.supwork.search.model.TechnicianProfile;
+import com.supwork.search.repository.TechnicianProfileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TechnicianTextIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private TechnicianTextIndex index;
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void rebuild_ShouldSwapInNewProfilesAndKeepTheOldIndexWhenItFails() throws IOException {
+        // Given
+        index = new TechnicianTextIndex(mock(TechnicianProfileRepository.class), mongoTemplate, dir, 0.5, 100,
+                Duration.ofHours(1));
+        when(mongoTemplate.stream(any(Query.class), eq(TechnicianProfile.class)))
+                .thenReturn(Stream.of(profile("a", "Boiler repair")))
+                .thenReturn(Stream.of(profile("b", "Boiler installation")))
+                .thenReturn(failing(profile("c", "Boiler service")));
+        index.rebuild();
+
+        // When
+        index.rebuild();
+        assertThrows(IllegalStateException.class, index::rebuild);
+
+        // Then
+        assertEquals(List.of("b"), search("boiler"));
+    }
+
+    @Test
+    void constructor_ShouldReopenTheLatestCompleteGeneration() throws IOException {
+        // Given
+        index = new TechnicianTextIndex(mock(TechnicianProfileRepository.class), mongoTemplate, dir, 0.5, 100,
+                Duration.ofHours(1));
+        when(mongoTemplate.stream(any(Query.class), eq(TechnicianProfile.class)))
+                .thenReturn(Stream.of(profile("a", "Boiler repair")));
+        index.rebuild();
+        index.close();
+
+        // When
+        index = new TechnicianTextIndex(mock(TechnicianProfileRepository.class), mongoTemplate, dir, 0.5, 100,
+                Duration.ofHours(1));
+
+        // Then
+        assertEquals(List.of("a"), search("boiler"));
+    }
+
+    private List<String> search(String text) {
+        return index.search(text, null, null, null, null, null, true, PageRequest.of(0, 10)).getContent();
+    }
+
+    // Yields the profile, then fails as a dropped cursor would
+    private static Stream<TechnicianProfile> failing(TechnicianProfile profile) {
+        return Stream.concat(Stream.of(profile), Stream.generate(() -> {
+            throw new IllegalStateException("cursor lost");
+        }));
+    }
+
+    private static TechnicianProfile profile(String id, String bio) {
+        return TechnicianProfile.builder()
+                .id(id)
+                .userId((long) id.charAt(0))
+                .name("Technician " + id)
+                .bio(bio)
+                .rating(4.5)
+                .location("43.2389,76.8897")
+                .skills(List.of("Heating"))
+                .isAvailable(true)
+                .build();
+    }
+}